@@ -0,0 +1,177 @@
+-- =====================================================
+-- Sode Sri Vadiraja Matha
+-- Upgrade for databases created from db_schema.sql
+-- =====================================================
+-- The prod profile runs with spring.jpa.hibernate.ddl-auto=validate, so the
+-- tables and columns below must exist before a new build is started there.
+-- Every statement is idempotent: run this file on each deploy, and after
+-- db_schema.sql on a fresh database.
+
+BEGIN;
+
+-- =====================================================
+-- NEW COLUMNS ON EXISTING TABLES
+-- =====================================================
+-- Bumped on role changes; access tokens carrying an older version are rejected
+ALTER TABLE users ADD COLUMN IF NOT EXISTS token_version INTEGER NOT NULL DEFAULT 0;
+
+-- Bookings allowed per seva date; NULL means unlimited
+ALTER TABLE sevas ADD COLUMN IF NOT EXISTS daily_quota INTEGER;
+
+-- Optimistic lock versions
+ALTER TABLE seva_bookings ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE room_bookings ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE volunteer_applications ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
+
+-- Bookings made before the room ledger existed keep a NULL guest house
+ALTER TABLE room_bookings ADD COLUMN IF NOT EXISTS guest_house VARCHAR(255);
+
+CREATE INDEX IF NOT EXISTS idx_seva_bookings_user_created_at ON seva_bookings(user_id, created_at);
+CREATE INDEX IF NOT EXISTS idx_seva_bookings_razorpay_order_id ON seva_bookings(razorpay_order_id);
+CREATE INDEX IF NOT EXISTS idx_seva_bookings_razorpay_payment_id ON seva_bookings(razorpay_payment_id);
+CREATE INDEX IF NOT EXISTS idx_room_bookings_created_at_id ON room_bookings(created_at, id);
+CREATE INDEX IF NOT EXISTS idx_room_bookings_user_created_at ON room_bookings(user_id, created_at);
+
+-- =====================================================
+-- AUTH TOKENS
+-- =====================================================
+CREATE TABLE IF NOT EXISTS refresh_tokens (
+    id                              UUID PRIMARY KEY DEFAULT gen_random_uuid(),
+    token_hash                      VARCHAR(64) NOT NULL UNIQUE, -- SHA-256 of the token; the token itself is never stored
+    phone_number                    VARCHAR(255) NOT NULL,
+    family_id                       UUID NOT NULL,
+    expires_at                      TIMESTAMP WITHOUT TIME ZONE,
+    revoked_at                      TIMESTAMP WITHOUT TIME ZONE,
+    created_at                      TIMESTAMP WITHOUT TIME ZONE
+);
+
+CREATE INDEX IF NOT EXISTS idx_refresh_tokens_phone ON refresh_tokens(phone_number);
+CREATE INDEX IF NOT EXISTS idx_refresh_tokens_family ON refresh_tokens(family_id);
+
+CREATE TABLE IF NOT EXISTS revoked_tokens (
+    jti                             VARCHAR(255) PRIMARY KEY,
+    phone_number                    VARCHAR(255),
+    expires_at                      TIMESTAMP WITHOUT TIME ZONE,
+    revoked_at                      TIMESTAMP WITHOUT TIME ZONE
+);
+
+CREATE INDEX IF NOT EXISTS idx_revoked_tokens_revoked_at ON revoked_tokens(revoked_at);
+
+-- Shared OTP state, used when otp.store=jdbc
+CREATE TABLE IF NOT EXISTS otp_codes (
+    phone_number                    VARCHAR(32) PRIMARY KEY,
+    otp_hash                        VARCHAR(64),
+    expires_at                      TIMESTAMP WITH TIME ZONE NOT NULL,
+    attempts                        INTEGER NOT NULL DEFAULT 0,
+    locked_until                    TIMESTAMP WITH TIME ZONE
+);
+
+-- =====================================================
+-- ROOM INVENTORY
+-- =====================================================
+CREATE TABLE IF NOT EXISTS room_inventory (
+    id                              UUID PRIMARY KEY DEFAULT gen_random_uuid(),
+    guest_house                     VARCHAR(255) NOT NULL,
+    stay_date                       DATE NOT NULL,
+    capacity                        INTEGER NOT NULL,
+    reserved                        INTEGER NOT NULL DEFAULT 0,
+
+    CONSTRAINT uk_room_inventory_guest_house_date
+        UNIQUE (guest_house, stay_date)
+);
+
+-- =====================================================
+-- SEVA QUOTAS
+-- =====================================================
+CREATE TABLE IF NOT EXISTS seva_quotas (
+    id                              UUID PRIMARY KEY DEFAULT gen_random_uuid(),
+    seva_id                         UUID NOT NULL,
+    seva_date                       DATE NOT NULL,
+    quota_limit                     INTEGER NOT NULL,
+    used                            INTEGER NOT NULL DEFAULT 0,
+
+    CONSTRAINT uk_seva_quotas_seva_date
+        UNIQUE (seva_id, seva_date)
+);
+
+-- =====================================================
+-- PAYMENTS
+-- =====================================================
+CREATE TABLE IF NOT EXISTS payment_order_outbox (
+    booking_id                      UUID PRIMARY KEY,
+    amount                          NUMERIC(38,2) NOT NULL,
+    attempts                        INTEGER NOT NULL DEFAULT 0,
+    next_attempt_at                 TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+    last_error                      VARCHAR(255),
+    created_at                      TIMESTAMP WITHOUT TIME ZONE
+);
+
+CREATE INDEX IF NOT EXISTS idx_payment_order_outbox_next_attempt ON payment_order_outbox(next_attempt_at);
+
+CREATE TABLE IF NOT EXISTS payment_webhook_events (
+    event_id                        VARCHAR(255) PRIMARY KEY, -- Razorpay's event id; redeliveries are dropped on insert
+    event_type                      VARCHAR(255) NOT NULL,
+    razorpay_order_id               VARCHAR(255) NOT NULL,
+    razorpay_payment_id             VARCHAR(255),
+    amount                          BIGINT, -- paisa
+    occurred_at                     TIMESTAMP WITHOUT TIME ZONE,
+    received_at                     TIMESTAMP WITHOUT TIME ZONE,
+    attempts                        INTEGER NOT NULL DEFAULT 0,
+    next_attempt_at                 TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+    processed_at                    TIMESTAMP WITHOUT TIME ZONE,
+    outcome                         VARCHAR(255)
+);
+
+-- =====================================================
+-- SEVA CANCELLATIONS AND REFUNDS
+-- =====================================================
+CREATE TABLE IF NOT EXISTS seva_cancellation_jobs (
+    id                              UUID PRIMARY KEY DEFAULT gen_random_uuid(),
+    seva_id                         UUID NOT NULL,
+    seva_date                       DATE NOT NULL,
+    reason                          VARCHAR(255),
+    requested_by                    VARCHAR(255),
+    status                          VARCHAR(255) NOT NULL DEFAULT 'IN_PROGRESS'
+                                        CHECK (status IN ('IN_PROGRESS', 'COMPLETED', 'COMPLETED_WITH_FAILURES')),
+    bookings_cancelled              INTEGER DEFAULT 0,
+    refunds_queued                  INTEGER DEFAULT 0,
+    created_at                      TIMESTAMP WITHOUT TIME ZONE,
+    completed_at                    TIMESTAMP WITHOUT TIME ZONE
+);
+
+CREATE TABLE IF NOT EXISTS seva_refunds (
+    id                              UUID PRIMARY KEY DEFAULT gen_random_uuid(),
+    booking_id                      UUID NOT NULL,
+    job_id                          UUID, -- NULL for refunds not raised by a cancellation job
+    razorpay_payment_id             VARCHAR(255) NOT NULL UNIQUE,
+    amount                          NUMERIC(38,2) NOT NULL,
+    status                          VARCHAR(255) NOT NULL DEFAULT 'PENDING'
+                                        CHECK (status IN ('PENDING', 'REFUNDED', 'FAILED')),
+    attempts                        INTEGER NOT NULL DEFAULT 0,
+    next_attempt_at                 TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+    razorpay_refund_id              VARCHAR(255),
+    last_error                      VARCHAR(255),
+    created_at                      TIMESTAMP WITHOUT TIME ZONE,
+    updated_at                      TIMESTAMP WITHOUT TIME ZONE
+);
+
+CREATE INDEX IF NOT EXISTS idx_seva_refunds_job_id ON seva_refunds(job_id);
+CREATE INDEX IF NOT EXISTS idx_seva_refunds_booking_id ON seva_refunds(booking_id);
+
+-- =====================================================
+-- POSTGRES-SPECIFIC COLUMNS AND INDEXES
+-- =====================================================
+-- Also applied by SchemaIndexInitializer on startup; creating them here keeps
+-- the index builds out of the application's start-up on large tables.
+ALTER TABLE room_bookings ADD COLUMN IF NOT EXISTS stay_range daterange
+    GENERATED ALWAYS AS (CASE WHEN check_out_date > check_in_date
+        THEN daterange(check_in_date, check_out_date, '[)') END) STORED;
+CREATE INDEX IF NOT EXISTS idx_room_bookings_stay_range ON room_bookings USING gist (stay_range);
+CREATE INDEX IF NOT EXISTS idx_room_bookings_waitlist ON room_bookings(guest_house, created_at, id)
+    WHERE status = 'WAITLISTED';
+CREATE INDEX IF NOT EXISTS idx_seva_bookings_unpaid_created_at ON seva_bookings(created_at)
+    WHERE status IN ('PENDING', 'FAILED') AND payment_status IN ('PENDING', 'FAILED');
+CREATE INDEX IF NOT EXISTS idx_payment_webhook_events_due ON payment_webhook_events(next_attempt_at, received_at)
+    WHERE processed_at IS NULL;
+
+COMMIT;
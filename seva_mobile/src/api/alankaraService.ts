@@ -1,8 +1,8 @@
 import { API_URL } from './config';
-import AsyncStorage from '@react-native-async-storage/async-storage';
+import { authService } from './authService';
 
 const getAuthHeader = async (): Promise<HeadersInit> => {
-    const token = await AsyncStorage.getItem('auth_token');
+    const token = await authService.getToken();
     return token
         ? { 'Authorization': `Bearer ${token}`, 'Content-Type': 'application/json' }
         : { 'Content-Type': 'application/json' };
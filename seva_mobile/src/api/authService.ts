@@ -2,12 +2,25 @@ import AsyncStorage from '@react-native-async-storage/async-storage';
 import { API_URL } from './config';
 
 const AUTH_TOKEN_KEY = 'auth_token';
+const REFRESH_TOKEN_KEY = 'refresh_token';
+const TOKEN_EXPIRES_AT_KEY = 'auth_token_expires_at';
 
-interface AuthResponse {
+// Refresh this long before the access token expires, so requests never go out with a stale one
+const REFRESH_MARGIN_MS = 60 * 1000;
+
+interface TokenResponse {
     token: string;
+    refreshToken?: string;
+    expiresIn?: number;
+}
+
+interface AuthResponse extends TokenResponse {
     isNewUser: boolean;
 }
 
+// Shared by concurrent callers so a refresh token is only ever spent once
+let refreshInFlight: Promise<string | null> | null = null;
+
 interface User {
     id?: string;
     phoneNumber: string;
@@ -44,7 +57,7 @@ export const authService = {
     },
 
     async register(user: Partial<User>): Promise<User> {
-        const token = await AsyncStorage.getItem(AUTH_TOKEN_KEY);
+        const token = await this.getToken();
         const response = await fetch(`${API_URL}/auth/register`, {
             method: 'POST',
             headers: {
@@ -61,7 +74,7 @@ export const authService = {
     },
 
     async getMe(): Promise<User> {
-        const token = await AsyncStorage.getItem(AUTH_TOKEN_KEY);
+        const token = await this.getToken();
         if (!token) throw new Error('No token found');
 
         const response = await fetch(`${API_URL}/auth/me`, {
@@ -72,7 +85,7 @@ export const authService = {
         });
 
         if (response.status === 401) {
-            await this.logout();
+            await this.clearTokens();
             throw new Error('Unauthorized');
         }
 
@@ -82,15 +95,77 @@ export const authService = {
         return response.json();
     },
 
-    async saveToken(token: string): Promise<void> {
-        await AsyncStorage.setItem(AUTH_TOKEN_KEY, token);
+    async saveTokens(tokens: TokenResponse): Promise<void> {
+        const entries: [string, string][] = [[AUTH_TOKEN_KEY, tokens.token]];
+        if (tokens.refreshToken) {
+            entries.push([REFRESH_TOKEN_KEY, tokens.refreshToken]);
+        }
+        if (tokens.expiresIn) {
+            entries.push([TOKEN_EXPIRES_AT_KEY, String(Date.now() + tokens.expiresIn * 1000)]);
+        }
+        await AsyncStorage.multiSet(entries);
     },
 
+    /**
+     * Returns an access token that is still valid, refreshing it first when it is about to expire.
+     */
     async getToken(): Promise<string | null> {
-        return AsyncStorage.getItem(AUTH_TOKEN_KEY);
+        const [[, token], [, expiresAt]] = await AsyncStorage.multiGet([AUTH_TOKEN_KEY, TOKEN_EXPIRES_AT_KEY]);
+        if (!token || !expiresAt || Date.now() < Number(expiresAt) - REFRESH_MARGIN_MS) {
+            return token;
+        }
+        if (!refreshInFlight) {
+            refreshInFlight = this.refresh(token).finally(() => {
+                refreshInFlight = null;
+            });
+        }
+        return refreshInFlight;
+    },
+
+    async refresh(currentToken: string): Promise<string | null> {
+        const refreshToken = await AsyncStorage.getItem(REFRESH_TOKEN_KEY);
+        if (!refreshToken) {
+            return currentToken;
+        }
+        let response: Response;
+        try {
+            response = await fetch(`${API_URL}/auth/refresh?refreshToken=${encodeURIComponent(refreshToken)}`, {
+                method: 'POST',
+            });
+        } catch (e) {
+            // Offline: keep the current token and try again on the next request
+            return currentToken;
+        }
+        if (response.status === 401) {
+            await this.clearTokens();
+            return null;
+        }
+        if (!response.ok) {
+            return currentToken;
+        }
+        const tokens: TokenResponse = await response.json();
+        await this.saveTokens(tokens);
+        return tokens.token;
+    },
+
+    async clearTokens(): Promise<void> {
+        await AsyncStorage.multiRemove([AUTH_TOKEN_KEY, REFRESH_TOKEN_KEY, TOKEN_EXPIRES_AT_KEY]);
     },
 
     async logout(): Promise<void> {
-        await AsyncStorage.removeItem(AUTH_TOKEN_KEY);
+        const [[, token], [, refreshToken]] = await AsyncStorage.multiGet([AUTH_TOKEN_KEY, REFRESH_TOKEN_KEY]);
+        if (token) {
+            // Best effort: revoke the session on the server, but always sign out locally
+            try {
+                const query = refreshToken ? `?refreshToken=${encodeURIComponent(refreshToken)}` : '';
+                await fetch(`${API_URL}/auth/logout${query}`, {
+                    method: 'POST',
+                    headers: { 'Authorization': `Bearer ${token}` },
+                });
+            } catch (e) {
+                // Ignored; the tokens expire on their own
+            }
+        }
+        await this.clearTokens();
     }
 };
@@ -33,24 +33,40 @@ export interface SevaBooking {
     updatedAt: string;
 }
 
+interface CursorPage<T> {
+    items: T[];
+    nextCursor: string | null;
+}
+
+// History endpoints return one page at a time, newest first; follow nextCursor until the last page
+const fetchAllPages = async <T,>(url: string, token: string): Promise<T[]> => {
+    const items: T[] = [];
+    let cursor: string | null = null;
+    do {
+        const pageUrl: string = cursor ? `${url}?cursor=${encodeURIComponent(cursor)}` : url;
+        const response = await fetch(pageUrl, {
+            headers: {
+                'Content-Type': 'application/json',
+                'Authorization': `Bearer ${token}`
+            }
+        });
+        if (!response.ok) {
+            throw new Error(`History request failed with status ${response.status}`);
+        }
+        const page: CursorPage<T> = await response.json();
+        items.push(...page.items);
+        cursor = page.nextCursor;
+    } while (cursor);
+    return items;
+};
+
 export const bookingService = {
     // Get user's room booking history
     getRoomBookings: async (token: string, userId: string): Promise<RoomBooking[]> => {
         try {
-            const response = await fetch(`${API_URL}/bookings/room/user/${userId}`, {
-                headers: {
-                    'Content-Type': 'application/json',
-                    'Authorization': `Bearer ${token}`
-                }
-            });
-
-            if (!response.ok) {
-                console.warn('Room bookings endpoint not available, returning empty array');
-                return [];
-            }
-            return await response.json();
+            return await fetchAllPages<RoomBooking>(`${API_URL}/bookings/room/user/${userId}`, token);
         } catch (error) {
-            console.error('Error fetching room bookings:', error);
+            console.warn('Room bookings endpoint not available, returning empty array', error);
             return [];
         }
     },
@@ -58,20 +74,9 @@ export const bookingService = {
     // Get user's seva booking history
     getSevaBookings: async (token: string, userId: string): Promise<SevaBooking[]> => {
         try {
-            const response = await fetch(`${API_URL}/bookings/seva/user/${userId}`, {
-                headers: {
-                    'Content-Type': 'application/json',
-                    'Authorization': `Bearer ${token}`
-                }
-            });
-
-            if (!response.ok) {
-                console.warn('Seva bookings endpoint not available, returning empty array');
-                return [];
-            }
-            return await response.json();
+            return await fetchAllPages<SevaBooking>(`${API_URL}/bookings/seva/user/${userId}`, token);
         } catch (error) {
-            console.error('Error fetching seva bookings:', error);
+            console.warn('Seva bookings endpoint not available, returning empty array', error);
             return [];
         }
     },
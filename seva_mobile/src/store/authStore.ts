@@ -94,8 +94,8 @@ export const useAuthStore = create<AuthState>((set, get) => ({
     verifyOtp: async (phoneNumber: string, otp: string) => {
         set({ error: null, isLoading: true });
         try {
-            const { token, isNewUser } = await authService.verifyOtp(phoneNumber, otp);
-            await authService.saveToken(token);
+            const tokens = await authService.verifyOtp(phoneNumber, otp);
+            await authService.saveTokens(tokens);
 
             // Try to fetch profile, if new user handle gracefully
             let profile: User;
@@ -0,0 +1,22 @@
+package com.seva.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import lombok.Data;
+
+import java.time.Duration;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "admission.seva")
+public class AdmissionProperties {
+    // Off by default; switch on for festival days. Clients must then obtain a queue ticket before initiating.
+    private boolean enabled = false;
+    // Bookings admitted per second on this node
+    private double admitsPerSecond = 20;
+    // How long an admitted ticket stays usable before its slot is forfeited
+    private Duration admissionWindow = Duration.ofMinutes(2);
+    // Waiting tickets not polled for this long are dropped
+    private Duration idleTimeout = Duration.ofMinutes(2);
+    private int maxWaiting = 100_000;
+}
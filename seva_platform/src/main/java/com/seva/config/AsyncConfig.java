@@ -0,0 +1,78 @@
+package com.seva.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+@Configuration
+@EnableAsync
+public class AsyncConfig {
+
+    /**
+     * Single worker, so event-triggered promotions run one after another instead of
+     * contending for the same waitlist rows. It is not what keeps promotions correct: the
+     * scheduled sweep runs on the scheduler thread and other nodes promote too, and each
+     * promotion claims its booking and rooms in its own transaction. Triggers dropped when
+     * the queue is full are picked up by the periodic waitlist sweep.
+     */
+    @Bean(name = "waitlistExecutor")
+    public ThreadPoolTaskExecutor waitlistExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(1);
+        executor.setQueueCapacity(500);
+        executor.setThreadNamePrefix("waitlist-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.DiscardPolicy());
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Sends user notifications after the request has returned. Notifications that do not fit
+     * in the queue are dropped rather than slowing down the caller.
+     */
+    @Bean(name = "notificationExecutor")
+    public ThreadPoolTaskExecutor notificationExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(2);
+        executor.setMaxPoolSize(2);
+        executor.setQueueCapacity(1000);
+        executor.setThreadNamePrefix("notify-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.DiscardPolicy());
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Issues seva refunds in parallel. The refund worker hands over one leased batch at a time
+     * and leases the next only once it has finished, so the queue never holds more than a batch.
+     */
+    @Bean(name = "refundExecutor")
+    public ThreadPoolTaskExecutor refundExecutor(PaymentProperties paymentProperties) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(paymentProperties.getRefund().getConcurrency());
+        executor.setMaxPoolSize(paymentProperties.getRefund().getConcurrency());
+        executor.setQueueCapacity(paymentProperties.getRefund().getBatchSize());
+        executor.setThreadNamePrefix("refund-");
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Runs payment gateway calls so callers can give up on them at the deadline. Sized to the
+     * gateway bulkhead, which already bounds how many calls are submitted at once.
+     */
+    @Bean(name = "paymentGatewayExecutor")
+    public ThreadPoolTaskExecutor paymentGatewayExecutor(PaymentProperties paymentProperties) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(paymentProperties.getMaxConcurrent());
+        executor.setMaxPoolSize(paymentProperties.getMaxConcurrent());
+        executor.setQueueCapacity(paymentProperties.getMaxConcurrent());
+        executor.setThreadNamePrefix("payment-gateway-");
+        executor.initialize();
+        return executor;
+    }
+}
@@ -0,0 +1,31 @@
+package com.seva.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import lombok.Data;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "bulkhead")
+public class BulkheadProperties {
+    private boolean enabled = true;
+
+    // Route classes in match order; the first class with a matching path pattern wins
+    private Map<String, RouteClass> classes = new LinkedHashMap<>();
+
+    @Data
+    public static class RouteClass {
+        private List<String> paths = new ArrayList<>();
+        private int maxConcurrent = 50;
+        private int maxQueue = 50;
+        private Duration queueTimeout = Duration.ofMillis(500);
+        // Limit only requests that passed Spring Security; set for routes anonymous callers may not use
+        private boolean authenticated = false;
+    }
+}
@@ -0,0 +1,264 @@
+package com.seva.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Makes retried booking and payment POSTs safe. The first request carrying a given
+ * Idempotency-Key runs normally and its response is kept for the configured TTL; a retry
+ * with the same key and body gets that response replayed, and a duplicate arriving while
+ * the first is still running waits for it instead of running again. Keys are scoped to
+ * the authenticated user, so this runs after the security chain. Server errors are not
+ * kept, so a retry after a 5xx runs again.
+ *
+ * The store is per node; a retry routed to another node runs again.
+ */
+@Slf4j
+@Component
+public class IdempotencyFilter extends OncePerRequestFilter {
+
+    public static final String HEADER = "Idempotency-Key";
+    private static final int MAX_KEY_LENGTH = 255;
+
+    private record StoredResponse(int status, String contentType, byte[] body) {
+    }
+
+    private record Entry(String fingerprint, CompletableFuture<StoredResponse> response) {
+    }
+
+    private final IdempotencyProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final Cache<String, Entry> entries;
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+
+    public IdempotencyFilter(IdempotencyProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        this.entries = Caffeine.newBuilder()
+                .maximumSize(properties.getMaxSize())
+                .expireAfterWrite(properties.getTtl())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, entries, "idempotency");
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        if (!properties.isEnabled() || !"POST".equals(request.getMethod()) || request.getHeader(HEADER) == null) {
+            return true;
+        }
+        String path = request.getRequestURI();
+        return properties.getPaths().stream().noneMatch(pattern -> pathMatcher.match(pattern, path));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String idempotencyKey = request.getHeader(HEADER);
+        if (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_KEY_LENGTH) {
+            writeError(response, HttpServletResponse.SC_BAD_REQUEST, "Invalid " + HEADER + " header");
+            return;
+        }
+
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        String principal = authentication != null ? authentication.getName() : "anonymous";
+        String key = principal + " " + request.getRequestURI() + " " + idempotencyKey;
+        // Form posts are read through the parameter map; anything else is buffered so the controller can still read it
+        boolean form = request.getContentType() != null
+                && request.getContentType().startsWith(MediaType.APPLICATION_FORM_URLENCODED_VALUE);
+        HttpServletRequest forwarded = form ? request : new CachedBodyRequest(request);
+        String fingerprint = form
+                ? fingerprint(null, formBody(request))
+                : fingerprint(request.getQueryString(), ((CachedBodyRequest) forwarded).body);
+
+        Entry mine = new Entry(fingerprint, new CompletableFuture<>());
+        Entry existing = entries.asMap().putIfAbsent(key, mine);
+        if (existing != null) {
+            replay(existing, fingerprint, response);
+            return;
+        }
+
+        record("miss");
+        ContentCachingResponseWrapper wrapped = new ContentCachingResponseWrapper(response);
+        try {
+            chain.doFilter(forwarded, wrapped);
+        } catch (IOException | ServletException | RuntimeException e) {
+            forget(key, mine, e);
+            throw e;
+        }
+        if (!isReplayable(wrapped)) {
+            forget(key, mine, new IllegalStateException("Original request failed with " + wrapped.getStatus()));
+        } else {
+            mine.response().complete(new StoredResponse(wrapped.getStatus(), wrapped.getContentType(),
+                    wrapped.getContentAsByteArray()));
+        }
+        wrapped.copyBodyToResponse();
+    }
+
+    /**
+     * Only outcomes that a retry would reproduce are kept: 2xx and deterministic 4xx. Server
+     * errors, conflicts, timeouts, rate limits and anything asking the client to come back
+     * later are forgotten, so the retry runs for real.
+     */
+    private static boolean isReplayable(HttpServletResponse response) {
+        int status = response.getStatus();
+        if (status >= 500 || response.getHeader("Retry-After") != null) {
+            return false;
+        }
+        return status != HttpServletResponse.SC_REQUEST_TIMEOUT && status != HttpServletResponse.SC_CONFLICT
+                && status != 425 && status != 429;
+    }
+
+    private void replay(Entry existing, String fingerprint, HttpServletResponse response) throws IOException {
+        if (!existing.fingerprint().equals(fingerprint)) {
+            record("mismatch");
+            writeError(response, 422, HEADER + " was already used for a different request");
+            return;
+        }
+        boolean inFlight = !existing.response().isDone();
+        StoredResponse stored;
+        try {
+            stored = existing.response().get(properties.getWaitTimeout().toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            record("timeout");
+            writeError(response, HttpServletResponse.SC_CONFLICT, "The original request is still in progress");
+            return;
+        } catch (ExecutionException e) {
+            record("failed");
+            writeError(response, HttpServletResponse.SC_CONFLICT, "The original request failed, please retry");
+            return;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            writeError(response, HttpServletResponse.SC_SERVICE_UNAVAILABLE, "Interrupted");
+            return;
+        }
+        record(inFlight ? "coalesced" : "replay");
+        response.setStatus(stored.status());
+        if (stored.contentType() != null) {
+            response.setContentType(stored.contentType());
+        }
+        response.setHeader("Idempotent-Replayed", "true");
+        response.setContentLength(stored.body().length);
+        response.getOutputStream().write(stored.body());
+    }
+
+    // Drops a failed attempt so the next retry runs again; waiters see the failure
+    private void forget(String key, Entry entry, Exception cause) {
+        entries.asMap().remove(key, entry);
+        entry.response().completeExceptionally(cause);
+    }
+
+    private void record(String result) {
+        meterRegistry.counter("http.idempotency", "result", result).increment();
+    }
+
+    private static void writeError(HttpServletResponse response, int status, String message) throws IOException {
+        response.setStatus(status);
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.getWriter().write("{\"success\":false,\"message\":\"" + message + "\"}");
+    }
+
+    private static String fingerprint(String queryString, byte[] body) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            if (queryString != null) {
+                digest.update(queryString.getBytes(StandardCharsets.UTF_8));
+            }
+            digest.update((byte) 0);
+            digest.update(body);
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private static byte[] formBody(HttpServletRequest request) {
+        StringBuilder body = new StringBuilder();
+        new TreeMap<>(request.getParameterMap()).forEach((name, values) -> {
+            for (String value : values) {
+                body.append(name).append('=').append(value).append('&');
+            }
+        });
+        return body.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Reads the body once so it can be fingerprinted and still be read by the controller.
+     */
+    private static class CachedBodyRequest extends HttpServletRequestWrapper {
+
+        private final byte[] body;
+
+        CachedBodyRequest(HttpServletRequest request) throws IOException {
+            super(request);
+            this.body = request.getInputStream().readAllBytes();
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream in = new ByteArrayInputStream(body);
+            return new ServletInputStream() {
+                @Override
+                public boolean isFinished() {
+                    return in.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                @Override
+                public void setReadListener(ReadListener listener) {
+                    throw new UnsupportedOperationException();
+                }
+
+                @Override
+                public int read() {
+                    return in.read();
+                }
+
+                @Override
+                public int read(byte[] b, int off, int len) {
+                    return in.read(b, off, len);
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            return new BufferedReader(new InputStreamReader(getInputStream(), StandardCharsets.UTF_8));
+        }
+    }
+}
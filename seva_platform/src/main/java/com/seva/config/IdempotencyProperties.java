@@ -0,0 +1,23 @@
+package com.seva.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import lombok.Data;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "idempotency")
+public class IdempotencyProperties {
+    private boolean enabled = true;
+    // POST routes that honour the Idempotency-Key header
+    private List<String> paths = new ArrayList<>();
+    // How long a completed response is replayed for the same key
+    private Duration ttl = Duration.ofHours(24);
+    private long maxSize = 100_000;
+    // How long a duplicate waits for the original request before giving up; must cover a payment gateway call
+    private Duration waitTimeout = Duration.ofSeconds(30);
+}
@@ -4,9 +4,22 @@ import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.context.annotation.Configuration;
 import lombok.Data;
 
+import java.time.Duration;
+
 @Data
 @Configuration
 @ConfigurationProperties(prefix = "jwt")
 public class JwtProperties {
     private String secret;
+    // Short-lived; clients renew it through /api/auth/refresh shortly before it expires
+    private Duration accessTokenTtl = Duration.ofMinutes(15);
+    private Duration refreshTokenTtl = Duration.ofDays(30);
+
+    private ClaimsCache claimsCache = new ClaimsCache();
+
+    @Data
+    public static class ClaimsCache {
+        // Upper bound on distinct verified tokens kept per node
+        private long maxSize = 50_000;
+    }
 }
@@ -0,0 +1,19 @@
+package com.seva.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import lombok.Data;
+
+import java.time.Duration;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "otp")
+public class OtpProperties {
+    // "memory" for a single node, "jdbc" to share OTP state between nodes through Postgres
+    private String store = "memory";
+    private Duration ttl = Duration.ofMinutes(5);
+    private int maxAttempts = 5;
+    private Duration lockout = Duration.ofMinutes(15);
+    private Duration sweepInterval = Duration.ofSeconds(1);
+}
@@ -0,0 +1,88 @@
+package com.seva.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import lombok.Data;
+
+import java.time.Duration;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "payments")
+public class PaymentProperties {
+    // "razorpay" calls the real gateway; "stub" creates orders in memory for offline and load testing
+    private String gateway = "razorpay";
+    // Hard limit on a single gateway call, including any time the client library spends retrying
+    private Duration deadline = Duration.ofSeconds(5);
+    // Gateway calls allowed in flight at once; further callers wait up to acquireTimeout, then fail fast
+    private int maxConcurrent = 20;
+    private Duration acquireTimeout = Duration.ofMillis(200);
+
+    private CircuitBreaker circuitBreaker = new CircuitBreaker();
+    private Outbox outbox = new Outbox();
+    private Webhook webhook = new Webhook();
+    private Settlement settlement = new Settlement();
+    private Refund refund = new Refund();
+    private Stub stub = new Stub();
+
+    @Data
+    public static class CircuitBreaker {
+        // Opens when at least this share of the recent calls failed
+        private int failureRateThreshold = 50;
+        private int slidingWindowSize = 20;
+        private int minimumCalls = 10;
+        private Duration openDuration = Duration.ofSeconds(30);
+        // Trial calls let through while half-open; all must succeed to close again
+        private int halfOpenProbes = 3;
+    }
+
+    @Data
+    public static class Outbox {
+        private Duration relayInterval = Duration.ofSeconds(30);
+        // A fresh entry is left to its own request for this long before the relay may touch it
+        private Duration initialDelay = Duration.ofMinutes(2);
+        // Also the lease taken on an entry while the relay calls the gateway for it
+        private Duration retryBackoff = Duration.ofMinutes(1);
+        private int batchSize = 50;
+        // After this many failed attempts the entry is dropped and the booking left for the pending-expiry sweeper
+        private int maxAttempts = 10;
+    }
+
+    @Data
+    public static class Webhook {
+        private Duration reconcileInterval = Duration.ofSeconds(10);
+        private int batchSize = 200;
+        private int maxBatchesPerRun = 10;
+        // Events whose order is not attached to a booking yet are retried this long apart, growing per attempt
+        private Duration retryBackoff = Duration.ofMinutes(1);
+        private int maxAttempts = 10;
+        // Applied events are kept this long for auditing, then purged
+        private Duration retention = Duration.ofDays(30);
+    }
+
+    @Data
+    public static class Settlement {
+        // Settlement rows looked up per query during reconciliation
+        private int batchSize = 1000;
+    }
+
+    @Data
+    public static class Refund {
+        private Duration pollInterval = Duration.ofSeconds(5);
+        // Refunds leased per poll; the next batch waits for this one, so keep it a few seconds' worth at the rate below
+        private int batchSize = 20;
+        // Refund calls in flight at once, taken out of the gateway-wide max-concurrent
+        private int concurrency = 4;
+        private int ratePerSecond = 5;
+        // A leased refund is left alone this long by other nodes, then retried this far apart, growing per attempt
+        private Duration retryBackoff = Duration.ofMinutes(2);
+        private int maxAttempts = 8;
+    }
+
+    @Data
+    public static class Stub {
+        private Duration latency = Duration.ZERO;
+        // Share of calls, between 0 and 1, that fail as if the gateway returned an error
+        private double failureRate = 0.0;
+    }
+}
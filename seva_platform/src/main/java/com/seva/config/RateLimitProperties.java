@@ -0,0 +1,35 @@
+package com.seva.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Duration;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "rate-limit")
+public class RateLimitProperties {
+
+    private Endpoint sendOtp = new Endpoint(new Limit(3, Duration.ofMinutes(10)), new Limit(30, Duration.ofMinutes(1)));
+    private Endpoint verifyOtp = new Endpoint(new Limit(10, Duration.ofMinutes(10)), new Limit(60, Duration.ofMinutes(1)));
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Endpoint {
+        private Limit phone;
+        private Limit ip;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Limit {
+        // Burst size; the bucket refills completely over one period
+        private int capacity;
+        private Duration period;
+    }
+}
@@ -2,6 +2,7 @@ package com.seva.config;
 
 import com.razorpay.RazorpayClient;
 import com.razorpay.RazorpayException;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
@@ -11,7 +12,11 @@ public class RazorpayConfig {
 
     private final RazorpayProperties razorpayProperties;
 
+    /**
+     * One client for the whole application; it reuses a single pooled HTTP client for all gateway calls.
+     */
     @Bean
+    @ConditionalOnProperty(name = "payments.gateway", havingValue = "razorpay", matchIfMissing = true)
     public RazorpayClient razorpayClient() throws RazorpayException {
         return new RazorpayClient(razorpayProperties.getKey().getId(), razorpayProperties.getKey().getSecret());
     }
@@ -10,10 +10,17 @@ import lombok.Data;
 public class RazorpayProperties {
 
     private Key key = new Key();
+    private Webhook webhook = new Webhook();
 
     @Data
     public static class Key {
         private String id;
         private String secret;
     }
+
+    @Data
+    public static class Webhook {
+        // Set in the Razorpay dashboard; distinct from the API key secret
+        private String secret;
+    }
 }
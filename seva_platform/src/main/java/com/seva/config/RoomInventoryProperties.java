@@ -0,0 +1,31 @@
+package com.seva.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import lombok.Data;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "rooms")
+public class RoomInventoryProperties {
+    // Guest house used when a booking request does not name one
+    private String defaultGuestHouse = "SODE";
+    // Guest houses that take bookings besides the default one; requests naming any other are rejected
+    private List<String> guestHouses = new ArrayList<>();
+    // Rooms available per night unless an admin has set a capacity for that date
+    private int defaultCapacity = 20;
+    // How often cached calendar months are reloaded to pick up reservations made on other nodes
+    private Duration calendarRefreshInterval = Duration.ofMinutes(1);
+    // The calendar covers the current month and this many months after it
+    private int calendarMonthsAhead = 12;
+    // Upper bound on guest house months cached per node
+    private int calendarMaxMonths = 100;
+    // Waitlisted bookings re-checked per query when rooms free up
+    private int waitlistBatchSize = 50;
+    // Safety sweep for promotions missed by this node, e.g. rooms freed on another node
+    private Duration waitlistSweepInterval = Duration.ofMinutes(5);
+}
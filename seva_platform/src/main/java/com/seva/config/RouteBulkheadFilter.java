@@ -0,0 +1,172 @@
+package com.seva.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Gives each class of route (public content, search, booking, payment, admin bulk)
+ * its own concurrency limit and short wait queue, so a burst on one class cannot
+ * occupy every Tomcat worker. Requests beyond limit + queue are rejected immediately
+ * with 503. Runs ahead of the security chain so shed requests cost no JWT work, except
+ * for classes marked {@code authenticated}: those are limited by {@link Authenticated}
+ * after Spring Security, so anonymous or unauthorised callers cannot hold their permits.
+ */
+@Slf4j
+@Component
+@Order(-110) // just ahead of the Spring Security filter chain (-100)
+public class RouteBulkheadFilter extends OncePerRequestFilter {
+
+    private final boolean enabled;
+    private final List<Bulkhead> bulkheads = new ArrayList<>();
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+
+    public RouteBulkheadFilter(BulkheadProperties properties, MeterRegistry meterRegistry) {
+        this.enabled = properties.isEnabled();
+        properties.getClasses().forEach((name, routeClass) -> {
+            bulkheads.add(new Bulkhead(name, routeClass, meterRegistry));
+        });
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled || bulkheads.isEmpty();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        filter(request, response, chain, false);
+    }
+
+    private void filter(HttpServletRequest request, HttpServletResponse response, FilterChain chain,
+            boolean authenticated) throws ServletException, IOException {
+        Bulkhead bulkhead = classify(request.getRequestURI());
+        if (bulkhead == null || bulkhead.authenticated != authenticated) {
+            chain.doFilter(request, response);
+            return;
+        }
+        if (!bulkhead.tryEnter()) {
+            log.warn("Bulkhead '{}' full, rejecting {} {}", bulkhead.name, request.getMethod(), request.getRequestURI());
+            response.setStatus(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+            response.setHeader("Retry-After", "1");
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            response.getWriter().write("{\"success\":false,\"message\":\"Server is busy, please retry shortly\"}");
+            return;
+        }
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            bulkhead.exit();
+        }
+    }
+
+    private Bulkhead classify(String path) {
+        for (Bulkhead bulkhead : bulkheads) {
+            for (String pattern : bulkhead.paths) {
+                if (pathMatcher.match(pattern, path)) {
+                    return bulkhead;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Applies the bulkheads of {@code authenticated} route classes. Registered without an
+     * order, so it runs after the Spring Security filter chain has rejected callers that may
+     * not use the route.
+     */
+    @Component
+    public static class Authenticated extends OncePerRequestFilter {
+
+        private final RouteBulkheadFilter bulkheads;
+
+        public Authenticated(RouteBulkheadFilter bulkheads) {
+            this.bulkheads = bulkheads;
+        }
+
+        @Override
+        protected boolean shouldNotFilter(HttpServletRequest request) {
+            return bulkheads.shouldNotFilter(request);
+        }
+
+        @Override
+        protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+                throws ServletException, IOException {
+            bulkheads.filter(request, response, chain, true);
+        }
+    }
+
+    private static class Bulkhead {
+        private final String name;
+        private final boolean authenticated;
+        private final List<String> paths;
+        private final int maxConcurrent;
+        private final int maxQueue;
+        private final long queueTimeoutNanos;
+        private final Semaphore permits;
+        private final AtomicInteger queued = new AtomicInteger();
+        private final Counter rejected;
+
+        Bulkhead(String name, BulkheadProperties.RouteClass routeClass, MeterRegistry meterRegistry) {
+            this.name = name;
+            this.authenticated = routeClass.isAuthenticated();
+            this.paths = List.copyOf(routeClass.getPaths());
+            this.maxConcurrent = routeClass.getMaxConcurrent();
+            this.maxQueue = routeClass.getMaxQueue();
+            this.queueTimeoutNanos = routeClass.getQueueTimeout().toNanos();
+            this.permits = new Semaphore(maxConcurrent);
+            meterRegistry.gauge("http.bulkhead.in_flight", Tags.of("class", name),
+                    permits, p -> maxConcurrent - p.availablePermits());
+            meterRegistry.gauge("http.bulkhead.queued", Tags.of("class", name),
+                    queued, AtomicInteger::get);
+            this.rejected = meterRegistry.counter("http.bulkhead.rejected", "class", name);
+        }
+
+        boolean tryEnter() {
+            if (permits.tryAcquire()) {
+                return true;
+            }
+            if (queued.incrementAndGet() > maxQueue) {
+                queued.decrementAndGet();
+                rejected.increment();
+                return false;
+            }
+            try {
+                if (permits.tryAcquire(queueTimeoutNanos, TimeUnit.NANOSECONDS)) {
+                    return true;
+                }
+                rejected.increment();
+                return false;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                rejected.increment();
+                return false;
+            } finally {
+                queued.decrementAndGet();
+            }
+        }
+
+        void exit() {
+            permits.release();
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.seva.config;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Postgres-specific columns and indexes that Hibernate's schema update cannot express.
+ * Every statement is idempotent, so this runs on each startup after Hibernate has
+ * created or validated the tables.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class SchemaIndexInitializer implements CommandLineRunner {
+
+    private static final List<String> STATEMENTS = List.of(
+            // Half-open stay range [check_in, check_out) kept in sync by Postgres itself
+            """
+            ALTER TABLE room_bookings ADD COLUMN IF NOT EXISTS stay_range daterange
+                GENERATED ALWAYS AS (CASE WHEN check_out_date > check_in_date
+                    THEN daterange(check_in_date, check_out_date, '[)') END) STORED""",
+            "CREATE INDEX IF NOT EXISTS idx_room_bookings_stay_range ON room_bookings USING gist (stay_range)",
+            // Arrival-ordered waitlist queue per guest house
+            """
+            CREATE INDEX IF NOT EXISTS idx_room_bookings_waitlist ON room_bookings (guest_house, created_at, id)
+                WHERE status = 'WAITLISTED'""",
+            // Unpaid seva bookings, scanned oldest first by the expiry sweeper
+            """
+            CREATE INDEX IF NOT EXISTS idx_seva_bookings_unpaid_created_at ON seva_bookings (created_at)
+                WHERE status IN ('PENDING', 'FAILED') AND payment_status IN ('PENDING', 'FAILED')""",
+            // Webhook events still waiting to be applied, in reconciler order
+            """
+            CREATE INDEX IF NOT EXISTS idx_payment_webhook_events_due ON payment_webhook_events (next_attempt_at, received_at)
+                WHERE processed_at IS NULL""");
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void run(String... args) {
+        for (String statement : STATEMENTS) {
+            try {
+                jdbcTemplate.execute(statement);
+            } catch (Exception e) {
+                log.error("Failed to apply schema statement [{}]: {}", statement.lines().findFirst().orElse(""),
+                        e.getMessage());
+            }
+        }
+        log.info("Schema indexes checked.");
+    }
+}
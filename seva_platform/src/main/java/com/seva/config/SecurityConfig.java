@@ -28,6 +28,7 @@ public class SecurityConfig {
                                                                 "/api/auth/send-otp", // only these auth endpoints are
                                                                                       // public
                                                                 "/api/auth/verify-otp",
+                                                                "/api/auth/refresh",
                                                                 "/api/home/**",
                                                                 "/api/history/**",
                                                                 "/api/contact/**",
@@ -36,6 +37,7 @@ public class SecurityConfig {
                                                                 "/api/branches/**", // public branch read
                                                                 "/api/search/**",
                                                                 "/api/alankara/**",
+                                                                "/api/payments/webhook", // verified by signature
                                                                 "/actuator/health",
                                                                 "/v3/api-docs/**",
                                                                 "/swagger-ui/**",
@@ -51,6 +53,7 @@ public class SecurityConfig {
                                                 .requestMatchers(org.springframework.http.HttpMethod.GET,
                                                                 "/api/bookings/sevas")
                                                 .permitAll() // Allow viewing sevas
+                                                .requestMatchers("/api/bookings/bulk-status").hasRole("ADMIN")
                                                 .requestMatchers("/api/bookings/**").authenticated() // Require login
                                                                                                      // for other
                                                                                                      // booking actions
@@ -0,0 +1,36 @@
+package com.seva.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import lombok.Data;
+
+import java.time.Duration;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "sevas")
+public class SevaBookingProperties {
+    private QuotaView quotaView = new QuotaView();
+    private PendingExpiry pendingExpiry = new PendingExpiry();
+
+    @Data
+    public static class QuotaView {
+        // How old a loaded date may get before it is reloaded from the quota table
+        private Duration refreshInterval = Duration.ofSeconds(30);
+        // Dates not asked for in this long are dropped
+        private Duration idleExpiry = Duration.ofMinutes(10);
+        // Upper bound on dates held per node, whatever dates clients ask for
+        private long maxDates = 400;
+    }
+
+    @Data
+    public static class PendingExpiry {
+        // Unpaid bookings older than this are cancelled and their quota released
+        private Duration timeout = Duration.ofMinutes(30);
+        private Duration sweepInterval = Duration.ofMinutes(5);
+        // Rows locked and updated per transaction
+        private int batchSize = 500;
+        // Upper bound on batches per run, so one run never holds the scheduler for long
+        private int maxBatchesPerRun = 20;
+    }
+}
@@ -0,0 +1,28 @@
+package com.seva.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import lombok.Data;
+
+import java.time.Duration;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "sms")
+public class SmsProperties {
+    // "stub" records messages locally; a real provider registers its own SmsGateway bean
+    private String gateway = "stub";
+    private int queueCapacity = 10_000;
+    private int dispatcherThreads = 2;
+    private int maxRetries = 3;
+    private Duration initialBackoff = Duration.ofMillis(500);
+
+    private Stub stub = new Stub();
+
+    @Data
+    public static class Stub {
+        private Duration latency = Duration.ZERO;
+        private int batchSize = 50;
+        private int retainedMessages = 1_000;
+    }
+}
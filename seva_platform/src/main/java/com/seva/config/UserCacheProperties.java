@@ -0,0 +1,15 @@
+package com.seva.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import lombok.Data;
+
+import java.time.Duration;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "cache.users")
+public class UserCacheProperties {
+    private long maxSize = 20_000;
+    private Duration ttl = Duration.ofMinutes(10);
+}
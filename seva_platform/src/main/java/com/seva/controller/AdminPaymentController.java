@@ -0,0 +1,42 @@
+package com.seva.controller;
+
+import com.seva.service.SettlementReconciliationService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+@RestController
+@RequestMapping("/api/admin/payments")
+@RequiredArgsConstructor
+public class AdminPaymentController {
+
+    private final SettlementReconciliationService settlementReconciliationService;
+
+    /**
+     * Takes a Razorpay settlement report as the raw CSV request body and streams back the rows
+     * that do not match their seva booking. Neither file is held in memory. The header is
+     * checked before the response is set up, so an unusable file still gets a JSON 400.
+     */
+    @PostMapping(value = "/settlements/reconcile", consumes = { "text/csv", "text/plain" })
+    public void reconcileSettlements(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        BufferedReader in = new BufferedReader(new InputStreamReader(request.getInputStream(), StandardCharsets.UTF_8),
+                64 * 1024);
+        SettlementReconciliationService.Columns columns = settlementReconciliationService.readHeader(in);
+
+        response.setContentType("text/csv");
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.setHeader("Content-Disposition", "attachment; filename=\"settlement-mismatches.csv\"");
+        Writer out = new BufferedWriter(new OutputStreamWriter(response.getOutputStream(), StandardCharsets.UTF_8),
+                64 * 1024);
+        settlementReconciliationService.reconcile(columns, in, out);
+    }
+}
@@ -0,0 +1,47 @@
+package com.seva.controller;
+
+import com.seva.service.RoomInventoryService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/admin/rooms")
+@RequiredArgsConstructor
+public class AdminRoomInventoryController {
+
+    private final RoomInventoryService roomInventoryService;
+    private final com.seva.service.BookingService bookingService;
+
+    @GetMapping("/bookings")
+    public ResponseEntity<com.seva.dto.CursorPage<com.seva.dto.RoomBookingResponse>> getBookings(
+            @RequestParam(required = false) com.seva.entity.RoomBooking.Status status,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int size) {
+        return ResponseEntity.ok(bookingService.getRoomBookingPage(status, from, to, cursor, size));
+    }
+
+    @GetMapping("/occupancy")
+    public ResponseEntity<java.util.List<com.seva.dto.RoomBookingResponse>> getOccupancy(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) String guestHouse) {
+        return ResponseEntity.ok(bookingService.getApprovedStays(from, to, guestHouse));
+    }
+
+    @PutMapping("/capacity")
+    public ResponseEntity<Map<String, String>> setCapacity(
+            @RequestParam(required = false) String guestHouse,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam int capacity) {
+        roomInventoryService.setCapacity(roomInventoryService.resolveGuestHouse(guestHouse), from, to, capacity);
+        return ResponseEntity.ok(Map.of("message", "Room capacity updated"));
+    }
+}
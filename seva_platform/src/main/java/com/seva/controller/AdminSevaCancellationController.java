@@ -0,0 +1,32 @@
+package com.seva.controller;
+
+import com.seva.dto.SevaCancellationJobResponse;
+import com.seva.service.SevaCancellationService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/api/admin/sevas")
+@RequiredArgsConstructor
+public class AdminSevaCancellationController {
+
+    private final SevaCancellationService sevaCancellationService;
+
+    @PostMapping("/{id}/cancellations")
+    public ResponseEntity<SevaCancellationJobResponse> cancelSeva(@PathVariable UUID id,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+            @RequestParam(required = false) String reason,
+            org.springframework.security.core.Authentication authentication) {
+        return ResponseEntity.ok(sevaCancellationService.cancel(id, date, reason, authentication.getName()));
+    }
+
+    @GetMapping("/cancellations/{jobId}")
+    public ResponseEntity<SevaCancellationJobResponse> getCancellation(@PathVariable UUID jobId) {
+        return ResponseEntity.ok(sevaCancellationService.getJob(jobId));
+    }
+}
@@ -0,0 +1,34 @@
+package com.seva.controller;
+
+import com.seva.entity.Seva;
+import com.seva.service.SevaQuotaService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/api/admin/sevas")
+@RequiredArgsConstructor
+public class AdminSevaQuotaController {
+
+    private final SevaQuotaService sevaQuotaService;
+
+    @PutMapping("/{id}/daily-quota")
+    public ResponseEntity<Seva> setDailyQuota(@PathVariable UUID id,
+            @RequestParam(required = false) Integer quota) {
+        return ResponseEntity.ok(sevaQuotaService.setDailyQuota(id, quota));
+    }
+
+    @PutMapping("/{id}/quota")
+    public ResponseEntity<Map<String, String>> setQuotaForDate(@PathVariable UUID id,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+            @RequestParam int limit) {
+        sevaQuotaService.setLimit(id, date, limit);
+        return ResponseEntity.ok(Map.of("message", "Seva quota updated"));
+    }
+}
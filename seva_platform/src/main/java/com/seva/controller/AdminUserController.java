@@ -2,6 +2,8 @@ package com.seva.controller;
 
 import com.seva.entity.Users;
 import com.seva.repository.UsersRepository;
+import com.seva.service.TokenService;
+import com.seva.service.UserProfileCache;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
@@ -17,6 +19,8 @@ import java.util.UUID;
 public class AdminUserController {
 
     private final UsersRepository usersRepository;
+    private final TokenService tokenService;
+    private final UserProfileCache userProfileCache;
 
     @GetMapping
     public ResponseEntity<Page<Users>> getAllUsers(
@@ -38,8 +42,31 @@ public class AdminUserController {
                 .map(user -> {
                     user.setIsVolunteer(isVolunteer);
                     user.setVolunteerRequest(false);
-                    return ResponseEntity.ok(usersRepository.save(user));
+                    Users saved = usersRepository.save(user);
+                    userProfileCache.evict(saved);
+                    return ResponseEntity.ok(saved);
                 })
                 .orElse(ResponseEntity.notFound().build());
     }
+
+    @PutMapping("/{id}/role")
+    public ResponseEntity<Users> updateRole(
+            @PathVariable UUID id,
+            @RequestParam Users.Role role) {
+        return usersRepository.findById(id)
+                .map(user -> {
+                    user.setRole(role);
+                    user.setIsAdmin(role == Users.Role.ADMIN);
+                    // Invalidate tokens carrying the old role claim; the next refresh picks up the new one
+                    return ResponseEntity.ok(tokenService.invalidateAccessTokens(user));
+                })
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    @PostMapping("/{id}/revoke-sessions")
+    public ResponseEntity<Users> revokeSessions(@PathVariable UUID id) {
+        return usersRepository.findById(id)
+                .map(user -> ResponseEntity.ok(tokenService.revokeAllSessions(user)))
+                .orElse(ResponseEntity.notFound().build());
+    }
 }
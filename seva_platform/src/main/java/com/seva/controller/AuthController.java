@@ -1,9 +1,13 @@
 package com.seva.controller;
 
+import com.seva.dto.TokenPair;
 import com.seva.entity.Users;
+import com.seva.security.AuthRateLimiter;
 import com.seva.security.JwtUtil;
 import com.seva.service.AuthService;
 import com.seva.service.OtpService;
+import com.seva.service.SmsDispatcher;
+import com.seva.service.TokenService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -21,13 +25,22 @@ public class AuthController {
     private final AuthService authService;
     private final OtpService otpService;
     private final JwtUtil jwtUtil;
+    private final AuthRateLimiter authRateLimiter;
+    private final SmsDispatcher smsDispatcher;
+    private final TokenService tokenService;
 
     @PostMapping("/send-otp")
-    public ResponseEntity<Map<String, String>> sendOtp(@RequestParam String phoneNumber) {
+    public ResponseEntity<Map<String, String>> sendOtp(@RequestParam String phoneNumber,
+            jakarta.servlet.http.HttpServletRequest request) {
+        authRateLimiter.checkSendOtp(phoneNumber, request);
         log.info("Sending OTP to number: {}", phoneNumber);
         String otp = otpService.generateOtp(phoneNumber);
-        // SMS simulation for development
-        log.info("SIMULATION: OTP for {} is: {}", phoneNumber, otp);
+        // Delivery happens on the dispatcher threads; the request never waits on the SMS provider
+        if (!smsDispatcher.enqueue(phoneNumber, "Your Sode Matha login OTP is " + otp + ". Do not share it.")) {
+            // Never delivered, so it must not stay valid
+            otpService.invalidateOtp(phoneNumber, otp);
+            return ResponseEntity.status(503).body(Map.of("message", "OTP service is busy, please retry shortly"));
+        }
         Map<String, String> response = new HashMap<>();
         response.put("message", "OTP sent successfully");
         response.put("otp", otp); // Include OTP in response for development
@@ -35,17 +48,22 @@ public class AuthController {
     }
 
     @PostMapping("/verify-otp")
-    public ResponseEntity<Map<String, Object>> verifyOtp(@RequestParam String phoneNumber, @RequestParam String otp) {
+    public ResponseEntity<Map<String, Object>> verifyOtp(@RequestParam String phoneNumber, @RequestParam String otp,
+            jakarta.servlet.http.HttpServletRequest request) {
+        authRateLimiter.checkVerifyOtp(phoneNumber, request);
         log.info("Verifying OTP for number: {}", phoneNumber);
         if (otpService.validateOtp(phoneNumber, otp)) {
             Optional<Users> userOpt = authService.findByPhoneNumber(phoneNumber);
 
             // Get user role, default to USER if no user exists yet
             String role = userOpt.map(u -> u.getRole().name()).orElse("USER");
-            String token = jwtUtil.generateToken(phoneNumber, role);
+            int tokenVersion = userOpt.map(Users::getTokenVersion).orElse(0);
+            TokenPair tokens = tokenService.issue(phoneNumber, role, tokenVersion);
 
             Map<String, Object> response = new HashMap<>();
-            response.put("token", token);
+            response.put("token", tokens.getAccessToken());
+            response.put("refreshToken", tokens.getRefreshToken());
+            response.put("expiresIn", tokens.getExpiresInSeconds());
             response.put("isNewUser", userOpt.isEmpty());
 
             log.info("OTP verified successfully for number: {}", phoneNumber);
@@ -56,6 +74,47 @@ public class AuthController {
         }
     }
 
+    @PostMapping("/refresh")
+    public ResponseEntity<Map<String, Object>> refresh(@RequestParam String refreshToken) {
+        try {
+            TokenPair tokens = tokenService.refresh(refreshToken);
+            Map<String, Object> response = new HashMap<>();
+            response.put("token", tokens.getAccessToken());
+            response.put("refreshToken", tokens.getRefreshToken());
+            response.put("expiresIn", tokens.getExpiresInSeconds());
+            return ResponseEntity.ok(response);
+        } catch (IllegalArgumentException e) {
+            log.warn("Refresh rejected: {}", e.getMessage());
+            return ResponseEntity.status(401).body(Map.of("message", e.getMessage()));
+        }
+    }
+
+    @PostMapping("/logout")
+    public ResponseEntity<Map<String, String>> logout(
+            @RequestHeader(value = "Authorization", required = false) String authorizationHeader,
+            @RequestParam(required = false) String refreshToken) {
+        if (authorizationHeader == null || !authorizationHeader.startsWith("Bearer ")) {
+            return ResponseEntity.status(401).body(Map.of("message", "Missing bearer token"));
+        }
+        try {
+            tokenService.logout(jwtUtil.parseClaims(authorizationHeader.substring(7)), refreshToken);
+        } catch (io.jsonwebtoken.JwtException | IllegalArgumentException e) {
+            log.warn("Logout rejected: {}", e.getMessage());
+            return ResponseEntity.status(401).body(Map.of("message", "Invalid token"));
+        }
+        return ResponseEntity.ok(Map.of("message", "Logged out successfully"));
+    }
+
+    @PostMapping("/logout-all")
+    public ResponseEntity<Map<String, String>> logoutAll(java.security.Principal principal) {
+        return authService.findByPhoneNumber(principal.getName())
+                .map(user -> {
+                    tokenService.revokeAllSessions(user);
+                    return ResponseEntity.ok(Map.of("message", "Logged out from all devices"));
+                })
+                .orElse(ResponseEntity.notFound().build());
+    }
+
     @PostMapping("/register")
     public ResponseEntity<Users> register(@jakarta.validation.Valid @RequestBody Users user,
             java.security.Principal principal) {
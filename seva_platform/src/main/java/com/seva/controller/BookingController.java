@@ -3,7 +3,9 @@ package com.seva.controller;
 import com.seva.entity.RoomBooking;
 import com.seva.entity.Seva;
 import com.seva.entity.SevaBooking;
+import com.seva.dto.QueueTicketResponse;
 import com.seva.service.BookingService;
+import com.seva.service.SevaAdmissionService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -16,6 +18,7 @@ import java.util.UUID;
 @RequiredArgsConstructor
 public class BookingController {
     private final BookingService bookingService;
+    private final SevaAdmissionService sevaAdmissionService;
 
     @PostMapping("/room")
     public ResponseEntity<RoomBooking> bookRoom(@RequestBody com.seva.dto.RoomBookingRequest request,
@@ -25,13 +28,29 @@ public class BookingController {
     }
 
     @GetMapping("/sevas")
-    public ResponseEntity<List<Seva>> getSevas(@RequestParam(required = false) Seva.SevaCategory category) {
-        return ResponseEntity.ok(bookingService.getActiveSevas(category));
+    public ResponseEntity<List<Seva>> getSevas(@RequestParam(required = false) Seva.SevaCategory category,
+            @RequestParam(required = false) @org.springframework.format.annotation.DateTimeFormat(iso = org.springframework.format.annotation.DateTimeFormat.ISO.DATE) java.time.LocalDate date) {
+        return ResponseEntity.ok(bookingService.getActiveSevas(category, date));
+    }
+
+    @PostMapping("/seva/queue")
+    public ResponseEntity<QueueTicketResponse> joinSevaQueue(
+            org.springframework.security.core.Authentication authentication) {
+        return ResponseEntity.ok(sevaAdmissionService.issue(authentication.getName()));
+    }
+
+    @GetMapping("/seva/queue/{ticketId}")
+    public ResponseEntity<QueueTicketResponse> getSevaQueueStatus(@PathVariable String ticketId,
+            org.springframework.security.core.Authentication authentication) {
+        return ResponseEntity.ok(sevaAdmissionService.status(ticketId, authentication.getName()));
     }
 
     @PostMapping("/seva/initiate")
     public ResponseEntity<SevaBooking> initiateSevaBooking(@RequestBody SevaBooking booking,
-            @RequestParam UUID userId) {
+            @RequestParam UUID userId,
+            @RequestHeader(value = "X-Queue-Ticket", required = false) String queueTicket,
+            org.springframework.security.core.Authentication authentication) {
+        sevaAdmissionService.consume(queueTicket, authentication.getName());
         return ResponseEntity.ok(bookingService.initiateSevaBooking(booking, userId));
     }
 
@@ -1,6 +1,7 @@
 package com.seva.controller;
 
 import com.seva.dto.BookingHistoryResponse;
+import com.seva.dto.CursorPage;
 import com.seva.dto.SevaHistoryResponse;
 import com.seva.dto.RoomBookingStatusResponse;
 import com.seva.service.BookingService;
@@ -9,8 +10,6 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.List;
-
 @RestController
 @RequestMapping("/api/bookings")
 @RequiredArgsConstructor
@@ -19,23 +18,28 @@ public class BookingHistoryController {
     private final BookingService bookingService;
 
     @GetMapping("/history")
-    public ResponseEntity<BookingHistoryResponse> getUserBookingHistory(Authentication authentication) {
+    public ResponseEntity<BookingHistoryResponse> getUserBookingHistory(Authentication authentication,
+            @RequestParam(required = false) String sevaCursor,
+            @RequestParam(required = false) String roomCursor,
+            @RequestParam(defaultValue = "50") int size) {
         String phoneNumber = authentication.getName();
-        BookingHistoryResponse history = bookingService.getUserBookingHistory(phoneNumber);
+        BookingHistoryResponse history = bookingService.getUserBookingHistory(phoneNumber, sevaCursor, roomCursor, size);
         return ResponseEntity.ok(history);
     }
 
     @GetMapping("/seva/user/{userId}")
-    public ResponseEntity<List<SevaHistoryResponse>> getUserSevaBookings(@PathVariable String userId, Authentication authentication) {
+    public ResponseEntity<CursorPage<SevaHistoryResponse>> getUserSevaBookings(@PathVariable String userId, Authentication authentication,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int size) {
         String phoneNumber = authentication.getName();
-        BookingHistoryResponse history = bookingService.getUserBookingHistory(phoneNumber);
-        return ResponseEntity.ok(history.getSevaHistory());
+        return ResponseEntity.ok(bookingService.getUserSevaHistory(phoneNumber, cursor, size));
     }
 
     @GetMapping("/room/user/{userId}")
-    public ResponseEntity<List<RoomBookingStatusResponse>> getUserRoomBookings(@PathVariable String userId, Authentication authentication) {
+    public ResponseEntity<CursorPage<RoomBookingStatusResponse>> getUserRoomBookings(@PathVariable String userId, Authentication authentication,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int size) {
         String phoneNumber = authentication.getName();
-        BookingHistoryResponse history = bookingService.getUserBookingHistory(phoneNumber);
-        return ResponseEntity.ok(history.getRoomBookings());
+        return ResponseEntity.ok(bookingService.getUserRoomHistory(phoneNumber, cursor, size));
     }
 }
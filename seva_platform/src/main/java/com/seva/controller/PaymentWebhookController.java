@@ -0,0 +1,22 @@
+package com.seva.controller;
+
+import com.seva.service.PaymentWebhookService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/payments")
+@RequiredArgsConstructor
+public class PaymentWebhookController {
+    private final PaymentWebhookService paymentWebhookService;
+
+    // The raw body is needed as sent; the signature covers its exact bytes
+    @PostMapping("/webhook")
+    public ResponseEntity<Void> receiveWebhook(@RequestBody String body,
+            @RequestHeader(value = "X-Razorpay-Signature", required = false) String signature,
+            @RequestHeader(value = "X-Razorpay-Event-Id", required = false) String eventId) {
+        paymentWebhookService.ingest(body, signature, eventId);
+        return ResponseEntity.ok().build();
+    }
+}
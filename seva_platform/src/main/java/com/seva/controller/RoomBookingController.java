@@ -15,6 +15,8 @@ import java.util.Map;
 public class RoomBookingController {
 
     private final com.seva.service.BookingService bookingService;
+    private final com.seva.service.RoomInventoryService roomInventoryService;
+    private final com.seva.service.RoomAvailabilityCalendar roomAvailabilityCalendar;
 
     @PostMapping
     public ResponseEntity<Map<String, String>> createBooking(@RequestBody com.seva.dto.RoomBookingRequest request,
@@ -33,11 +35,22 @@ public class RoomBookingController {
 
         Map<String, String> response = new HashMap<>();
         response.put("referenceId", savedBooking.getId().toString());
-        response.put("message", "Booking request submitted successfully.");
+        response.put("status", savedBooking.getStatus().name());
+        response.put("message", savedBooking.getStatus() == RoomBooking.Status.WAITLISTED
+                ? "Rooms are full for the selected dates. Your request has been added to the waitlist."
+                : "Booking request submitted successfully.");
 
         return ResponseEntity.ok(response);
     }
 
+    @GetMapping("/rooms/availability")
+    public ResponseEntity<com.seva.dto.RoomAvailabilityResponse> getRoomAvailability(
+            @RequestParam java.time.YearMonth month,
+            @RequestParam(required = false) String guestHouse) {
+        return ResponseEntity.ok(roomAvailabilityCalendar.getMonth(
+                roomInventoryService.resolveGuestHouse(guestHouse), month));
+    }
+
     @GetMapping("/all")
     public ResponseEntity<java.util.List<com.seva.dto.RoomBookingResponse>> getAllRoomBookings() {
         return ResponseEntity.ok(bookingService.getAllRoomBookings());
@@ -46,18 +59,30 @@ public class RoomBookingController {
     @PutMapping("/{id}/approve")
     public ResponseEntity<Map<String, String>> approveBooking(@PathVariable String id) {
         try {
-            bookingService.updateBookingStatus(id, "APPROVED");
+            bookingService.updateBookingStatus(id, RoomBooking.Status.APPROVED);
             return ResponseEntity.ok(Map.of("message", "Booking approved successfully"));
+        } catch (com.seva.exception.RoomUnavailableException | com.seva.exception.InvalidStatusTransitionException
+                | org.springframework.dao.OptimisticLockingFailureException e) {
+            throw e; // Conflicts are reported as 409
         } catch (Exception e) {
             return ResponseEntity.badRequest().body(Map.of("message", "Failed to approve booking: " + e.getMessage()));
         }
     }
 
+    @PutMapping("/bulk-status")
+    public ResponseEntity<com.seva.dto.BulkStatusUpdateResponse> bulkUpdateStatus(
+            @RequestBody com.seva.dto.BulkStatusUpdateRequest request) {
+        return ResponseEntity.ok(bookingService.bulkUpdateBookingStatus(request.getIds(), request.getStatus()));
+    }
+
     @PutMapping("/{id}/reject")
     public ResponseEntity<Map<String, String>> rejectBooking(@PathVariable String id) {
         try {
-            bookingService.updateBookingStatus(id, "REJECTED");
+            bookingService.updateBookingStatus(id, RoomBooking.Status.REJECTED);
             return ResponseEntity.ok(Map.of("message", "Booking rejected successfully"));
+        } catch (com.seva.exception.InvalidStatusTransitionException
+                | org.springframework.dao.OptimisticLockingFailureException e) {
+            throw e; // Conflicts are reported as 409
         } catch (Exception e) {
             return ResponseEntity.badRequest().body(Map.of("message", "Failed to reject booking: " + e.getMessage()));
         }
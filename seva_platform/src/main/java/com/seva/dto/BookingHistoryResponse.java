@@ -7,4 +7,7 @@ import java.util.List;
 public class BookingHistoryResponse {
     private List<SevaHistoryResponse> sevaHistory;
     private List<RoomBookingStatusResponse> roomBookings;
+    // Pass back as sevaCursor / roomCursor for older entries; null when there are none
+    private String sevaNextCursor;
+    private String roomNextCursor;
 }
@@ -0,0 +1,11 @@
+package com.seva.dto;
+
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class BulkStatusUpdateRequest {
+    private List<String> ids;
+    private String status; // APPROVED or REJECTED
+}
@@ -0,0 +1,31 @@
+package com.seva.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+public class BulkStatusUpdateResponse {
+    private String status;
+    private int updated;
+    private List<Result> results;
+
+    public enum Outcome {
+        UPDATED, UNCHANGED, NOT_FOUND, INVALID_ID, NOT_ALLOWED, CONFLICT
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Result {
+        private String id;
+        private Outcome outcome;
+        private String message;
+
+        public static Result of(String id, Outcome outcome, String message) {
+            return new Result(id, outcome, message);
+        }
+    }
+}
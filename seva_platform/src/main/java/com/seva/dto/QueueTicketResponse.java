@@ -0,0 +1,14 @@
+package com.seva.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class QueueTicketResponse {
+    private String ticketId;
+    private boolean admitted;
+    // Number of tickets ahead of this one; 0 once admitted
+    private long position;
+    private long estimatedWaitSeconds;
+}
@@ -0,0 +1,27 @@
+package com.seva.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class RoomAvailabilityResponse {
+    private String guestHouse;
+    private String month;
+    private List<Day> days;
+
+    @Data
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class Day {
+        private LocalDate date;
+        private int capacity;
+        private int reserved;
+        private int available;
+    }
+}
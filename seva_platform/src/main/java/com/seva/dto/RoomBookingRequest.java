@@ -20,4 +20,7 @@ public class RoomBookingRequest {
     private Integer numberOfRooms;
 
     private Boolean consentDataStorage;
+
+    // Optional; defaults to the configured guest house
+    private String guestHouse;
 }
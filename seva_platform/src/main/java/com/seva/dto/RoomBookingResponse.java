@@ -4,7 +4,10 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import com.seva.entity.RoomBooking;
+
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.UUID;
 
 @Data
@@ -18,5 +21,15 @@ public class RoomBookingResponse {
     private LocalDate checkOutDate;
     private Integer numberOfGuests;
     private Integer numberOfRooms;
+    private String guestHouse;
     private String status;
+    private LocalDateTime createdAt;
+
+    // Target of the JPQL constructor expression in RoomBookingRepository
+    public RoomBookingResponse(UUID id, String userId, String userName, LocalDate checkInDate,
+            LocalDate checkOutDate, Integer numberOfGuests, Integer numberOfRooms, String guestHouse,
+            RoomBooking.Status status, LocalDateTime createdAt) {
+        this(id, userId, userName, checkInDate, checkOutDate, numberOfGuests, numberOfRooms, guestHouse,
+                status != null ? status.name() : null, createdAt);
+    }
 }
@@ -1,11 +1,15 @@
 package com.seva.dto;
 
+import com.seva.entity.RoomBooking;
 import lombok.Data;
+import lombok.NoArgsConstructor;
+
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.UUID;
 
 @Data
+@NoArgsConstructor
 public class RoomBookingStatusResponse {
     private UUID id;
     private String userId;
@@ -14,7 +18,25 @@ public class RoomBookingStatusResponse {
     private LocalDate checkOutDate;
     private Integer numberOfGuests;
     private Integer numberOfRooms;
+    private String guestHouse;
     private String status;
     private boolean consentDataStorage;
     private LocalDateTime createdAt;
+
+    // Target of the JPQL constructor expression in RoomBookingRepository
+    public RoomBookingStatusResponse(UUID id, String userId, String userName, LocalDate checkInDate,
+            LocalDate checkOutDate, Integer numberOfGuests, Integer numberOfRooms, String guestHouse,
+            RoomBooking.Status status, boolean consentDataStorage, LocalDateTime createdAt) {
+        this.id = id;
+        this.userId = userId;
+        this.userName = userName;
+        this.checkInDate = checkInDate;
+        this.checkOutDate = checkOutDate;
+        this.numberOfGuests = numberOfGuests;
+        this.numberOfRooms = numberOfRooms;
+        this.guestHouse = guestHouse;
+        this.status = status != null ? status.name() : null;
+        this.consentDataStorage = consentDataStorage;
+        this.createdAt = createdAt;
+    }
 }
@@ -0,0 +1,24 @@
+package com.seva.dto;
+
+import com.seva.entity.SevaCancellationJob;
+import lombok.Data;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Data
+public class SevaCancellationJobResponse {
+    private UUID id;
+    private UUID sevaId;
+    private LocalDate sevaDate;
+    private String reason;
+    private SevaCancellationJob.Status status;
+    private int bookingsCancelled;
+    private int refundsQueued;
+    private long refundsPending;
+    private long refundsIssued;
+    private long refundsFailed;
+    private LocalDateTime createdAt;
+    private LocalDateTime completedAt;
+}
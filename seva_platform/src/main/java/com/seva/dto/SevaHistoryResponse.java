@@ -1,14 +1,30 @@
 package com.seva.dto;
 
+import com.seva.entity.SevaBooking;
 import lombok.Data;
+import lombok.NoArgsConstructor;
+
 import java.time.LocalDateTime;
 import java.util.UUID;
 
 @Data
+@NoArgsConstructor
 public class SevaHistoryResponse {
     private UUID id;
     private String sevaTitle;
     private LocalDateTime sevaDate;
     private java.math.BigDecimal amountPaid;
     private String status;
+    private LocalDateTime createdAt;
+
+    // Target of the JPQL constructor expression in SevaBookingRepository
+    public SevaHistoryResponse(UUID id, String sevaTitle, LocalDateTime sevaDate, java.math.BigDecimal amountPaid,
+            SevaBooking.BookingStatus status, LocalDateTime createdAt) {
+        this.id = id;
+        this.sevaTitle = sevaTitle;
+        this.sevaDate = sevaDate;
+        this.amountPaid = amountPaid;
+        this.status = status != null ? status.name() : null;
+        this.createdAt = createdAt;
+    }
 }
@@ -0,0 +1,7 @@
+package com.seva.dto;
+
+/**
+ * A single outbound SMS. {@code enqueuedAtNanos} is used to measure end-to-end dispatch latency.
+ */
+public record SmsMessage(String phoneNumber, String text, long enqueuedAtNanos) {
+}
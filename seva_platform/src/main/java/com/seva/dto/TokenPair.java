@@ -0,0 +1,12 @@
+package com.seva.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class TokenPair {
+    private String accessToken;
+    private String refreshToken;
+    private long expiresInSeconds;
+}
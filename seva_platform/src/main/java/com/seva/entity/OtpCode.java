@@ -0,0 +1,30 @@
+package com.seva.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import java.time.Instant;
+
+/**
+ * Pending OTP for one phone number, used when OTP state is shared between nodes (otp.store=jdbc).
+ * The hash is cleared once the number is locked out; the row is swept after both the code and any
+ * lockout have expired.
+ */
+@Entity
+@Table(name = "otp_codes")
+@Data
+public class OtpCode {
+    @Id
+    @Column(length = 32)
+    private String phoneNumber;
+
+    @Column(length = 64)
+    private String otpHash;
+
+    @Column(nullable = false)
+    private Instant expiresAt;
+
+    @Column(nullable = false)
+    private int attempts;
+
+    private Instant lockedUntil;
+}
@@ -0,0 +1,34 @@
+package com.seva.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * A seva booking whose payment order has not been attached yet. Written in the same
+ * transaction as the booking and deleted once the order id is stored, so a row that
+ * outlives its request means the gateway outcome is unknown and must be recovered.
+ */
+@Entity
+@Table(name = "payment_order_outbox", indexes = @Index(name = "idx_payment_order_outbox_next_attempt", columnList = "next_attempt_at"))
+@Data
+public class PaymentOrderOutbox {
+    @Id
+    @Column(name = "booking_id")
+    private UUID bookingId;
+
+    @Column(nullable = false)
+    private BigDecimal amount;
+
+    @Column(nullable = false)
+    private Integer attempts = 0;
+
+    @Column(name = "next_attempt_at", nullable = false)
+    private LocalDateTime nextAttemptAt;
+
+    private String lastError;
+
+    private LocalDateTime createdAt = LocalDateTime.now();
+}
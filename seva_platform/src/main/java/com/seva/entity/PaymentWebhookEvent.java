@@ -0,0 +1,46 @@
+package com.seva.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import java.time.LocalDateTime;
+
+/**
+ * A verified Razorpay webhook delivery, stored as received and applied to its seva booking
+ * later by the reconciler. The primary key is Razorpay's event id, so redelivered events
+ * are dropped on insert.
+ */
+@Entity
+@Table(name = "payment_webhook_events")
+@Data
+public class PaymentWebhookEvent {
+    @Id
+    @Column(name = "event_id")
+    private String eventId;
+
+    @Column(nullable = false)
+    private String eventType;
+
+    @Column(name = "razorpay_order_id", nullable = false)
+    private String razorpayOrderId;
+
+    private String razorpayPaymentId;
+
+    // Payment amount in paisa as reported by the gateway
+    private Long amount;
+
+    // When Razorpay raised the event; orders the events of one payment
+    private LocalDateTime occurredAt;
+
+    private LocalDateTime receivedAt;
+
+    @Column(nullable = false)
+    private Integer attempts = 0;
+
+    @Column(name = "next_attempt_at", nullable = false)
+    private LocalDateTime nextAttemptAt;
+
+    // Null until the reconciler has applied or discarded the event
+    private LocalDateTime processedAt;
+
+    private String outcome;
+}
@@ -0,0 +1,40 @@
+package com.seva.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Entity
+@Table(name = "refresh_tokens", indexes = {
+        @Index(name = "idx_refresh_tokens_phone", columnList = "phoneNumber"),
+        @Index(name = "idx_refresh_tokens_family", columnList = "familyId")
+})
+@Data
+public class RefreshToken {
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+
+    // SHA-256 of the opaque token handed to the client; the token itself is never stored
+    @Column(unique = true, nullable = false, length = 64)
+    private String tokenHash;
+
+    @Column(nullable = false)
+    private String phoneNumber;
+
+    // All tokens produced by rotating one login share a family, so reuse of a rotated token revokes the chain
+    @Column(nullable = false)
+    private UUID familyId;
+
+    private LocalDateTime expiresAt;
+    private LocalDateTime revokedAt;
+
+    @Column(updatable = false)
+    private LocalDateTime createdAt;
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+    }
+}
@@ -0,0 +1,20 @@
+package com.seva.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import java.time.LocalDateTime;
+
+/**
+ * Access token (by jti) revoked before its natural expiry. Rows can be deleted once expiresAt has passed.
+ */
+@Entity
+@Table(name = "revoked_tokens", indexes = @Index(name = "idx_revoked_tokens_revoked_at", columnList = "revokedAt"))
+@Data
+public class RevokedToken {
+    @Id
+    private String jti;
+
+    private String phoneNumber;
+    private LocalDateTime expiresAt;
+    private LocalDateTime revokedAt;
+}
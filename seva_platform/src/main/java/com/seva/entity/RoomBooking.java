@@ -7,7 +7,9 @@ import java.time.LocalDateTime;
 import java.util.UUID;
 
 @Entity
-@Table(name = "room_bookings")
+@Table(name = "room_bookings", indexes = {
+        @Index(name = "idx_room_bookings_created_at_id", columnList = "created_at, id"),
+        @Index(name = "idx_room_bookings_user_created_at", columnList = "user_id, created_at") })
 @Data
 public class RoomBooking {
     @Id
@@ -20,10 +22,41 @@ public class RoomBooking {
     private LocalDate checkOutDate;
     private Integer numberOfGuests;
     private Integer numberOfRooms;
+    private String guestHouse;
     @Column(name = "consent")
     private boolean consentDataStorage;
 
     private LocalDateTime createdAt = LocalDateTime.now();
 
-    private String status = "PENDING"; // Simple string status
+    @Enumerated(EnumType.STRING)
+    private Status status = Status.PENDING;
+
+    // Optimistic lock; concurrent decisions on the same booking fail instead of overwriting each other
+    @Version
+    @Column(nullable = false, columnDefinition = "bigint default 0")
+    private long version;
+
+    public enum Status {
+        PENDING, WAITLISTED, APPROVED, REJECTED;
+
+        /**
+         * Allowed moves: a waitlisted request is promoted to PENDING once rooms free up, a pending
+         * request is decided, and an approval may still be withdrawn. REJECTED is final.
+         */
+        public boolean canTransitionTo(Status next) {
+            return switch (this) {
+                case WAITLISTED -> next == PENDING || next == REJECTED;
+                case PENDING -> next == APPROVED || next == REJECTED;
+                case APPROVED -> next == REJECTED;
+                case REJECTED -> false;
+            };
+        }
+
+        /**
+         * Whether bookings in this status hold rooms in the inventory ledger.
+         */
+        public boolean holdsRooms() {
+            return this == PENDING || this == APPROVED;
+        }
+    }
 }
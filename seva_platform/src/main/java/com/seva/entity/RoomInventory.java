@@ -0,0 +1,32 @@
+package com.seva.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * Per-night room capacity ledger for one guest house. A stay reserves
+ * numberOfRooms on every night from check-in up to (not including) check-out.
+ */
+@Entity
+@Table(name = "room_inventory", uniqueConstraints = @UniqueConstraint(name = "uk_room_inventory_guest_house_date", columnNames = {
+        "guest_house", "stay_date" }))
+@Data
+public class RoomInventory {
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+
+    @Column(name = "guest_house", nullable = false)
+    private String guestHouse;
+
+    @Column(name = "stay_date", nullable = false)
+    private LocalDate stayDate;
+
+    @Column(nullable = false)
+    private Integer capacity;
+
+    @Column(nullable = false)
+    private Integer reserved = 0;
+}
@@ -24,6 +24,13 @@ public class Seva {
 
     private Boolean isActive;
 
+    // Bookings allowed per seva date; null means unlimited. Individual dates can be overridden in seva_quotas.
+    private Integer dailyQuota;
+
+    // Bookings still available on the requested date, filled in for display; null when unlimited
+    @Transient
+    private Integer remaining;
+
     public enum SevaCategory {
         SODE, UDUPI_PARYAYA
     }
@@ -6,7 +6,10 @@ import java.time.LocalDateTime;
 import java.util.UUID;
 
 @Entity
-@Table(name = "seva_bookings")
+@Table(name = "seva_bookings", indexes = {
+        @Index(name = "idx_seva_bookings_user_created_at", columnList = "user_id, created_at"),
+        @Index(name = "idx_seva_bookings_razorpay_order_id", columnList = "razorpay_order_id"),
+        @Index(name = "idx_seva_bookings_razorpay_payment_id", columnList = "razorpay_payment_id") })
 @Data
 public class SevaBooking {
     @Id
@@ -45,8 +48,26 @@ public class SevaBooking {
     @Enumerated(EnumType.STRING)
     private PaymentStatus paymentStatus = PaymentStatus.PENDING;
 
+    // Optimistic lock; a late payment callback cannot overwrite a cancellation and vice versa
+    @Version
+    @Column(nullable = false, columnDefinition = "bigint default 0")
+    private long version;
+
     public enum BookingStatus {
-        PENDING, CONFIRMED, CANCELLED, FAILED
+        PENDING, CONFIRMED, CANCELLED, FAILED;
+
+        /**
+         * A failed payment may still be confirmed by a later successful payment on the same order.
+         * CANCELLED is final.
+         */
+        public boolean canTransitionTo(BookingStatus next) {
+            return switch (this) {
+                case PENDING -> next == CONFIRMED || next == FAILED || next == CANCELLED;
+                case FAILED -> next == CONFIRMED || next == CANCELLED;
+                case CONFIRMED -> next == CANCELLED;
+                case CANCELLED -> false;
+            };
+        }
     }
 
     public enum PaymentStatus {
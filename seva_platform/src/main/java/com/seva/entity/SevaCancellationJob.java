@@ -0,0 +1,45 @@
+package com.seva.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * One calling-off of a seva on a date: the bookings it cancelled and the refunds it queued.
+ * Progress of the individual refunds is tracked in {@link SevaRefund}.
+ */
+@Entity
+@Table(name = "seva_cancellation_jobs")
+@Data
+public class SevaCancellationJob {
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+
+    @Column(name = "seva_id", nullable = false)
+    private UUID sevaId;
+
+    @Column(nullable = false)
+    private LocalDate sevaDate;
+
+    private String reason;
+
+    // Phone number of the admin who called the seva off
+    private String requestedBy;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Status status = Status.IN_PROGRESS;
+
+    private Integer bookingsCancelled = 0;
+    private Integer refundsQueued = 0;
+
+    private LocalDateTime createdAt = LocalDateTime.now();
+    private LocalDateTime completedAt;
+
+    public enum Status {
+        IN_PROGRESS, COMPLETED, COMPLETED_WITH_FAILURES
+    }
+}
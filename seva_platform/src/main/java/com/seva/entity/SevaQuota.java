@@ -0,0 +1,32 @@
+package com.seva.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * Booking counter for one seva on one date. Rows are created on first use with the seva's
+ * daily quota as the limit; admins may override the limit for a single date.
+ */
+@Entity
+@Table(name = "seva_quotas", uniqueConstraints = @UniqueConstraint(name = "uk_seva_quotas_seva_date", columnNames = {
+        "seva_id", "seva_date" }))
+@Data
+public class SevaQuota {
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+
+    @Column(name = "seva_id", nullable = false)
+    private UUID sevaId;
+
+    @Column(name = "seva_date", nullable = false)
+    private LocalDate sevaDate;
+
+    @Column(name = "quota_limit", nullable = false)
+    private Integer quotaLimit;
+
+    @Column(nullable = false)
+    private Integer used = 0;
+}
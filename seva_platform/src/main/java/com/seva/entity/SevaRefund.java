@@ -0,0 +1,57 @@
+package com.seva.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Refund owed on one captured payment of a seva booking: the booking's own payment when it
+ * is cancelled, or a second payment made on an already confirmed order. At most one per
+ * payment. The refund worker leases due rows, so a restart resumes from the first row not
+ * yet refunded.
+ */
+@Entity
+@Table(name = "seva_refunds", indexes = {
+        @Index(name = "idx_seva_refunds_job_id", columnList = "job_id"),
+        @Index(name = "idx_seva_refunds_booking_id", columnList = "booking_id") })
+@Data
+public class SevaRefund {
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+
+    @Column(name = "booking_id", nullable = false)
+    private UUID bookingId;
+
+    // Null for refunds not raised by a cancellation job, e.g. a payment captured after expiry
+    @Column(name = "job_id")
+    private UUID jobId;
+
+    @Column(name = "razorpay_payment_id", nullable = false, unique = true)
+    private String razorpayPaymentId;
+
+    @Column(nullable = false)
+    private BigDecimal amount;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Status status = Status.PENDING;
+
+    @Column(nullable = false)
+    private Integer attempts = 0;
+
+    @Column(name = "next_attempt_at", nullable = false)
+    private LocalDateTime nextAttemptAt;
+
+    private String razorpayRefundId;
+    private String lastError;
+
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+
+    public enum Status {
+        PENDING, REFUNDED, FAILED
+    }
+}
@@ -39,6 +39,10 @@ public class Users {
     private Boolean isVolunteer = false;
     private Boolean volunteerRequest = false;
     private Boolean isAdmin = false;
+
+    // Bumped on role changes; tokens carrying an older "ver" claim are rejected
+    @Column(nullable = false, columnDefinition = "integer default 0")
+    private Integer tokenVersion = 0;
     @Column(updatable = false)
     private LocalDateTime createdAt;
 
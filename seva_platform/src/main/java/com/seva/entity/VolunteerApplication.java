@@ -40,7 +40,23 @@ public class VolunteerApplication {
         updatedAt = LocalDateTime.now();
     }
 
+    // Optimistic lock; two coordinators deciding the same application cannot both win
+    @Version
+    @Column(nullable = false, columnDefinition = "bigint default 0")
+    private long version;
+
     public enum Status {
-        PENDING, APPROVED, REJECTED
+        PENDING, APPROVED, REJECTED;
+
+        /**
+         * A decision can be revised but never taken back to PENDING.
+         */
+        public boolean canTransitionTo(Status next) {
+            return switch (this) {
+                case PENDING -> next == APPROVED || next == REJECTED;
+                case APPROVED -> next == REJECTED;
+                case REJECTED -> next == APPROVED;
+            };
+        }
     }
 }
@@ -0,0 +1,14 @@
+package com.seva.exception;
+
+import lombok.Getter;
+
+@Getter
+public class AdmissionDeniedException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public AdmissionDeniedException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+}
@@ -0,0 +1,8 @@
+package com.seva.exception;
+
+public class InvalidStatusTransitionException extends RuntimeException {
+
+    public InvalidStatusTransitionException(String subject, Enum<?> from, Enum<?> to) {
+        super("Cannot move " + subject + " from " + from + " to " + to);
+    }
+}
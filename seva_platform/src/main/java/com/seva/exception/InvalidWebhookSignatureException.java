@@ -0,0 +1,8 @@
+package com.seva.exception;
+
+public class InvalidWebhookSignatureException extends RuntimeException {
+
+    public InvalidWebhookSignatureException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,14 @@
+package com.seva.exception;
+
+import lombok.Getter;
+
+@Getter
+public class OtpLockedException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public OtpLockedException(long retryAfterSeconds) {
+        super("Too many invalid OTP attempts. Please try again later.");
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+}
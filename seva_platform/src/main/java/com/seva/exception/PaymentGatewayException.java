@@ -0,0 +1,8 @@
+package com.seva.exception;
+
+public class PaymentGatewayException extends RuntimeException {
+
+    public PaymentGatewayException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,14 @@
+package com.seva.exception;
+
+import lombok.Getter;
+
+@Getter
+public class RateLimitExceededException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public RateLimitExceededException(long retryAfterSeconds) {
+        super("Too many requests. Please try again later.");
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+}
@@ -0,0 +1,8 @@
+package com.seva.exception;
+
+public class RoomUnavailableException extends RuntimeException {
+
+    public RoomUnavailableException(String message) {
+        super(message);
+    }
+}
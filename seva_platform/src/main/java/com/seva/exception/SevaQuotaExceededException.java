@@ -0,0 +1,8 @@
+package com.seva.exception;
+
+public class SevaQuotaExceededException extends RuntimeException {
+
+    public SevaQuotaExceededException(String message) {
+        super(message);
+    }
+}
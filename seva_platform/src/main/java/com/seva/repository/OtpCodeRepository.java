@@ -0,0 +1,70 @@
+package com.seva.repository;
+
+import com.seva.entity.OtpCode;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * Every statement is evaluated against the database clock, so nodes with drifting clocks agree on
+ * expiry and lockouts.
+ */
+@Repository
+public interface OtpCodeRepository extends JpaRepository<OtpCode, String> {
+
+    /**
+     * Stores a fresh code, replacing any previous one. Returns 0 while the number is locked out.
+     */
+    @Modifying
+    @Query(value = """
+            INSERT INTO otp_codes (phone_number, otp_hash, expires_at, attempts, locked_until)
+            VALUES (:phoneNumber, :otpHash, now() + :ttlMillis * INTERVAL '1 millisecond', 0, NULL)
+            ON CONFLICT (phone_number) DO UPDATE
+            SET otp_hash = EXCLUDED.otp_hash, expires_at = EXCLUDED.expires_at, attempts = 0, locked_until = NULL
+            WHERE otp_codes.locked_until IS NULL OR otp_codes.locked_until <= now()""", nativeQuery = true)
+    int issue(String phoneNumber, String otpHash, long ttlMillis);
+
+    @Query(value = """
+            SELECT CAST(CEIL(EXTRACT(EPOCH FROM (locked_until - now()))) AS bigint)
+            FROM otp_codes WHERE phone_number = :phoneNumber""", nativeQuery = true)
+    Long findLockoutSeconds(String phoneNumber);
+
+    /**
+     * Counts one attempt against a live code and locks the number out on the last allowed one, in
+     * the same statement that reads the stored hash. Returns nothing if there is no live code.
+     */
+    @Query(value = """
+            UPDATE otp_codes
+            SET attempts = attempts + 1,
+                locked_until = CASE WHEN attempts + 1 >= :maxAttempts
+                                    THEN now() + :lockoutMillis * INTERVAL '1 millisecond' END
+            WHERE phone_number = :phoneNumber
+              AND otp_hash IS NOT NULL
+              AND expires_at > now()
+              AND (locked_until IS NULL OR locked_until <= now())
+            RETURNING otp_hash""", nativeQuery = true)
+    List<String> countAttempt(String phoneNumber, int maxAttempts, long lockoutMillis);
+
+    /**
+     * Consumes the code. Returns 0 if a concurrent request with the same code consumed it first.
+     */
+    @Modifying
+    @Query(value = "DELETE FROM otp_codes WHERE phone_number = :phoneNumber AND otp_hash = :otpHash",
+            nativeQuery = true)
+    int consume(String phoneNumber, String otpHash);
+
+    // Burns the code once the attempt that was just counted has locked the number out
+    @Modifying
+    @Query(value = "UPDATE otp_codes SET otp_hash = NULL WHERE phone_number = :phoneNumber AND locked_until > now()",
+            nativeQuery = true)
+    int burnIfLocked(String phoneNumber);
+
+    @Modifying
+    @Query(value = """
+            DELETE FROM otp_codes
+            WHERE expires_at <= now() AND (locked_until IS NULL OR locked_until <= now())""", nativeQuery = true)
+    int deleteExpired();
+}
@@ -0,0 +1,25 @@
+package com.seva.repository;
+
+import com.seva.entity.PaymentOrderOutbox;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface PaymentOrderOutboxRepository extends JpaRepository<PaymentOrderOutbox, UUID> {
+
+    /**
+     * Entries due for another attempt, locked for this transaction; entries locked by another node are skipped.
+     */
+    @Query(value = """
+            SELECT * FROM payment_order_outbox
+            WHERE next_attempt_at <= :now
+            ORDER BY next_attempt_at
+            LIMIT :limit
+            FOR UPDATE SKIP LOCKED""", nativeQuery = true)
+    List<PaymentOrderOutbox> lockDue(LocalDateTime now, int limit);
+}
@@ -0,0 +1,49 @@
+package com.seva.repository;
+
+import com.seva.entity.PaymentWebhookEvent;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface PaymentWebhookEventRepository extends JpaRepository<PaymentWebhookEvent, String> {
+
+    /**
+     * Stores the event unless one with the same id is already stored. Returns the number of rows inserted.
+     */
+    @Modifying
+    @Transactional
+    @Query(value = """
+            INSERT INTO payment_webhook_events (event_id, event_type, razorpay_order_id, razorpay_payment_id, amount,
+                occurred_at, received_at, attempts, next_attempt_at)
+            VALUES (:eventId, :eventType, :orderId, :paymentId, :amount, :occurredAt, :receivedAt, 0, :receivedAt)
+            ON CONFLICT (event_id) DO NOTHING""", nativeQuery = true)
+    int enqueue(String eventId, String eventType, String orderId, String paymentId, Long amount,
+            LocalDateTime occurredAt, LocalDateTime receivedAt);
+
+    /**
+     * Unapplied events due for processing, oldest first, locked for this transaction. Events
+     * locked by another node are skipped. Served by the partial index on unprocessed events.
+     */
+    @Query(value = """
+            SELECT * FROM payment_webhook_events
+            WHERE processed_at IS NULL AND next_attempt_at <= :now
+            ORDER BY next_attempt_at, received_at
+            LIMIT :limit
+            FOR UPDATE SKIP LOCKED""", nativeQuery = true)
+    List<PaymentWebhookEvent> lockDue(LocalDateTime now, int limit);
+
+    @Modifying
+    @Transactional
+    @Query(value = """
+            DELETE FROM payment_webhook_events WHERE event_id IN (
+                SELECT event_id FROM payment_webhook_events
+                WHERE processed_at < :cutoff
+                LIMIT :limit)""", nativeQuery = true)
+    int deleteProcessedBefore(LocalDateTime cutoff, int limit);
+}
@@ -1,13 +1,124 @@
 package com.seva.repository;
 
+import com.seva.dto.RoomBookingResponse;
+import com.seva.dto.RoomBookingStatusResponse;
 import com.seva.entity.RoomBooking;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 
 @Repository
 public interface RoomBookingRepository extends JpaRepository<RoomBooking, UUID> {
     List<RoomBooking> findByUserId(String userId);
+
+    /**
+     * A guest's own bookings, newest first, continuing after the given (createdAt, id) when set.
+     */
+    @Query("""
+            SELECT new com.seva.dto.RoomBookingStatusResponse(b.id, b.userId, u.fullName, b.checkInDate,
+                b.checkOutDate, b.numberOfGuests, b.numberOfRooms, b.guestHouse, b.status, b.consentDataStorage,
+                b.createdAt)
+            FROM RoomBooking b LEFT JOIN Users u ON u.phoneNumber = b.userId
+            WHERE b.userId = :phoneNumber
+              AND (:afterCreatedAt IS NULL OR b.createdAt < :afterCreatedAt
+                   OR (b.createdAt = :afterCreatedAt AND b.id < :afterId))
+            ORDER BY b.createdAt DESC, b.id DESC""")
+    List<RoomBookingStatusResponse> findHistory(String phoneNumber, LocalDateTime afterCreatedAt, UUID afterId,
+            Pageable pageable);
+
+    /**
+     * Admin listing, newest first, with the guest's name joined in. Every filter is optional;
+     * a cursor continues strictly after the last (createdAt, id) already returned. Dates select
+     * stays that share at least one night with [from, to).
+     */
+    @Query("""
+            SELECT new com.seva.dto.RoomBookingResponse(b.id, b.userId, u.fullName, b.checkInDate, b.checkOutDate,
+                b.numberOfGuests, b.numberOfRooms, b.guestHouse, b.status, b.createdAt)
+            FROM RoomBooking b LEFT JOIN Users u ON u.phoneNumber = b.userId
+            WHERE (:status IS NULL OR b.status = :status)
+              AND (:from IS NULL OR b.checkOutDate > :from)
+              AND (:to IS NULL OR b.checkInDate < :to)
+              AND (:afterCreatedAt IS NULL OR b.createdAt < :afterCreatedAt
+                   OR (b.createdAt = :afterCreatedAt AND b.id < :afterId))
+            ORDER BY b.createdAt DESC, b.id DESC""")
+    List<RoomBookingResponse> findResponses(RoomBooking.Status status, LocalDate from, LocalDate to,
+            LocalDateTime afterCreatedAt, UUID afterId, Pageable pageable);
+
+    /**
+     * Bookings in the given status whose stay shares at least one night with [from, to).
+     * Served by the GiST index on the generated stay_range column.
+     */
+    @Query(value = """
+            SELECT * FROM room_bookings
+            WHERE stay_range && daterange(CAST(:from AS date), CAST(:to AS date), '[)')
+              AND status = :status
+              AND (CAST(:guestHouse AS text) IS NULL OR guest_house = :guestHouse)
+            ORDER BY check_in_date""", nativeQuery = true)
+    List<RoomBooking> findOverlappingStays(LocalDate from, LocalDate to, String status, String guestHouse);
+
+    /**
+     * Whether the guest already holds another approved booking that shares a night with [checkIn, checkOut).
+     */
+    @Query(value = """
+            SELECT EXISTS (
+                SELECT 1 FROM room_bookings
+                WHERE stay_range && daterange(CAST(:checkIn AS date), CAST(:checkOut AS date), '[)')
+                  AND user_id = :userId
+                  AND status = 'APPROVED'
+                  AND id <> :excludeId)""", nativeQuery = true)
+    boolean existsApprovedOverlap(String userId, LocalDate checkIn, LocalDate checkOut, UUID excludeId);
+
+    /**
+     * Next page of waitlisted bookings, in arrival order, whose future stay shares a night with
+     * [from, to). A null guest house or upper bound matches all. Pages are keyed on (created_at, id).
+     */
+    @Query(value = """
+            SELECT * FROM room_bookings
+            WHERE status = 'WAITLISTED'
+              AND (CAST(:guestHouse AS text) IS NULL OR guest_house = :guestHouse)
+              AND stay_range && daterange(CAST(:from AS date), CAST(:to AS date), '[)')
+              AND check_in_date >= CURRENT_DATE
+              AND (created_at, id) > (CAST(:afterCreatedAt AS timestamp), CAST(:afterId AS uuid))
+            ORDER BY created_at, id
+            LIMIT :limit""", nativeQuery = true)
+    List<RoomBooking> findWaitlistPage(String guestHouse, LocalDate from, LocalDate to,
+            LocalDateTime afterCreatedAt, UUID afterId, int limit);
+
+    /**
+     * Moves a booking off the waitlist if it is still on it; the row stays locked until commit.
+     */
+    @Modifying
+    @Query(value = "UPDATE room_bookings SET status = 'PENDING', version = version + 1 WHERE id = :id AND status = 'WAITLISTED'", nativeQuery = true)
+    int claimFromWaitlist(UUID id);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT b FROM RoomBooking b WHERE b.id IN :ids")
+    List<RoomBooking> findAllByIdForUpdate(Collection<UUID> ids);
+
+    /**
+     * Subset of the given bookings whose guest already holds a different approved stay sharing a night with them.
+     */
+    @Query(value = """
+            SELECT DISTINCT b.id FROM room_bookings b
+            JOIN room_bookings a ON a.user_id = b.user_id AND a.id <> b.id
+                AND a.status = 'APPROVED' AND a.stay_range && b.stay_range
+            WHERE b.id IN (:ids)""", nativeQuery = true)
+    List<UUID> findIdsWithApprovedOverlap(Collection<UUID> ids);
+
+    /**
+     * Bumps the version as well so that single-booking updates holding an older copy fail with a conflict.
+     */
+    @Modifying(clearAutomatically = true)
+    @Query(value = "UPDATE room_bookings SET status = :status, version = version + 1 WHERE id IN (:ids)", nativeQuery = true)
+    int updateStatus(Collection<UUID> ids, String status);
 }
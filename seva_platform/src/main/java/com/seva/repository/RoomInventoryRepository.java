@@ -0,0 +1,63 @@
+package com.seva.repository;
+
+import com.seva.entity.RoomInventory;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface RoomInventoryRepository extends JpaRepository<RoomInventory, UUID> {
+
+    List<RoomInventory> findByGuestHouseAndStayDateBetween(String guestHouse, LocalDate from, LocalDate to);
+
+    /**
+     * Creates ledger rows with the default capacity for any night in [checkIn, checkOut) that has none yet.
+     */
+    @Modifying
+    @Query(value = """
+            INSERT INTO room_inventory (id, guest_house, stay_date, capacity, reserved)
+            SELECT gen_random_uuid(), :guestHouse, d::date, :capacity, 0
+            FROM generate_series(CAST(:checkIn AS date), CAST(:checkOut AS date) - 1, INTERVAL '1 day') AS d
+            ON CONFLICT (guest_house, stay_date) DO NOTHING""", nativeQuery = true)
+    int ensureNights(String guestHouse, LocalDate checkIn, LocalDate checkOut, int capacity);
+
+    /**
+     * Adds rooms to every night of the stay, or to none of them when any night is short. Rows are
+     * locked in date order so overlapping reservations cannot deadlock, and the capacity check
+     * reads the locked rows. Returns the number of nights updated: all of them or zero.
+     */
+    @Modifying
+    @Query(value = """
+            WITH nights AS (
+                SELECT id, reserved, capacity FROM room_inventory
+                WHERE guest_house = :guestHouse AND stay_date >= :checkIn AND stay_date < :checkOut
+                ORDER BY stay_date
+                FOR UPDATE)
+            UPDATE room_inventory SET reserved = reserved + :rooms
+            WHERE id IN (SELECT id FROM nights)
+              AND NOT EXISTS (SELECT 1 FROM nights WHERE reserved + :rooms > capacity)""", nativeQuery = true)
+    int reserve(String guestHouse, LocalDate checkIn, LocalDate checkOut, int rooms);
+
+    @Modifying
+    @Query(value = """
+            UPDATE room_inventory SET reserved = GREATEST(reserved - :rooms, 0)
+            WHERE id IN (
+                SELECT id FROM room_inventory
+                WHERE guest_house = :guestHouse AND stay_date >= :checkIn AND stay_date < :checkOut
+                ORDER BY stay_date
+                FOR UPDATE)""", nativeQuery = true)
+    int release(String guestHouse, LocalDate checkIn, LocalDate checkOut, int rooms);
+
+    @Modifying
+    @Query(value = """
+            INSERT INTO room_inventory (id, guest_house, stay_date, capacity, reserved)
+            SELECT gen_random_uuid(), :guestHouse, d::date, :capacity, 0
+            FROM generate_series(CAST(:from AS date), CAST(:to AS date), INTERVAL '1 day') AS d
+            ON CONFLICT (guest_house, stay_date) DO UPDATE SET capacity = EXCLUDED.capacity""", nativeQuery = true)
+    int setCapacity(String guestHouse, LocalDate from, LocalDate to, int capacity);
+}
@@ -1,8 +1,14 @@
 package com.seva.repository;
 
+import com.seva.dto.SevaHistoryResponse;
 import com.seva.entity.SevaBooking;
 import com.seva.entity.Users;
+import org.springframework.data.domain.Pageable;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -12,10 +18,131 @@ import java.util.UUID;
 public interface SevaBookingRepository extends JpaRepository<SevaBooking, UUID> {
     List<SevaBooking> findByUser(Users user);
 
+    /**
+     * Bookings paid through any of the given orders, locked for this transaction.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT b FROM SevaBooking b WHERE b.razorpayOrderId IN :orderIds")
+    List<SevaBooking> findAllByRazorpayOrderIdInForUpdate(java.util.Collection<String> orderIds);
+
+    /**
+     * A devotee's seva bookings, newest first, continuing after the given (createdAt, id) when set.
+     * Reads only the columns the history screen shows.
+     */
+    @Query("""
+            SELECT new com.seva.dto.SevaHistoryResponse(b.id, s.titleEnglish, b.sevaDate, b.amountPaid, b.status,
+                b.createdAt)
+            FROM SevaBooking b JOIN b.seva s JOIN b.user u
+            WHERE u.phoneNumber = :phoneNumber
+              AND (:afterCreatedAt IS NULL OR b.createdAt < :afterCreatedAt
+                   OR (b.createdAt = :afterCreatedAt AND b.id < :afterId))
+            ORDER BY b.createdAt DESC, b.id DESC""")
+    List<SevaHistoryResponse> findHistory(String phoneNumber, java.time.LocalDateTime afterCreatedAt, UUID afterId,
+            Pageable pageable);
+
     List<SevaBooking> findByCreatedAtBetween(java.time.LocalDateTime start, java.time.LocalDateTime end);
 
     List<SevaBooking> findByPaymentStatusAndCreatedAtBetween(SevaBooking.PaymentStatus status,
             java.time.LocalDateTime start, java.time.LocalDateTime end);
 
     long countByPaymentStatus(SevaBooking.PaymentStatus status);
+
+    interface SettledBooking {
+        String getPaymentId();
+
+        UUID getId();
+
+        java.math.BigDecimal getAmount();
+
+        SevaBooking.BookingStatus getStatus();
+
+        SevaBooking.PaymentStatus getPaymentStatus();
+    }
+
+    /**
+     * The fields settlement reconciliation compares, for bookings paid by any of the given payments.
+     */
+    @Query("""
+            SELECT b.razorpayPaymentId AS paymentId, b.id AS id, b.amountPaid AS amount, b.status AS status,
+                b.paymentStatus AS paymentStatus
+            FROM SevaBooking b WHERE b.razorpayPaymentId IN :paymentIds""")
+    List<SettledBooking> findSettledByPaymentIds(java.util.Collection<String> paymentIds);
+
+    interface CancelledBooking {
+        UUID getId();
+
+        String getEmail();
+
+        String getDevoteeName();
+
+        SevaBooking.PaymentStatus getPaymentStatus();
+    }
+
+    /**
+     * Bookings of the seva on that day that a cancellation would affect, with what is needed to
+     * tell the devotee. Locks them, so none is paid between queuing refunds and cancelling.
+     */
+    @Query(value = """
+            SELECT b.id AS "id", u.email AS "email", b.devotee_name AS "devoteeName", b.payment_status AS "paymentStatus"
+            FROM seva_bookings b LEFT JOIN users u ON u.id = b.user_id
+            WHERE b.seva_id = :sevaId AND b.seva_date >= :dayStart AND b.seva_date < :dayEnd
+              AND b.status <> 'CANCELLED'
+            FOR UPDATE OF b""", nativeQuery = true)
+    List<CancelledBooking> lockCancellable(UUID sevaId, java.time.LocalDateTime dayStart,
+            java.time.LocalDateTime dayEnd);
+
+    /**
+     * Cancels every live booking of the seva on that day in one statement. Unpaid bookings
+     * have their payment marked failed, as the expiry sweeper does; paid ones stay PAID until refunded.
+     */
+    @Modifying
+    @Query(value = """
+            UPDATE seva_bookings
+            SET status = 'CANCELLED', version = version + 1,
+                payment_status = CASE WHEN payment_status = 'PENDING' THEN 'FAILED' ELSE payment_status END
+            WHERE seva_id = :sevaId AND seva_date >= :dayStart AND seva_date < :dayEnd
+              AND status <> 'CANCELLED'""", nativeQuery = true)
+    int cancelForSeva(UUID sevaId, java.time.LocalDateTime dayStart, java.time.LocalDateTime dayEnd);
+
+    /**
+     * Marks the booking refunded, but only if the refunded payment is the one the booking was
+     * paid with; refunds of duplicate payments leave the booking as it is.
+     */
+    @Modifying
+    @Query(value = """
+            UPDATE seva_bookings SET payment_status = 'REFUNDED', version = version + 1
+            WHERE id = :id AND razorpay_payment_id = :paymentId AND payment_status = 'PAID'""", nativeQuery = true)
+    int markRefunded(UUID id, String paymentId);
+
+    interface ExpiringBooking {
+        UUID getId();
+
+        UUID getSevaId();
+
+        java.time.LocalDateTime getSevaDate();
+
+        Integer getDailyQuota();
+    }
+
+    /**
+     * Oldest unpaid bookings created before the cutoff, locked for this transaction: abandoned
+     * checkouts (PENDING) and payments that failed and were never retried to success (FAILED).
+     * Rows already locked by another sweeper are skipped. Served by the partial index on unpaid rows.
+     */
+    @Query(value = """
+            SELECT b.id AS "id", b.seva_id AS "sevaId", b.seva_date AS "sevaDate", s.daily_quota AS "dailyQuota"
+            FROM seva_bookings b LEFT JOIN sevas s ON s.id = b.seva_id
+            WHERE b.status IN ('PENDING', 'FAILED') AND b.payment_status IN ('PENDING', 'FAILED')
+              AND b.created_at < :cutoff
+            ORDER BY b.created_at
+            LIMIT :limit
+            FOR UPDATE OF b SKIP LOCKED""", nativeQuery = true)
+    List<ExpiringBooking> lockExpiredUnpaid(java.time.LocalDateTime cutoff, int limit);
+
+    @Modifying
+    @Query(value = """
+            UPDATE seva_bookings SET status = 'CANCELLED', payment_status = 'FAILED', version = version + 1
+            WHERE id IN (:ids) AND status IN ('PENDING', 'FAILED')
+              AND payment_status IN ('PENDING', 'FAILED')""", nativeQuery = true)
+    int cancelUnpaid(java.util.Collection<UUID> ids);
 }
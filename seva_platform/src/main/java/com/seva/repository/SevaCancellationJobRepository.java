@@ -0,0 +1,29 @@
+package com.seva.repository;
+
+import com.seva.entity.SevaCancellationJob;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Repository
+public interface SevaCancellationJobRepository extends JpaRepository<SevaCancellationJob, UUID> {
+
+    /**
+     * Closes the job once none of its refunds is pending. Returns 1 only to the caller that
+     * closed it, so completion is announced exactly once.
+     */
+    @Modifying
+    @Query(value = """
+            UPDATE seva_cancellation_jobs j
+            SET status = CASE WHEN EXISTS (SELECT 1 FROM seva_refunds r WHERE r.job_id = j.id AND r.status = 'FAILED')
+                    THEN 'COMPLETED_WITH_FAILURES' ELSE 'COMPLETED' END,
+                completed_at = :now
+            WHERE j.id = :jobId AND j.status = 'IN_PROGRESS'
+              AND NOT EXISTS (SELECT 1 FROM seva_refunds r WHERE r.job_id = j.id AND r.status = 'PENDING')""",
+            nativeQuery = true)
+    int completeIfDone(UUID jobId, LocalDateTime now);
+}
@@ -0,0 +1,56 @@
+package com.seva.repository;
+
+import com.seva.entity.SevaQuota;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface SevaQuotaRepository extends JpaRepository<SevaQuota, UUID> {
+
+    List<SevaQuota> findBySevaDate(LocalDate sevaDate);
+
+    @Modifying
+    @Query(value = """
+            INSERT INTO seva_quotas (id, seva_id, seva_date, quota_limit, used)
+            VALUES (gen_random_uuid(), :sevaId, :sevaDate, :quotaLimit, 0)
+            ON CONFLICT (seva_id, seva_date) DO NOTHING""", nativeQuery = true)
+    int ensureDay(UUID sevaId, LocalDate sevaDate, int quotaLimit);
+
+    /**
+     * Takes one booking from the day's quota if any is left. Returns 0 when the quota is used up.
+     */
+    @Modifying
+    @Query(value = """
+            UPDATE seva_quotas SET used = used + 1
+            WHERE seva_id = :sevaId AND seva_date = :sevaDate AND used < quota_limit""", nativeQuery = true)
+    int consume(UUID sevaId, LocalDate sevaDate);
+
+    @Modifying
+    @Query(value = """
+            UPDATE seva_quotas SET used = GREATEST(used - :count, 0)
+            WHERE seva_id = :sevaId AND seva_date = :sevaDate""", nativeQuery = true)
+    int release(UUID sevaId, LocalDate sevaDate, int count);
+
+    @Modifying
+    @Query(value = """
+            INSERT INTO seva_quotas (id, seva_id, seva_date, quota_limit, used)
+            VALUES (gen_random_uuid(), :sevaId, :sevaDate, :quotaLimit, 0)
+            ON CONFLICT (seva_id, seva_date) DO UPDATE SET quota_limit = EXCLUDED.quota_limit""", nativeQuery = true)
+    int setLimit(UUID sevaId, LocalDate sevaDate, int quotaLimit);
+
+    /**
+     * Applies a new daily quota to every future date that has not been overridden individually,
+     * i.e. whose limit still equals the previous daily quota.
+     */
+    @Modifying
+    @Query(value = """
+            UPDATE seva_quotas SET quota_limit = :quotaLimit
+            WHERE seva_id = :sevaId AND seva_date >= CURRENT_DATE AND quota_limit = :previousLimit""", nativeQuery = true)
+    int updateDefaultLimit(UUID sevaId, int previousLimit, int quotaLimit);
+}
@@ -0,0 +1,62 @@
+package com.seva.repository;
+
+import com.seva.entity.SevaRefund;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface SevaRefundRepository extends JpaRepository<SevaRefund, UUID> {
+
+    /**
+     * Queues a refund for every paid, not yet cancelled booking of the seva on that day, in one
+     * statement. Must run before the bookings are cancelled. Payments already queued for a refund are skipped.
+     */
+    @Modifying
+    @Query(value = """
+            INSERT INTO seva_refunds (id, booking_id, job_id, razorpay_payment_id, amount, status, attempts,
+                next_attempt_at, created_at, updated_at)
+            SELECT gen_random_uuid(), b.id, :jobId, b.razorpay_payment_id, b.amount_paid, 'PENDING', 0, :now, :now, :now
+            FROM seva_bookings b
+            WHERE b.seva_id = :sevaId AND b.seva_date >= :dayStart AND b.seva_date < :dayEnd
+              AND b.status <> 'CANCELLED' AND b.payment_status = 'PAID' AND b.razorpay_payment_id IS NOT NULL
+            ON CONFLICT (razorpay_payment_id) DO NOTHING""", nativeQuery = true)
+    int enqueueForSeva(UUID jobId, UUID sevaId, LocalDateTime dayStart, LocalDateTime dayEnd, LocalDateTime now);
+
+    /**
+     * Queues a refund of one payment of the booking, unless that payment is already queued.
+     */
+    @Modifying
+    @Query(value = """
+            INSERT INTO seva_refunds (id, booking_id, razorpay_payment_id, amount, status, attempts, next_attempt_at,
+                created_at, updated_at)
+            VALUES (gen_random_uuid(), :bookingId, :paymentId, :amount, 'PENDING', 0, :now, :now, :now)
+            ON CONFLICT (razorpay_payment_id) DO NOTHING""", nativeQuery = true)
+    int enqueue(UUID bookingId, String paymentId, BigDecimal amount, LocalDateTime now);
+
+    /**
+     * Pending refunds due for an attempt, oldest first, locked for this transaction; rows locked by another node are skipped.
+     */
+    @Query(value = """
+            SELECT * FROM seva_refunds
+            WHERE status = 'PENDING' AND next_attempt_at <= :now
+            ORDER BY next_attempt_at
+            LIMIT :limit
+            FOR UPDATE SKIP LOCKED""", nativeQuery = true)
+    List<SevaRefund> lockDue(LocalDateTime now, int limit);
+
+    interface StatusCount {
+        SevaRefund.Status getStatus();
+
+        long getCount();
+    }
+
+    @Query("SELECT r.status AS status, COUNT(r) AS count FROM SevaRefund r WHERE r.jobId = :jobId GROUP BY r.status")
+    List<StatusCount> countByStatus(UUID jobId);
+}
@@ -2,12 +2,23 @@ package com.seva.repository;
 
 import com.seva.entity.Users;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
 @Repository
-public interface UsersRepository extends JpaRepository<Users, UUID> {
+public interface UsersRepository extends JpaRepository<Users, UUID>, UsersRepositoryCustom {
     Optional<Users> findByPhoneNumber(String phoneNumber);
+
+    @Query("SELECT u.phoneNumber AS phoneNumber, u.tokenVersion AS tokenVersion FROM Users u WHERE u.tokenVersion > 0")
+    List<TokenEpoch> findTokenEpochs();
+
+    interface TokenEpoch {
+        String getPhoneNumber();
+
+        Integer getTokenVersion();
+    }
 }
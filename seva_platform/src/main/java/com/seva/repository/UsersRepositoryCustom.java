@@ -0,0 +1,12 @@
+package com.seva.repository;
+
+import com.seva.entity.Users;
+
+public interface UsersRepositoryCustom {
+
+    /**
+     * Inserts the user, or merges the non-null profile fields into the existing row
+     * with the same phone number, in a single statement. Returns the resulting row.
+     */
+    Users upsertByPhoneNumber(Users user);
+}
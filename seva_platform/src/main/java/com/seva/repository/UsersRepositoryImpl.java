@@ -0,0 +1,64 @@
+package com.seva.repository;
+
+import com.seva.entity.Users;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.BeanPropertyRowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+import java.sql.Types;
+import java.util.UUID;
+
+@RequiredArgsConstructor
+public class UsersRepositoryImpl implements UsersRepositoryCustom {
+
+    // Role, admin and volunteer flags are set on insert only; profile updates can never change them
+    private static final String UPSERT_SQL = """
+            INSERT INTO users (id, phone_number, full_name, email, gothra, rashi, nakshatra, address, city, state,
+                               pincode, role, consent_data_storage, consent_communications, fcm_token,
+                               is_volunteer, volunteer_request, is_admin, token_version, created_at)
+            VALUES (:id, :phoneNumber, :fullName, :email, :gothra, :rashi, :nakshatra, :address, :city, :state,
+                    :pincode, 'USER', :consentDataStorage, :consentCommunications, :fcmToken,
+                    COALESCE(:isVolunteer, false), COALESCE(:volunteerRequest, false), false, 0, now())
+            ON CONFLICT (phone_number) DO UPDATE SET
+                full_name = COALESCE(EXCLUDED.full_name, users.full_name),
+                email = COALESCE(EXCLUDED.email, users.email),
+                gothra = COALESCE(EXCLUDED.gothra, users.gothra),
+                rashi = COALESCE(EXCLUDED.rashi, users.rashi),
+                nakshatra = COALESCE(EXCLUDED.nakshatra, users.nakshatra),
+                address = COALESCE(EXCLUDED.address, users.address),
+                city = COALESCE(EXCLUDED.city, users.city),
+                state = COALESCE(EXCLUDED.state, users.state),
+                pincode = COALESCE(EXCLUDED.pincode, users.pincode),
+                consent_data_storage = COALESCE(EXCLUDED.consent_data_storage, users.consent_data_storage),
+                consent_communications = COALESCE(EXCLUDED.consent_communications, users.consent_communications),
+                fcm_token = COALESCE(EXCLUDED.fcm_token, users.fcm_token),
+                volunteer_request = COALESCE(:volunteerRequest, users.volunteer_request)
+            RETURNING *""";
+
+    private static final BeanPropertyRowMapper<Users> ROW_MAPPER = BeanPropertyRowMapper.newInstance(Users.class);
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    @Override
+    public Users upsertByPhoneNumber(Users user) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("id", UUID.randomUUID(), Types.OTHER)
+                .addValue("phoneNumber", user.getPhoneNumber(), Types.VARCHAR)
+                .addValue("fullName", user.getFullName(), Types.VARCHAR)
+                .addValue("email", user.getEmail(), Types.VARCHAR)
+                .addValue("gothra", user.getGothra(), Types.VARCHAR)
+                .addValue("rashi", user.getRashi(), Types.VARCHAR)
+                .addValue("nakshatra", user.getNakshatra(), Types.VARCHAR)
+                .addValue("address", user.getAddress(), Types.VARCHAR)
+                .addValue("city", user.getCity(), Types.VARCHAR)
+                .addValue("state", user.getState(), Types.VARCHAR)
+                .addValue("pincode", user.getPincode(), Types.VARCHAR)
+                .addValue("consentDataStorage", user.getConsentDataStorage(), Types.BOOLEAN)
+                .addValue("consentCommunications", user.getConsentCommunications(), Types.BOOLEAN)
+                .addValue("fcmToken", user.getFcmToken(), Types.VARCHAR)
+                .addValue("isVolunteer", user.getIsVolunteer(), Types.BOOLEAN)
+                .addValue("volunteerRequest", user.getVolunteerRequest(), Types.BOOLEAN);
+        return jdbcTemplate.queryForObject(UPSERT_SQL, params, ROW_MAPPER);
+    }
+}
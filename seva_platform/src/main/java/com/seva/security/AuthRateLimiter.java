@@ -0,0 +1,73 @@
+package com.seva.security;
+
+import com.seva.config.RateLimitProperties;
+import com.seva.exception.RateLimitExceededException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throttles the public OTP endpoints per phone number and per client IP so a single
+ * client cannot flood the OTP store or the SMS gateway. The client IP is the request's
+ * remote address; behind a proxy set server.forward-headers-strategy so it reflects
+ * X-Forwarded-For.
+ */
+@Component
+public class AuthRateLimiter {
+
+    private final TokenBucketRateLimiter sendOtpByPhone;
+    private final TokenBucketRateLimiter sendOtpByIp;
+    private final TokenBucketRateLimiter verifyOtpByPhone;
+    private final TokenBucketRateLimiter verifyOtpByIp;
+    private final Counter sendOtpRejected;
+    private final Counter verifyOtpRejected;
+
+    public AuthRateLimiter(RateLimitProperties properties, MeterRegistry meterRegistry) {
+        this.sendOtpByPhone = limiter(properties.getSendOtp().getPhone());
+        this.sendOtpByIp = limiter(properties.getSendOtp().getIp());
+        this.verifyOtpByPhone = limiter(properties.getVerifyOtp().getPhone());
+        this.verifyOtpByIp = limiter(properties.getVerifyOtp().getIp());
+        this.sendOtpRejected = meterRegistry.counter("auth.rate_limit.rejected", "endpoint", "send-otp");
+        this.verifyOtpRejected = meterRegistry.counter("auth.rate_limit.rejected", "endpoint", "verify-otp");
+    }
+
+    public void checkSendOtp(String phoneNumber, HttpServletRequest request) {
+        check(sendOtpByIp, sendOtpByPhone, phoneNumber, request, sendOtpRejected);
+    }
+
+    public void checkVerifyOtp(String phoneNumber, HttpServletRequest request) {
+        check(verifyOtpByIp, verifyOtpByPhone, phoneNumber, request, verifyOtpRejected);
+    }
+
+    @Scheduled(fixedDelay = 60_000)
+    public void evictIdleBuckets() {
+        List.of(sendOtpByPhone, sendOtpByIp, verifyOtpByPhone, verifyOtpByIp)
+                .forEach(TokenBucketRateLimiter::evictIdle);
+    }
+
+    private void check(TokenBucketRateLimiter byIp, TokenBucketRateLimiter byPhone, String phoneNumber,
+            HttpServletRequest request, Counter rejected) {
+        String ip = request.getRemoteAddr();
+        long waitNanos = byIp.tryAcquire(ip);
+        if (waitNanos == 0) {
+            waitNanos = byPhone.tryAcquire(phoneNumber);
+            if (waitNanos > 0) {
+                // Refused for the phone number, so the request must not count against the IP
+                byIp.release(ip);
+            }
+        }
+        if (waitNanos > 0) {
+            rejected.increment();
+            throw new RateLimitExceededException(Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos) + 1));
+        }
+    }
+
+    private static TokenBucketRateLimiter limiter(RateLimitProperties.Limit limit) {
+        return new TokenBucketRateLimiter(limit.getCapacity(), limit.getPeriod());
+    }
+}
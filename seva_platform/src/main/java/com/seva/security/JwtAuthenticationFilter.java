@@ -1,18 +1,20 @@
 package com.seva.security;
 
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
-import java.util.ArrayList;
+import java.util.List;
 
 @lombok.extern.slf4j.Slf4j
 @Component
@@ -20,7 +22,8 @@ import java.util.ArrayList;
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtUtil jwtUtil;
-    private final com.seva.repository.UsersRepository usersRepository;
+    private final RoleEpochRegistry roleEpochRegistry;
+    private final TokenRevocationList tokenRevocationList;
 
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
@@ -29,44 +32,35 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         final String authorizationHeader = request.getHeader("Authorization");
 
         String phoneNumber = null;
-        String jwt = null;
+        Claims claims = null;
 
         if (authorizationHeader != null && authorizationHeader.startsWith("Bearer ")) {
-            jwt = authorizationHeader.substring(7);
+            String jwt = authorizationHeader.substring(7);
             try {
-                phoneNumber = jwtUtil.extractPhoneNumber(jwt);
+                claims = jwtUtil.parseClaims(jwt);
+                phoneNumber = claims.getSubject();
             } catch (Exception e) {
                 log.error("JWT Token extraction failed: {}", e.getMessage());
             }
         }
 
         if (phoneNumber != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            if (jwtUtil.validateToken(jwt, phoneNumber)) {
-                var userOpt = usersRepository.findByPhoneNumber(phoneNumber);
-                var authorities = new ArrayList<org.springframework.security.core.authority.SimpleGrantedAuthority>();
+            if (jwtUtil.isValid(claims, phoneNumber)) {
+                // Authorities come from the verified token alone; role changes and sign-outs are checked in memory
+                if (tokenRevocationList.isRevoked(claims.getId())) {
+                    log.warn("Rejected revoked token for {}", phoneNumber);
+                } else if (roleEpochRegistry.isCurrent(phoneNumber, jwtUtil.extractVersion(claims))) {
+                    String role = claims.get("role", String.class);
+                    String roleWithPrefix = "ROLE_" + (role != null ? role : "USER");
+                    log.debug("User {} authenticated with role: {}", phoneNumber, roleWithPrefix);
 
-                if (userOpt.isPresent()) {
-                    var user = userOpt.get();
-                    if (user.getRole() != null) {
-                        String roleWithPrefix = "ROLE_" + user.getRole().name();
-                        authorities.add(
-                                new org.springframework.security.core.authority.SimpleGrantedAuthority(roleWithPrefix));
-                        log.info("User {} authenticated with role: {}", phoneNumber, roleWithPrefix);
-                    } else {
-                        authorities.add(
-                                new org.springframework.security.core.authority.SimpleGrantedAuthority("ROLE_USER"));
-                        log.info("User {} authenticated with default ROLE_USER", phoneNumber);
-                    }
+                    UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
+                            phoneNumber, null, List.of(new SimpleGrantedAuthority(roleWithPrefix)));
+                    authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+                    SecurityContextHolder.getContext().setAuthentication(authToken);
                 } else {
-                    authorities.add(
-                            new org.springframework.security.core.authority.SimpleGrantedAuthority("ROLE_USER"));
-                    log.warn("User {} not found in database, using default ROLE_USER", phoneNumber);
+                    log.warn("Rejected token for {} issued before the latest role change", phoneNumber);
                 }
-
-                UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
-                        phoneNumber, null, authorities);
-                authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-                SecurityContextHolder.getContext().setAuthentication(authToken);
             }
         }
         chain.doFilter(request, response);
@@ -1,45 +1,93 @@
 package com.seva.security;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
 import org.springframework.stereotype.Component;
 
+import java.nio.charset.StandardCharsets;
 import java.security.Key;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
 import java.util.Date;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
 import com.seva.config.JwtProperties;
 
 @Component
-@lombok.RequiredArgsConstructor
 public class JwtUtil {
 
-    private final JwtProperties jwtProperties;
+    private final long accessTokenTtlMillis;
+    private final Key signingKey;
+    private final JwtParser parser;
 
-    private Key getSigningKey() {
-        return Keys.hmacShaKeyFor(jwtProperties.getSecret().getBytes());
+    // Verified claims keyed by SHA-256 of the compact token; each entry lives until the token's own expiry
+    private final Cache<String, Claims> claimsCache;
+
+    public JwtUtil(JwtProperties jwtProperties, MeterRegistry meterRegistry) {
+        this.accessTokenTtlMillis = jwtProperties.getAccessTokenTtl().toMillis();
+        this.signingKey = Keys.hmacShaKeyFor(jwtProperties.getSecret().getBytes(StandardCharsets.UTF_8));
+        this.parser = Jwts.parserBuilder().setSigningKey(signingKey).build();
+        this.claimsCache = Caffeine.newBuilder()
+                .maximumSize(jwtProperties.getClaimsCache().getMaxSize())
+                .expireAfter(new TokenExpiry(accessTokenTtlMillis))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, claimsCache, "jwt.claims");
     }
 
-    private static final long EXPIRATION_TIME = 1000 * 60 * 60 * 24 * 7; // 7 days
+    public long getAccessTokenTtlMillis() {
+        return accessTokenTtlMillis;
+    }
 
-    public String generateToken(String phoneNumber, String role) {
+    public String generateToken(String phoneNumber, String role, int tokenVersion) {
         return Jwts.builder()
                 .setSubject(phoneNumber)
                 .claim("role", role)
+                .claim("ver", tokenVersion)
+                .setId(UUID.randomUUID().toString())
                 .setIssuedAt(new Date(System.currentTimeMillis()))
-                .setExpiration(new Date(System.currentTimeMillis() + EXPIRATION_TIME))
-                .signWith(getSigningKey(), SignatureAlgorithm.HS256)
+                .setExpiration(new Date(System.currentTimeMillis() + accessTokenTtlMillis))
+                .signWith(signingKey, SignatureAlgorithm.HS256)
                 .compact();
     }
 
+    /**
+     * Returns the verified claims of a token, parsing and checking the signature
+     * only the first time this node sees it. Throws a JwtException for invalid,
+     * tampered or expired tokens.
+     */
+    public Claims parseClaims(String token) {
+        return claimsCache.get(digest(token), key -> parser.parseClaimsJws(token).getBody());
+    }
+
     public String extractRole(String token) {
         return extractClaim(token, claims -> claims.get("role", String.class));
     }
 
+    /**
+     * Token version the claims were issued under; tokens minted before the claim existed count as version 0.
+     */
+    public int extractVersion(Claims claims) {
+        Integer version = claims.get("ver", Integer.class);
+        return version != null ? version : 0;
+    }
+
     public boolean validateToken(String token, String phoneNumber) {
-        final String username = extractPhoneNumber(token);
-        return (username.equals(phoneNumber) && !isTokenExpired(token));
+        return isValid(parseClaims(token), phoneNumber);
+    }
+
+    public boolean isValid(Claims claims, String phoneNumber) {
+        return phoneNumber.equals(claims.getSubject()) && !claims.getExpiration().before(new Date());
     }
 
     public String extractPhoneNumber(String token) {
@@ -51,15 +99,36 @@ public class JwtUtil {
     }
 
     public <T> T extractClaim(String token, Function<Claims, T> claimsResolver) {
-        final Claims claims = extractAllClaims(token);
-        return claimsResolver.apply(claims);
+        return claimsResolver.apply(parseClaims(token));
     }
 
-    private Claims extractAllClaims(String token) {
-        return Jwts.parserBuilder().setSigningKey(getSigningKey()).build().parseClaimsJws(token).getBody();
+    private static String digest(String token) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
     }
 
-    private boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
+    private record TokenExpiry(long defaultTtlMillis) implements Expiry<String, Claims> {
+        @Override
+        public long expireAfterCreate(String key, Claims claims, long currentTime) {
+            Date expiration = claims.getExpiration();
+            if (expiration == null) {
+                return TimeUnit.MILLISECONDS.toNanos(defaultTtlMillis);
+            }
+            return TimeUnit.MILLISECONDS.toNanos(Math.max(0, expiration.getTime() - System.currentTimeMillis()));
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, Claims claims, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+
+        @Override
+        public long expireAfterRead(String key, Claims claims, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
     }
 }
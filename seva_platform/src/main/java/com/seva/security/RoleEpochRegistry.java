@@ -0,0 +1,55 @@
+package com.seva.security;
+
+import com.seva.repository.UsersRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory table of the current token version per phone number.
+ * Only users whose role has changed at least once appear here, so the table
+ * stays small. It is reloaded from the users table periodically so that a
+ * role change made on another node is picked up without per-request DB reads.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class RoleEpochRegistry {
+
+    private final UsersRepository usersRepository;
+
+    private final Map<String, Integer> epochs = new ConcurrentHashMap<>();
+
+    /**
+     * A token is current when it was issued at or after the user's latest role change.
+     */
+    public boolean isCurrent(String phoneNumber, int tokenVersion) {
+        return tokenVersion >= epochs.getOrDefault(phoneNumber, 0);
+    }
+
+    public int currentVersion(String phoneNumber) {
+        return epochs.getOrDefault(phoneNumber, 0);
+    }
+
+    public void advance(String phoneNumber, int tokenVersion) {
+        epochs.merge(phoneNumber, tokenVersion, Math::max);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${jwt.role-epoch.refresh-interval:30s}", initialDelayString = "${jwt.role-epoch.refresh-interval:30s}")
+    public void refresh() {
+        try {
+            usersRepository.findTokenEpochs()
+                    .forEach(epoch -> advance(epoch.getPhoneNumber(), epoch.getTokenVersion()));
+            log.debug("Role epoch table holds {} entries", epochs.size());
+        } catch (Exception e) {
+            log.error("Failed to refresh role epochs: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package com.seva.security;
+
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free token bucket keyed by an arbitrary string (phone number, client IP, ...).
+ * <p>
+ * Each bucket is a single {@link AtomicLong} holding its theoretical arrival time
+ * (the GCRA form of a token bucket), so a check is one CAS with no allocation once
+ * the key exists. Buckets live in a fixed set of striped maps so that creating and
+ * sweeping buckets for one key range does not contend with another.
+ */
+public class TokenBucketRateLimiter {
+
+    private static final int STRIPES = 16;
+
+    private final ConcurrentHashMap<String, AtomicLong>[] stripes;
+    private final long emissionIntervalNanos;
+    private final long burstNanos;
+
+    @SuppressWarnings("unchecked")
+    public TokenBucketRateLimiter(int capacity, Duration refillPeriod) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Bucket capacity must be at least 1");
+        }
+        this.emissionIntervalNanos = Math.max(1, refillPeriod.toNanos() / capacity);
+        this.burstNanos = emissionIntervalNanos * capacity;
+        this.stripes = new ConcurrentHashMap[STRIPES];
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new ConcurrentHashMap<>();
+        }
+    }
+
+    /**
+     * Takes one token for the key.
+     *
+     * @return 0 if the request is allowed, otherwise the nanoseconds until a token is available
+     */
+    public long tryAcquire(String key) {
+        AtomicLong bucket = stripeFor(key).computeIfAbsent(key, k -> new AtomicLong(System.nanoTime()));
+        while (true) {
+            long now = System.nanoTime();
+            long tat = bucket.get();
+            long newTat = (tat - now > 0 ? tat : now) + emissionIntervalNanos;
+            long allowAt = newTat - burstNanos;
+            if (allowAt - now > 0) {
+                return allowAt - now;
+            }
+            if (bucket.compareAndSet(tat, newTat)) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * Gives back a token taken by {@link #tryAcquire} for a request that was then refused
+     * for another reason. A bucket that has already refilled is left as it is.
+     */
+    public void release(String key) {
+        AtomicLong bucket = stripeFor(key).get(key);
+        if (bucket == null) {
+            return;
+        }
+        while (true) {
+            long now = System.nanoTime();
+            long tat = bucket.get();
+            if (tat - now <= 0) {
+                return;
+            }
+            long newTat = tat - emissionIntervalNanos;
+            if (newTat - now < 0) {
+                newTat = now;
+            }
+            if (bucket.compareAndSet(tat, newTat)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Drops buckets that have fully refilled; they behave exactly like a fresh bucket.
+     */
+    public void evictIdle() {
+        long now = System.nanoTime();
+        for (ConcurrentHashMap<String, AtomicLong> stripe : stripes) {
+            stripe.values().removeIf(bucket -> bucket.get() - now <= 0);
+        }
+    }
+
+    public int size() {
+        int size = 0;
+        for (ConcurrentHashMap<String, AtomicLong> stripe : stripes) {
+            size += stripe.size();
+        }
+        return size;
+    }
+
+    private ConcurrentHashMap<String, AtomicLong> stripeFor(String key) {
+        int h = key.hashCode();
+        return stripes[(h ^ (h >>> 16)) & (STRIPES - 1)];
+    }
+}
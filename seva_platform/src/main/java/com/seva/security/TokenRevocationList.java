@@ -0,0 +1,67 @@
+package com.seva.security;
+
+import com.seva.entity.RevokedToken;
+import com.seva.repository.RevokedTokenRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory set of revoked access token IDs (jti), checked by the JWT filter without
+ * touching the database. A revocation is held only until the token would have expired
+ * anyway, so the set holds at most one access-token TTL's worth of logouts; keep that
+ * TTL short (jwt.access-token-ttl) or the set grows with it. It is synced incrementally from revoked_tokens so
+ * revocations made on other nodes are picked up within one refresh interval.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class TokenRevocationList {
+
+    // Revocations written by other nodes may carry slightly older timestamps than our watermark
+    private static final long CLOCK_SKEW_SECONDS = 30;
+
+    private final RevokedTokenRepository revokedTokenRepository;
+
+    private final Map<String, Long> revoked = new ConcurrentHashMap<>();
+    private volatile LocalDateTime watermark = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    public boolean isRevoked(String jti) {
+        return jti != null && revoked.containsKey(jti);
+    }
+
+    public void add(String jti, LocalDateTime expiresAt) {
+        revoked.put(jti, toEpochMillis(expiresAt));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${jwt.revocation.refresh-interval:10s}", initialDelayString = "${jwt.revocation.refresh-interval:10s}")
+    public void sync() {
+        try {
+            LocalDateTime now = LocalDateTime.now();
+            LocalDateTime since = watermark.minusSeconds(CLOCK_SKEW_SECONDS);
+            for (RevokedToken token : revokedTokenRepository.findByRevokedAtAfterAndExpiresAtAfter(since, now)) {
+                add(token.getJti(), token.getExpiresAt());
+            }
+            watermark = now;
+
+            long nowMillis = System.currentTimeMillis();
+            revoked.values().removeIf(expiresAt -> expiresAt < nowMillis);
+            log.debug("Revocation list holds {} token IDs", revoked.size());
+        } catch (Exception e) {
+            log.error("Failed to sync token revocations: {}", e.getMessage());
+        }
+    }
+
+    private static long toEpochMillis(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
@@ -13,61 +13,22 @@ import java.util.Optional;
 public class AuthService {
 
     private final UsersRepository usersRepository;
-
+    private final UserProfileCache userProfileCache;
+
+    /**
+     * Creates the user or merges the non-null profile fields into the existing record.
+     * Runs as a single INSERT ... ON CONFLICT statement, so concurrent registrations
+     * for the same phone number cannot race into the unique constraint. Users cannot
+     * self-approve as volunteer or change their role through this path.
+     */
     @Transactional
     public Users registerOrUpdateUser(Users userRequest) {
-        Optional<Users> existingUserOpt = usersRepository.findByPhoneNumber(userRequest.getPhoneNumber());
-
-        if (existingUserOpt.isPresent()) {
-            Users user = existingUserOpt.get();
-            // Update fields only if they are not null
-            if (userRequest.getFullName() != null)
-                user.setFullName(userRequest.getFullName());
-            if (userRequest.getEmail() != null)
-                user.setEmail(userRequest.getEmail());
-            if (userRequest.getGothra() != null)
-                user.setGothra(userRequest.getGothra());
-            if (userRequest.getRashi() != null)
-                user.setRashi(userRequest.getRashi());
-            if (userRequest.getNakshatra() != null)
-                user.setNakshatra(userRequest.getNakshatra());
-            if (userRequest.getAddress() != null)
-                user.setAddress(userRequest.getAddress());
-            if (userRequest.getCity() != null)
-                user.setCity(userRequest.getCity());
-            if (userRequest.getState() != null)
-                user.setState(userRequest.getState());
-            if (userRequest.getPincode() != null)
-                user.setPincode(userRequest.getPincode());
-            if (userRequest.getConsentDataStorage() != null)
-                user.setConsentDataStorage(userRequest.getConsentDataStorage());
-            if (userRequest.getConsentCommunications() != null)
-                user.setConsentCommunications(userRequest.getConsentCommunications());
-            if (userRequest.getFcmToken() != null)
-                user.setFcmToken(userRequest.getFcmToken());
-
-            // Prevent users from self-approving as volunteer
-            // if (userRequest.getIsVolunteer() != null)
-            // user.setIsVolunteer(userRequest.getIsVolunteer());
-
-            // Allow updating volunteerRequest if provided
-            if (userRequest.getVolunteerRequest() != null)
-                user.setVolunteerRequest(userRequest.getVolunteerRequest());
-
-            return usersRepository.save(user);
-        } else {
-            // New User
-            userRequest.setRole(Users.Role.USER);
-            userRequest.setIsAdmin(false);
-            if (userRequest.getIsVolunteer() == null)
-                userRequest.setIsVolunteer(false);
-            if (userRequest.getVolunteerRequest() == null)
-                userRequest.setVolunteerRequest(false);
-            return usersRepository.save(userRequest);
-        }
+        Users user = usersRepository.upsertByPhoneNumber(userRequest);
+        userProfileCache.evict(user);
+        return user;
     }
 
     public Optional<Users> findByPhoneNumber(String phoneNumber) {
-        return usersRepository.findByPhoneNumber(phoneNumber);
+        return userProfileCache.findByPhoneNumber(phoneNumber);
     }
 }
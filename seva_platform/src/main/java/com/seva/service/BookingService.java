@@ -11,36 +11,56 @@ import java.util.List;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
+@lombok.extern.slf4j.Slf4j
 @Service
 @RequiredArgsConstructor
 public class BookingService {
     private final RoomBookingRepository roomBookingRepository;
     private final SevaBookingRepository sevaBookingRepository;
     private final SevaRepository sevaRepository;
-    private final UsersRepository usersRepository;
     private final PaymentService paymentService;
     private final EmailService emailService;
+    private final UserProfileCache userProfileCache;
+    private final RoomInventoryService roomInventoryService;
+    private final org.springframework.context.ApplicationEventPublisher eventPublisher;
+    private final SevaQuotaService sevaQuotaService;
+    private final SevaQuotaView sevaQuotaView;
+    private final PaymentOrderOutboxRepository paymentOrderOutboxRepository;
+    private final com.seva.config.PaymentProperties paymentProperties;
+    private final org.springframework.transaction.support.TransactionTemplate transactionTemplate;
+
+    private static final int MAX_BULK_STATUS_UPDATES = 500;
+    private static final int MAX_PAGE_SIZE = 200;
 
     // Room Booking
     public List<com.seva.dto.RoomBookingResponse> getAllRoomBookings() {
-        List<RoomBooking> bookings = roomBookingRepository.findAll();
-        return bookings.stream().map(booking -> {
-            com.seva.dto.RoomBookingResponse response = new com.seva.dto.RoomBookingResponse();
-            response.setId(booking.getId());
-            response.setUserId(booking.getUserId());
-            response.setCheckInDate(booking.getCheckInDate());
-            response.setCheckOutDate(booking.getCheckOutDate());
-            response.setNumberOfGuests(booking.getNumberOfGuests());
-            response.setNumberOfRooms(booking.getNumberOfRooms());
-            response.setStatus(booking.getStatus());
-
-            // Get user name
-            usersRepository.findByPhoneNumber(booking.getUserId()).ifPresent(user -> {
-                response.setUserName(user.getFullName());
-            });
+        return roomBookingRepository.findResponses(null, null, null, null, null,
+                org.springframework.data.domain.Pageable.unpaged());
+    }
 
-            return response;
-        }).collect(java.util.stream.Collectors.toList());
+    /**
+     * One page of the admin listing, newest first.
+     */
+    public CursorPage<com.seva.dto.RoomBookingResponse> getRoomBookingPage(RoomBooking.Status status,
+            java.time.LocalDate from, java.time.LocalDate to, String cursor, int size) {
+        checkPageSize(size);
+        KeysetCursor after = KeysetCursor.decode(cursor);
+        List<com.seva.dto.RoomBookingResponse> rows = roomBookingRepository.findResponses(status, from, to,
+                after != null ? after.createdAt() : null, after != null ? after.id() : null,
+                org.springframework.data.domain.PageRequest.of(0, size + 1));
+        return toCursorPage(rows, size, row -> new KeysetCursor(row.getCreatedAt(), row.getId()));
+    }
+
+    /**
+     * Approved stays sharing at least one night with [from, to), optionally limited to one guest house.
+     */
+    public List<com.seva.dto.RoomBookingResponse> getApprovedStays(java.time.LocalDate from, java.time.LocalDate to,
+            String guestHouse) {
+        if (from == null || to == null || !to.isAfter(from)) {
+            throw new IllegalArgumentException("'to' must be after 'from'");
+        }
+        return roomBookingRepository.findOverlappingStays(from, to, RoomBooking.Status.APPROVED.name(), guestHouse).stream()
+                .map(this::convertToRoomBookingResponse).collect(java.util.stream.Collectors.toList());
     }
 
     @Transactional
@@ -52,13 +72,20 @@ public class BookingService {
         booking.setNumberOfGuests(request.getNumberOfGuests());
         booking.setNumberOfRooms(request.getNumberOfRooms());
         booking.setConsentDataStorage(request.getConsentDataStorage());
+        booking.setGuestHouse(roomInventoryService.resolveGuestHouse(request.getGuestHouse()));
+
+        // Holds the rooms on every night of the stay; when any night is full the request joins the waitlist
+        if (!roomInventoryService.tryReserve(booking.getGuestHouse(), booking.getCheckInDate(),
+                booking.getCheckOutDate(), booking.getNumberOfRooms())) {
+            booking.setStatus(RoomBooking.Status.WAITLISTED);
+        }
 
         RoomBooking savedBooking = roomBookingRepository.save(booking);
 
         // Send confirmation email if user has email (optional, based on finding user by
         // phone)
         try {
-            usersRepository.findByPhoneNumber(phoneNumber).ifPresent(user -> {
+            userProfileCache.findByPhoneNumber(phoneNumber).ifPresent(user -> {
                 if (user.getEmail() != null && !user.getEmail().isEmpty()) {
                     String subject = "Room Booking Received";
                     String body = "Dear Devotee,\n\n" +
@@ -66,7 +93,9 @@ public class BookingService {
                             "Reference ID: " + savedBooking.getId() + "\n" +
                             "Check-in: " + savedBooking.getCheckInDate() + "\n" +
                             "Check-out: " + savedBooking.getCheckOutDate() + "\n\n" +
-                            "We will review your request and confirm shortly.";
+                            (savedBooking.getStatus() == RoomBooking.Status.WAITLISTED
+                                    ? "All rooms are taken for some of these nights, so your request is on the waitlist. We will email you as soon as rooms free up."
+                                    : "We will review your request and confirm shortly.");
                     emailService.sendEmail(user.getEmail(), subject, body);
                 }
             });
@@ -78,32 +107,123 @@ public class BookingService {
     }
 
     @Transactional
-    public void updateBookingStatus(String bookingId, String status) {
+    public void updateBookingStatus(String bookingId, RoomBooking.Status status) {
         UUID uuid = UUID.fromString(bookingId);
         RoomBooking booking = roomBookingRepository.findById(uuid)
                 .orElseThrow(() -> new RuntimeException("Booking not found"));
+        if (booking.getStatus() == RoomBooking.Status.WAITLISTED && status == RoomBooking.Status.APPROVED) {
+            throw new IllegalArgumentException("Waitlisted bookings are promoted automatically once rooms free up");
+        }
+        if (!booking.getStatus().canTransitionTo(status)) {
+            throw new com.seva.exception.InvalidStatusTransitionException("room booking", booking.getStatus(), status);
+        }
+        if (status == RoomBooking.Status.APPROVED
+                && roomBookingRepository.existsApprovedOverlap(booking.getUserId(), booking.getCheckInDate(),
+                        booking.getCheckOutDate(), booking.getId())) {
+            throw new com.seva.exception.RoomUnavailableException(
+                    "Guest already has an approved stay overlapping these dates");
+        }
+        if (status == RoomBooking.Status.REJECTED) {
+            releaseHeldRooms(booking);
+        }
         booking.setStatus(status);
         roomBookingRepository.save(booking);
 
-        // Send notification (DB + Email)
-        try {
-            usersRepository.findByPhoneNumber(booking.getUserId()).ifPresent(user -> {
-                String subject = "Room Booking " + status;
-                String body = "Dear " + user.getFullName() + ",\n\n" +
-                        "Your room booking (ID: " + booking.getId() + ") has been " + status.toLowerCase() + ".\n" +
-                        "Check-in: " + booking.getCheckInDate() + "\n" +
-                        "Check-out: " + booking.getCheckOutDate() + "\n\n" +
-                        (status.equals("APPROVED") ? "We look forward to hosting you."
-                                : "Please contact us for more information.");
-
-                // Email Update
-                if (user.getEmail() != null && !user.getEmail().isEmpty()) {
-                    emailService.sendEmail(user.getEmail(), subject, body);
+        // Email goes out after commit, off the request thread
+        eventPublisher.publishEvent(new RoomBookingStatusChangedEvent(status, List.of(booking)));
+    }
+
+    /**
+     * Applies one decision to many bookings: rows are locked and checked together, written with a
+     * single UPDATE, and the guests are emailed as one batch after commit. Bookings that cannot
+     * take the new status are reported individually and left untouched.
+     */
+    @Transactional
+    public BulkStatusUpdateResponse bulkUpdateBookingStatus(List<String> bookingIds, String requestedStatus) {
+        if (!"APPROVED".equals(requestedStatus) && !"REJECTED".equals(requestedStatus)) {
+            throw new IllegalArgumentException("Status must be APPROVED or REJECTED");
+        }
+        RoomBooking.Status status = RoomBooking.Status.valueOf(requestedStatus);
+        if (bookingIds == null || bookingIds.isEmpty()) {
+            throw new IllegalArgumentException("At least one booking id is required");
+        }
+        if (bookingIds.size() > MAX_BULK_STATUS_UPDATES) {
+            throw new IllegalArgumentException("At most " + MAX_BULK_STATUS_UPDATES + " bookings per request");
+        }
+
+        java.util.Map<String, UUID> requested = new java.util.LinkedHashMap<>();
+        List<BulkStatusUpdateResponse.Result> results = new java.util.ArrayList<>();
+        for (String id : new java.util.LinkedHashSet<>(bookingIds)) {
+            try {
+                requested.put(id, UUID.fromString(id));
+            } catch (IllegalArgumentException e) {
+                results.add(BulkStatusUpdateResponse.Result.of(id, BulkStatusUpdateResponse.Outcome.INVALID_ID,
+                        "Not a booking id"));
+            }
+        }
+
+        java.util.Map<UUID, RoomBooking> bookings = roomBookingRepository.findAllByIdForUpdate(requested.values())
+                .stream().collect(Collectors.toMap(RoomBooking::getId, b -> b));
+        java.util.Set<UUID> overlapping = status == RoomBooking.Status.APPROVED && !bookings.isEmpty()
+                ? new java.util.HashSet<>(roomBookingRepository.findIdsWithApprovedOverlap(bookings.keySet()))
+                : java.util.Set.of();
+
+        List<RoomBooking> changed = new java.util.ArrayList<>();
+        java.util.Map<String, List<RoomBooking>> approvedInBatch = new java.util.HashMap<>();
+        for (java.util.Map.Entry<String, UUID> entry : requested.entrySet()) {
+            RoomBooking booking = bookings.get(entry.getValue());
+            BulkStatusUpdateResponse.Outcome outcome = BulkStatusUpdateResponse.Outcome.UPDATED;
+            String message = null;
+            if (booking == null) {
+                outcome = BulkStatusUpdateResponse.Outcome.NOT_FOUND;
+                message = "Booking not found";
+            } else if (status == booking.getStatus()) {
+                outcome = BulkStatusUpdateResponse.Outcome.UNCHANGED;
+            } else if (status == RoomBooking.Status.APPROVED && booking.getStatus() == RoomBooking.Status.WAITLISTED) {
+                outcome = BulkStatusUpdateResponse.Outcome.NOT_ALLOWED;
+                message = "Waitlisted bookings are promoted automatically once rooms free up";
+            } else if (!booking.getStatus().canTransitionTo(status)) {
+                outcome = BulkStatusUpdateResponse.Outcome.NOT_ALLOWED;
+                message = "Cannot move from " + booking.getStatus() + " to " + status;
+            } else if (status == RoomBooking.Status.APPROVED && (overlapping.contains(booking.getId())
+                    || overlapsAny(booking, approvedInBatch.getOrDefault(booking.getUserId(), List.of())))) {
+                outcome = BulkStatusUpdateResponse.Outcome.CONFLICT;
+                message = "Guest already has an approved stay overlapping these dates";
+            } else {
+                if (status == RoomBooking.Status.REJECTED) {
+                    releaseHeldRooms(booking);
+                } else {
+                    approvedInBatch.computeIfAbsent(booking.getUserId(), k -> new java.util.ArrayList<>()).add(booking);
                 }
-            });
-        } catch (Exception e) {
-            System.err.println("Failed to send booking status email: " + e.getMessage());
+                changed.add(booking);
+            }
+            results.add(BulkStatusUpdateResponse.Result.of(entry.getKey(), outcome, message));
         }
+
+        if (!changed.isEmpty()) {
+            roomBookingRepository.updateStatus(changed.stream().map(RoomBooking::getId).toList(), status.name());
+            eventPublisher.publishEvent(new RoomBookingStatusChangedEvent(status, changed));
+        }
+
+        BulkStatusUpdateResponse response = new BulkStatusUpdateResponse();
+        response.setStatus(status.name());
+        response.setUpdated(changed.size());
+        response.setResults(results);
+        return response;
+    }
+
+    // Give the held rooms back to the ledger; waitlisted bookings hold none, and bookings made
+    // before the ledger existed have no guest house
+    private void releaseHeldRooms(RoomBooking booking) {
+        if (booking.getStatus().holdsRooms() && booking.getGuestHouse() != null) {
+            roomInventoryService.release(booking.getGuestHouse(), booking.getCheckInDate(),
+                    booking.getCheckOutDate(), booking.getNumberOfRooms());
+        }
+    }
+
+    private static boolean overlapsAny(RoomBooking booking, List<RoomBooking> others) {
+        return others.stream().anyMatch(other -> other.getCheckInDate().isBefore(booking.getCheckOutDate())
+                && booking.getCheckInDate().isBefore(other.getCheckOutDate()));
     }
 
     // Seva Booking
@@ -111,44 +231,137 @@ public class BookingService {
         return sevaBookingRepository.findAll();
     }
 
-    public List<Seva> getActiveSevas(Seva.SevaCategory category) {
-        if (category != null)
-            return sevaRepository.findByCategoryAndIsActiveTrue(category);
-        return sevaRepository.findByIsActiveTrue();
+    public List<Seva> getActiveSevas(Seva.SevaCategory category, java.time.LocalDate date) {
+        List<Seva> sevas = category != null
+                ? sevaRepository.findByCategoryAndIsActiveTrue(category)
+                : sevaRepository.findByIsActiveTrue();
+        // Remaining counts come from the in-memory quota view, not a query per seva
+        java.time.LocalDate day = date != null ? date : java.time.LocalDate.now();
+        sevas.forEach(seva -> seva.setRemaining(sevaQuotaView.remaining(seva, day)));
+        return sevas;
     }
 
-    @Transactional
+    /**
+     * Starts a seva booking in two short transactions around the gateway call, so no database
+     * connection is held while Razorpay responds. The first stores the booking together with an
+     * outbox entry; the second attaches the order id and clears the entry. If the gateway call
+     * fails or times out, the client never learns of an order and cannot pay, so the booking is
+     * cancelled and its quota slot released before the error is returned. The outbox entry only
+     * outlives the request if the node dies mid-way; {@link PaymentOrderOutboxRelay} then
+     * finishes the job using the booking id as the order receipt.
+     */
     public SevaBooking initiateSevaBooking(SevaBooking booking, UUID userId) {
-        Users user = usersRepository.findById(userId).orElseThrow();
+        SevaBooking saved = createPendingSevaBooking(booking, userId);
+
+        String orderId;
+        try {
+            orderId = paymentService.createOrder(saved.getAmountPaid(), saved.getId().toString());
+        } catch (com.seva.exception.PaymentGatewayException e) {
+            log.warn("Payment order for seva booking {} not created, cancelling it: {}", saved.getId(),
+                    e.getMessage());
+            abandonPendingSevaBooking(saved);
+            throw new com.seva.exception.PaymentGatewayException(
+                    "Payment gateway is not responding. Please try again shortly.", e);
+        }
+
+        return attachPaymentOrder(saved.getId(), orderId);
+    }
+
+    // Gives back everything a booking without an order holds; if this fails, the outbox and expiry sweeper clean up
+    private void abandonPendingSevaBooking(SevaBooking booking) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                if (sevaBookingRepository.cancelUnpaid(List.of(booking.getId())) == 0) {
+                    return;
+                }
+                paymentOrderOutboxRepository.deleteById(booking.getId());
+                Seva seva = booking.getSeva();
+                if (seva.getDailyQuota() != null && booking.getSevaDate() != null) {
+                    sevaQuotaService.releaseHeld(seva.getId(), booking.getSevaDate().toLocalDate(),
+                            seva.getDailyQuota(), 1);
+                }
+            });
+        } catch (RuntimeException e) {
+            log.error("Failed to cancel seva booking {} after gateway failure: {}", booking.getId(), e.getMessage());
+        }
+    }
+
+    private SevaBooking createPendingSevaBooking(SevaBooking booking, UUID userId) {
+        Users user = userProfileCache.findById(userId).orElseThrow();
         booking.setUser(user);
 
         Seva seva = sevaRepository.findById(booking.getSeva().getId())
                 .orElseThrow(() -> new RuntimeException("Seva not found"));
         booking.setSeva(seva);
         booking.setAmountPaid(seva.getAmount());
+        booking.setRazorpayOrderId(null);
+        booking.setStatus(SevaBooking.BookingStatus.PENDING);
+        booking.setPaymentStatus(SevaBooking.PaymentStatus.PENDING);
+
+        // Take one booking from the day's quota up front; it is committed on its own and given
+        // back if the booking cannot be stored
+        java.time.LocalDate quotaDate = null;
+        if (seva.getDailyQuota() != null) {
+            if (booking.getSevaDate() == null) {
+                throw new IllegalArgumentException("Seva date is required");
+            }
+            quotaDate = booking.getSevaDate().toLocalDate();
+            if (!sevaQuotaService.tryConsume(seva, quotaDate)) {
+                throw new com.seva.exception.SevaQuotaExceededException(
+                        seva.getTitleEnglish() + " is fully booked on " + quotaDate);
+            }
+        }
 
         try {
-            // Create Razorpay Order
-            String orderJson = paymentService.createOrder(seva.getAmount());
-            org.json.JSONObject order = new org.json.JSONObject(orderJson);
-            String orderId = order.getString("id");
-
-            booking.setRazorpayOrderId(orderId);
-            booking.setStatus(SevaBooking.BookingStatus.PENDING);
-            booking.setPaymentStatus(SevaBooking.PaymentStatus.PENDING);
-
-            return sevaBookingRepository.save(booking);
-        } catch (Exception e) {
-            throw new RuntimeException("Error creating payment order: " + e.getMessage());
+            return transactionTemplate.execute(status -> {
+                SevaBooking saved = sevaBookingRepository.save(booking);
+
+                PaymentOrderOutbox outbox = new PaymentOrderOutbox();
+                outbox.setBookingId(saved.getId());
+                outbox.setAmount(saved.getAmountPaid());
+                outbox.setNextAttemptAt(java.time.LocalDateTime.now().plus(paymentProperties.getOutbox().getInitialDelay()));
+                paymentOrderOutboxRepository.save(outbox);
+                return saved;
+            });
+        } catch (RuntimeException e) {
+            if (quotaDate != null) {
+                sevaQuotaService.release(seva, quotaDate);
+            }
+            throw e;
         }
     }
 
+    /**
+     * Stores the gateway order id on a pending booking and clears its outbox entry. Safe to call
+     * twice for the same booking; an order id already stored is kept.
+     */
+    public SevaBooking attachPaymentOrder(UUID bookingId, String orderId) {
+        return transactionTemplate.execute(status -> {
+            SevaBooking booking = sevaBookingRepository.findById(bookingId)
+                    .orElseThrow(() -> new RuntimeException("Booking not found"));
+            if (booking.getRazorpayOrderId() == null && booking.getStatus() == SevaBooking.BookingStatus.PENDING) {
+                booking.setRazorpayOrderId(orderId);
+            }
+            paymentOrderOutboxRepository.deleteById(bookingId);
+            return booking;
+        });
+    }
+
     @Transactional
     public SevaBooking completeSevaBooking(UUID bookingId, String paymentId, String signature) {
         SevaBooking booking = sevaBookingRepository.findById(bookingId)
                 .orElseThrow(() -> new RuntimeException("Booking not found"));
 
+        if (booking.getStatus() == SevaBooking.BookingStatus.CONFIRMED
+                && paymentId.equals(booking.getRazorpayPaymentId())) {
+            return booking; // Repeated confirmation of the same payment
+        }
+
         boolean isValid = paymentService.verifySignature(booking.getRazorpayOrderId(), paymentId, signature);
+        SevaBooking.BookingStatus next = isValid ? SevaBooking.BookingStatus.CONFIRMED : SevaBooking.BookingStatus.FAILED;
+        if (booking.getStatus() != next && !booking.getStatus().canTransitionTo(next)) {
+            throw new com.seva.exception.InvalidStatusTransitionException("seva booking", booking.getStatus(), next);
+        }
 
         if (isValid) {
             booking.setRazorpayPaymentId(paymentId);
@@ -180,53 +393,68 @@ public class BookingService {
     }
 
     // User Booking History
-    public BookingHistoryResponse getUserBookingHistory(String phoneNumber) {
-        Users user = usersRepository.findByPhoneNumber(phoneNumber)
-                .orElseThrow(() -> new RuntimeException("User not found"));
-
-        // Get Seva History
-        List<SevaBooking> sevaBookings = sevaBookingRepository.findByUser(user);
-        List<SevaHistoryResponse> sevaHistory = sevaBookings.stream()
-                .map(this::convertToSevaHistoryResponse)
-                .collect(Collectors.toList());
-
-        // Get Room Bookings
-        List<RoomBooking> roomBookings = roomBookingRepository.findByUserId(phoneNumber);
-        List<RoomBookingStatusResponse> roomBookingResponses = roomBookings.stream()
-                .map(this::convertToRoomBookingStatusResponse)
-                .collect(Collectors.toList());
+    public BookingHistoryResponse getUserBookingHistory(String phoneNumber, String sevaCursor, String roomCursor,
+            int size) {
+        CursorPage<SevaHistoryResponse> sevas = getUserSevaHistory(phoneNumber, sevaCursor, size);
+        CursorPage<RoomBookingStatusResponse> rooms = getUserRoomHistory(phoneNumber, roomCursor, size);
 
         BookingHistoryResponse response = new BookingHistoryResponse();
-        response.setSevaHistory(sevaHistory);
-        response.setRoomBookings(roomBookingResponses);
+        response.setSevaHistory(sevas.getItems());
+        response.setSevaNextCursor(sevas.getNextCursor());
+        response.setRoomBookings(rooms.getItems());
+        response.setRoomNextCursor(rooms.getNextCursor());
 
         return response;
     }
 
-    private SevaHistoryResponse convertToSevaHistoryResponse(SevaBooking booking) {
-        SevaHistoryResponse response = new SevaHistoryResponse();
-        response.setId(booking.getId());
-        response.setSevaTitle(booking.getSeva().getTitleEnglish());
-        response.setSevaDate(booking.getSevaDate());
-        response.setAmountPaid(booking.getAmountPaid());
-        response.setStatus(booking.getStatus().toString());
-        return response;
+    public CursorPage<SevaHistoryResponse> getUserSevaHistory(String phoneNumber, String cursor, int size) {
+        checkPageSize(size);
+        KeysetCursor after = KeysetCursor.decode(cursor);
+        List<SevaHistoryResponse> rows = sevaBookingRepository.findHistory(phoneNumber,
+                after != null ? after.createdAt() : null, after != null ? after.id() : null,
+                org.springframework.data.domain.PageRequest.of(0, size + 1));
+        return toCursorPage(rows, size, row -> new KeysetCursor(row.getCreatedAt(), row.getId()));
+    }
+
+    public CursorPage<RoomBookingStatusResponse> getUserRoomHistory(String phoneNumber, String cursor, int size) {
+        checkPageSize(size);
+        KeysetCursor after = KeysetCursor.decode(cursor);
+        List<RoomBookingStatusResponse> rows = roomBookingRepository.findHistory(phoneNumber,
+                after != null ? after.createdAt() : null, after != null ? after.id() : null,
+                org.springframework.data.domain.PageRequest.of(0, size + 1));
+        return toCursorPage(rows, size, row -> new KeysetCursor(row.getCreatedAt(), row.getId()));
+    }
+
+    private static void checkPageSize(int size) {
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Page size must be between 1 and " + MAX_PAGE_SIZE);
+        }
+    }
+
+    // Rows are fetched with one extra beyond the page; its presence means another page follows
+    private static <T> CursorPage<T> toCursorPage(List<T> rows, int size,
+            java.util.function.Function<T, KeysetCursor> position) {
+        if (rows.size() <= size) {
+            return new CursorPage<>(rows, null);
+        }
+        List<T> page = rows.subList(0, size);
+        return new CursorPage<>(page, position.apply(page.get(size - 1)).encode());
     }
 
-    private RoomBookingStatusResponse convertToRoomBookingStatusResponse(RoomBooking booking) {
-        RoomBookingStatusResponse response = new RoomBookingStatusResponse();
+    private com.seva.dto.RoomBookingResponse convertToRoomBookingResponse(RoomBooking booking) {
+        com.seva.dto.RoomBookingResponse response = new com.seva.dto.RoomBookingResponse();
         response.setId(booking.getId());
         response.setUserId(booking.getUserId());
         response.setCheckInDate(booking.getCheckInDate());
         response.setCheckOutDate(booking.getCheckOutDate());
         response.setNumberOfGuests(booking.getNumberOfGuests());
         response.setNumberOfRooms(booking.getNumberOfRooms());
-        response.setStatus(booking.getStatus());
-        response.setConsentDataStorage(booking.isConsentDataStorage());
+        response.setGuestHouse(booking.getGuestHouse());
+        response.setStatus(booking.getStatus().name());
         response.setCreatedAt(booking.getCreatedAt());
 
         // Get user name
-        usersRepository.findByPhoneNumber(booking.getUserId()).ifPresent(user -> {
+        userProfileCache.findByPhoneNumber(booking.getUserId()).ifPresent(user -> {
             response.setUserName(user.getFullName());
         });
 
@@ -0,0 +1,153 @@
+package com.seva.service;
+
+import com.seva.config.PaymentProperties;
+
+import java.util.Arrays;
+
+/**
+ * Count-based circuit breaker. While closed it tracks the outcome of the last
+ * {@code slidingWindowSize} calls and opens once enough of them failed. After
+ * {@code openDuration} it lets a few probe calls through (half-open): if they all
+ * succeed it closes again, and any failure reopens it.
+ * <p>
+ * Every state change starts a new generation, and a permit is only good for the
+ * generation that issued it. A slow call admitted while closed therefore cannot count
+ * as a probe, or reopen the breaker, when it finishes after the breaker has moved on.
+ */
+public class CircuitBreaker {
+
+    public enum State {
+        CLOSED, HALF_OPEN, OPEN
+    }
+
+    /**
+     * Returned by {@link #tryAcquire()} when the call must not go ahead.
+     */
+    public static final long NOT_PERMITTED = -1;
+
+    private final int failureRateThreshold;
+    private final int minimumCalls;
+    private final long openDurationNanos;
+    private final int halfOpenProbes;
+
+    // Ring buffer of recent outcomes while closed; true marks a failure
+    private final boolean[] window;
+    private int windowPosition;
+    private int recordedCalls;
+    private int failedCalls;
+
+    private State state = State.CLOSED;
+    private long generation;
+    private long openedAt;
+    private int probesIssued;
+    private int probesSucceeded;
+
+    public CircuitBreaker(PaymentProperties.CircuitBreaker properties) {
+        this.failureRateThreshold = properties.getFailureRateThreshold();
+        this.minimumCalls = properties.getMinimumCalls();
+        this.openDurationNanos = properties.getOpenDuration().toNanos();
+        this.halfOpenProbes = Math.max(1, properties.getHalfOpenProbes());
+        this.window = new boolean[Math.max(1, properties.getSlidingWindowSize())];
+    }
+
+    /**
+     * Asks whether a call may go ahead now. Returns a permit, or {@link #NOT_PERMITTED}. Every
+     * permitted call must hand its permit to {@link #onSuccess}, {@link #onFailure} or, when its
+     * outcome says nothing about the remote side, {@link #onIgnored}.
+     */
+    public synchronized long tryAcquire() {
+        switch (state) {
+            case CLOSED:
+                return generation;
+            case OPEN:
+                if (System.nanoTime() - openedAt < openDurationNanos) {
+                    return NOT_PERMITTED;
+                }
+                transitionTo(State.HALF_OPEN);
+                probesIssued = 0;
+                probesSucceeded = 0;
+                // fall through to issue the first probe
+            default:
+                if (probesIssued >= halfOpenProbes) {
+                    return NOT_PERMITTED;
+                }
+                probesIssued++;
+                return generation;
+        }
+    }
+
+    public synchronized void onSuccess(long permit) {
+        if (permit != generation) {
+            return;
+        }
+        if (state == State.HALF_OPEN) {
+            if (++probesSucceeded >= halfOpenProbes) {
+                transitionTo(State.CLOSED);
+                resetWindow();
+            }
+        } else if (state == State.CLOSED) {
+            record(false);
+        }
+    }
+
+    public synchronized void onFailure(long permit) {
+        if (permit != generation) {
+            return;
+        }
+        if (state == State.HALF_OPEN) {
+            open();
+        } else if (state == State.CLOSED) {
+            record(true);
+            if (recordedCalls >= minimumCalls && failedCalls * 100 >= failureRateThreshold * recordedCalls) {
+                open();
+            }
+        }
+    }
+
+    /**
+     * Reports a permitted call that ended without telling us anything about the remote side,
+     * e.g. because the caller was interrupted. A half-open probe slot is handed back.
+     */
+    public synchronized void onIgnored(long permit) {
+        if (permit == generation && state == State.HALF_OPEN && probesIssued > probesSucceeded) {
+            probesIssued--;
+        }
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    private void record(boolean failed) {
+        if (recordedCalls == window.length) {
+            if (window[windowPosition]) {
+                failedCalls--;
+            }
+        } else {
+            recordedCalls++;
+        }
+        window[windowPosition] = failed;
+        if (failed) {
+            failedCalls++;
+        }
+        windowPosition = (windowPosition + 1) % window.length;
+    }
+
+    private void open() {
+        transitionTo(State.OPEN);
+        openedAt = System.nanoTime();
+        resetWindow();
+    }
+
+    private void transitionTo(State next) {
+        state = next;
+        generation++;
+    }
+
+    private void resetWindow() {
+        Arrays.fill(window, false);
+        windowPosition = 0;
+        recordedCalls = 0;
+        failedCalls = 0;
+    }
+}
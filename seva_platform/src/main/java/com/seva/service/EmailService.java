@@ -5,6 +5,8 @@ import org.springframework.mail.SimpleMailMessage;
 import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.stereotype.Service;
 
+import java.util.List;
+
 @Service
 public class EmailService {
 
@@ -31,4 +33,23 @@ public class EmailService {
             System.err.println("Failed to send email: " + e.getMessage());
         }
     }
+
+    /**
+     * Sends several messages over a single mail server connection.
+     */
+    public void sendEmails(List<SimpleMailMessage> messages) {
+        if (messages.isEmpty()) {
+            return;
+        }
+        try {
+            if (mailSender != null) {
+                mailSender.send(messages.toArray(new SimpleMailMessage[0]));
+                System.out.println("Emails sent: " + messages.size());
+            } else {
+                messages.forEach(message -> sendEmail(message.getTo()[0], message.getSubject(), message.getText()));
+            }
+        } catch (Exception e) {
+            System.err.println("Failed to send emails: " + e.getMessage());
+        }
+    }
 }
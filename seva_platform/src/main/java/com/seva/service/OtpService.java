@@ -4,4 +4,9 @@ public interface OtpService {
     String generateOtp(String phoneNumber);
 
     boolean validateOtp(String phoneNumber, String otp);
+
+    /**
+     * Discards the code if it is still the one stored for the number, e.g. when it could not be delivered.
+     */
+    void invalidateOtp(String phoneNumber, String otp);
 }
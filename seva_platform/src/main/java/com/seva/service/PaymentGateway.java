@@ -0,0 +1,27 @@
+package com.seva.service;
+
+import java.math.BigDecimal;
+import java.util.Optional;
+
+public interface PaymentGateway {
+
+    /**
+     * Creates an INR order for the amount and returns its id. The receipt must be unique per booking.
+     */
+    String createOrder(BigDecimal amount, String receipt) throws Exception;
+
+    /**
+     * Looks up the order previously created with the receipt, if any.
+     */
+    Optional<String> findOrderByReceipt(String receipt) throws Exception;
+
+    /**
+     * Refunds the amount of a captured payment and returns the refund id. The receipt must be unique per refund.
+     */
+    String refund(String paymentId, BigDecimal amount, String receipt) throws Exception;
+
+    /**
+     * Looks up the refund previously issued on the payment with the receipt, if any.
+     */
+    Optional<String> findRefundByReceipt(String paymentId, String receipt) throws Exception;
+}
@@ -0,0 +1,97 @@
+package com.seva.service;
+
+import com.seva.config.PaymentProperties;
+import com.seva.entity.PaymentOrderOutbox;
+import com.seva.entity.SevaBooking;
+import com.seva.repository.PaymentOrderOutboxRepository;
+import com.seva.repository.SevaBookingRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Finishes seva bookings whose payment order outcome was lost because the node died between
+ * storing the booking and storing its order id. (Bookings whose gateway call failed in the
+ * request are cancelled there.) Due outbox entries are leased in
+ * a short transaction, then each one is resolved against the gateway by its receipt (the
+ * booking id), so an order that was in fact created is found rather than created twice.
+ */
+@Slf4j
+@Service
+public class PaymentOrderOutboxRelay {
+
+    private final PaymentOrderOutboxRepository outboxRepository;
+    private final SevaBookingRepository sevaBookingRepository;
+    private final PaymentService paymentService;
+    private final BookingService bookingService;
+    private final PaymentProperties.Outbox properties;
+    private final TransactionTemplate transactionTemplate;
+
+    public PaymentOrderOutboxRelay(PaymentOrderOutboxRepository outboxRepository,
+            SevaBookingRepository sevaBookingRepository, PaymentService paymentService, BookingService bookingService,
+            PaymentProperties paymentProperties, TransactionTemplate transactionTemplate) {
+        this.outboxRepository = outboxRepository;
+        this.sevaBookingRepository = sevaBookingRepository;
+        this.paymentService = paymentService;
+        this.bookingService = bookingService;
+        this.properties = paymentProperties.getOutbox();
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    @Scheduled(fixedDelayString = "${payments.outbox.relay-interval:30s}")
+    public void relay() {
+        List<PaymentOrderOutbox> due;
+        try {
+            due = lease();
+        } catch (Exception e) {
+            log.error("Failed to read payment order outbox: {}", e.getMessage());
+            return;
+        }
+        for (PaymentOrderOutbox entry : due) {
+            resolve(entry);
+        }
+    }
+
+    // Pushes each due entry's next attempt past the lease so other nodes leave it alone meanwhile
+    private List<PaymentOrderOutbox> lease() {
+        return transactionTemplate.execute(status -> {
+            LocalDateTime now = LocalDateTime.now();
+            List<PaymentOrderOutbox> entries = outboxRepository.lockDue(now, properties.getBatchSize());
+            for (PaymentOrderOutbox entry : entries) {
+                entry.setAttempts(entry.getAttempts() + 1);
+                entry.setNextAttemptAt(now.plus(properties.getRetryBackoff().multipliedBy(entry.getAttempts())));
+            }
+            return entries;
+        });
+    }
+
+    private void resolve(PaymentOrderOutbox entry) {
+        SevaBooking booking = sevaBookingRepository.findById(entry.getBookingId()).orElse(null);
+        if (booking == null || booking.getStatus() != SevaBooking.BookingStatus.PENDING
+                || booking.getRazorpayOrderId() != null) {
+            // Nothing left to recover: gone, expired, or finished by its own request
+            outboxRepository.deleteById(entry.getBookingId());
+            return;
+        }
+        try {
+            String orderId = paymentService.findOrCreateOrder(entry.getAmount(), entry.getBookingId().toString());
+            bookingService.attachPaymentOrder(entry.getBookingId(), orderId);
+            log.info("Recovered payment order {} for seva booking {}", orderId, entry.getBookingId());
+        } catch (Exception e) {
+            log.warn("Payment order recovery for seva booking {} failed (attempt {}): {}", entry.getBookingId(),
+                    entry.getAttempts(), e.getMessage());
+            if (entry.getAttempts() >= properties.getMaxAttempts()) {
+                // Give up; the unpaid booking is cancelled by the pending-expiry sweeper
+                outboxRepository.deleteById(entry.getBookingId());
+            } else {
+                String error = String.valueOf(e.getMessage());
+                entry.setLastError(error.length() > 255 ? error.substring(0, 255) : error);
+                outboxRepository.save(entry);
+            }
+        }
+    }
+}
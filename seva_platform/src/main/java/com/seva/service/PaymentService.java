@@ -1,34 +1,170 @@
 package com.seva.service;
 
-import com.razorpay.Order;
-import com.razorpay.RazorpayClient;
-import com.razorpay.RazorpayException;
-import org.json.JSONObject;
+import com.seva.config.PaymentProperties;
+import com.seva.exception.PaymentGatewayException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
 
+/**
+ * Guards every call to the {@link PaymentGateway}: at most {@code payments.max-concurrent}
+ * calls are in flight, each is abandoned at {@code payments.deadline}, and a circuit
+ * breaker stops calling the gateway for a while once most recent calls failed. Callers get
+ * a {@link PaymentGatewayException} in all of those cases, without waiting on a sick gateway.
+ */
+@Slf4j
 @Service
 public class PaymentService {
 
-    @Value("${razorpay.key.id}")
-    private String keyId;
+    private final PaymentGateway gateway;
+    private final ThreadPoolTaskExecutor executor;
+    private final MeterRegistry meterRegistry;
+    private final CircuitBreaker circuitBreaker;
+    private final int maxConcurrent;
+    private final Semaphore permits;
+    private final long deadlineMillis;
+    private final long acquireTimeoutMillis;
 
     @Value("${razorpay.key.secret}")
     private String keySecret;
 
-    public String createOrder(BigDecimal amount) throws RazorpayException {
-        RazorpayClient razorpay = new RazorpayClient(keyId, keySecret);
+    public PaymentService(PaymentGateway gateway, PaymentProperties properties,
+            @Qualifier("paymentGatewayExecutor") ThreadPoolTaskExecutor executor, MeterRegistry meterRegistry) {
+        this.gateway = gateway;
+        this.executor = executor;
+        this.meterRegistry = meterRegistry;
+        this.circuitBreaker = new CircuitBreaker(properties.getCircuitBreaker());
+        this.maxConcurrent = properties.getMaxConcurrent();
+        this.permits = new Semaphore(maxConcurrent);
+        this.deadlineMillis = properties.getDeadline().toMillis();
+        this.acquireTimeoutMillis = properties.getAcquireTimeout().toMillis();
+        meterRegistry.gauge("payment.gateway.in_flight", permits, p -> maxConcurrent - p.availablePermits());
+        meterRegistry.gauge("payment.gateway.circuit.state", circuitBreaker, cb -> cb.getState().ordinal());
+    }
+
+    /**
+     * Creates an order carrying the given receipt and returns its id. The receipt is the booking
+     * id, which lets {@link #findOrCreateOrder} recover an order whose creation outcome was lost.
+     */
+    public String createOrder(BigDecimal amount, String receipt) {
+        return call("create_order", () -> gateway.createOrder(amount, receipt));
+    }
+
+    /**
+     * Returns the id of the order already created for the receipt, creating one only if there is none.
+     */
+    public String findOrCreateOrder(BigDecimal amount, String receipt) {
+        Optional<String> existing = call("find_order", () -> gateway.findOrderByReceipt(receipt));
+        return existing.orElseGet(() -> createOrder(amount, receipt));
+    }
+
+    /**
+     * Refunds the payment unless a refund with this receipt was already issued on it, and
+     * returns the refund id, so a refund retried after a lost response is not paid out twice.
+     */
+    public String findOrCreateRefund(String paymentId, BigDecimal amount, String receipt) {
+        Optional<String> existing = call("find_refund", () -> gateway.findRefundByReceipt(paymentId, receipt));
+        return existing.orElseGet(() -> call("refund", () -> gateway.refund(paymentId, amount, receipt)));
+    }
+
+    private <T> T call(String operation, Callable<T> request) {
+        long started = System.nanoTime();
+        if (!acquirePermit()) {
+            record(operation, "rejected", started);
+            throw new PaymentGatewayException("Too many payment gateway calls in flight", null);
+        }
+        long circuitPermit = circuitBreaker.tryAcquire();
+        if (circuitPermit == CircuitBreaker.NOT_PERMITTED) {
+            permits.release();
+            record(operation, "short_circuited", started);
+            throw new PaymentGatewayException("Payment gateway circuit is open", null);
+        }
+
+        // The permit is returned by whoever claims the task: the worker when it runs, or the caller if it never started
+        AtomicBoolean claimed = new AtomicBoolean();
+        Future<T> future;
+        try {
+            future = executor.submit(() -> {
+                if (!claimed.compareAndSet(false, true)) {
+                    return null;
+                }
+                try {
+                    return request.call();
+                } finally {
+                    permits.release();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            permits.release();
+            circuitBreaker.onFailure(circuitPermit);
+            record(operation, "rejected", started);
+            throw new PaymentGatewayException("Payment gateway executor is saturated", e);
+        }
+
+        try {
+            T result = future.get(deadlineMillis, TimeUnit.MILLISECONDS);
+            circuitBreaker.onSuccess(circuitPermit);
+            record(operation, "success", started);
+            return result;
+        } catch (TimeoutException e) {
+            abandon(future, claimed);
+            circuitBreaker.onFailure(circuitPermit);
+            record(operation, "timeout", started);
+            log.warn("Payment gateway {} exceeded its {} ms deadline", operation, deadlineMillis);
+            throw new PaymentGatewayException("Payment gateway did not respond in time", e);
+        } catch (ExecutionException e) {
+            circuitBreaker.onFailure(circuitPermit);
+            record(operation, "error", started);
+            throw new PaymentGatewayException("Payment gateway call failed: " + e.getCause().getMessage(),
+                    e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            abandon(future, claimed);
+            // Not the gateway's fault; hand back a probe slot without counting an outcome
+            circuitBreaker.onIgnored(circuitPermit);
+            record(operation, "interrupted", started);
+            throw new PaymentGatewayException("Interrupted while waiting for the payment gateway", e);
+        }
+    }
+
+    private boolean acquirePermit() {
+        try {
+            return permits.tryAcquire(acquireTimeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
 
-        JSONObject orderRequest = new JSONObject();
-        // Razorpay accepts amount in paisa
-        orderRequest.put("amount", amount.multiply(BigDecimal.valueOf(100)).intValue());
-        orderRequest.put("currency", "INR");
-        orderRequest.put("receipt", "txn_" + System.currentTimeMillis());
+    // A call already running keeps its permit until the client library gives up on it
+    private void abandon(Future<?> future, AtomicBoolean claimed) {
+        future.cancel(true);
+        if (claimed.compareAndSet(false, true)) {
+            permits.release();
+        }
+    }
 
-        Order order = razorpay.orders.create(orderRequest);
-        return order.toString();
+    private void record(String operation, String result, long started) {
+        Timer.builder("payment.gateway.calls")
+                .tag("operation", operation)
+                .tag("result", result)
+                .register(meterRegistry)
+                .record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
     }
 
     public boolean verifySignature(String orderId, String paymentId, String signature) {
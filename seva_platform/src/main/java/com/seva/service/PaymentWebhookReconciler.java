@@ -0,0 +1,228 @@
+package com.seva.service;
+
+import com.seva.config.PaymentProperties;
+import com.seva.entity.PaymentWebhookEvent;
+import com.seva.entity.SevaBooking;
+import com.seva.repository.PaymentWebhookEventRepository;
+import com.seva.repository.SevaBookingRepository;
+import com.seva.repository.SevaRefundRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Applies stored Razorpay webhook events to seva bookings, so a payment captured after the
+ * app was closed still confirms its booking. Each batch locks its due events with SKIP
+ * LOCKED, loads and locks the bookings for all their orders in one query, and settles every
+ * order from all of its events together:
+ * <ul>
+ * <li>a captured payment wins over any failure, whatever order the events arrived in;</li>
+ * <li>a failure only moves a PENDING booking to FAILED, which a later capture can still confirm;</li>
+ * <li>events repeating what the booking already records change nothing;</li>
+ * <li>a payment captured for a cancelled booking, or a second payment captured on an
+ * already paid order, is queued for refund.</li>
+ * </ul>
+ * Events whose order is not on a booking yet (its id is still being recovered by the
+ * outbox relay) are retried with backoff and eventually discarded.
+ */
+@Slf4j
+@Service
+public class PaymentWebhookReconciler {
+
+    private final PaymentWebhookEventRepository eventRepository;
+    private final SevaBookingRepository sevaBookingRepository;
+    private final SevaRefundRepository sevaRefundRepository;
+    private final EmailService emailService;
+    private final PaymentProperties.Webhook properties;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+
+    public PaymentWebhookReconciler(PaymentWebhookEventRepository eventRepository,
+            SevaBookingRepository sevaBookingRepository, SevaRefundRepository sevaRefundRepository,
+            EmailService emailService,
+            PaymentProperties paymentProperties, TransactionTemplate transactionTemplate, MeterRegistry meterRegistry) {
+        this.eventRepository = eventRepository;
+        this.sevaBookingRepository = sevaBookingRepository;
+        this.sevaRefundRepository = sevaRefundRepository;
+        this.emailService = emailService;
+        this.properties = paymentProperties.getWebhook();
+        this.transactionTemplate = transactionTemplate;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Scheduled(fixedDelayString = "${payments.webhook.reconcile-interval:10s}")
+    public void reconcile() {
+        int total = 0;
+        try {
+            for (int batch = 0; batch < properties.getMaxBatchesPerRun(); batch++) {
+                int applied = reconcileBatch();
+                total += applied;
+                if (applied < properties.getBatchSize()) {
+                    break;
+                }
+            }
+        } catch (Exception e) {
+            log.error("Payment webhook reconciliation stopped after {} events: {}", total, e.getMessage());
+        }
+        if (total > 0) {
+            log.info("Reconciled {} payment webhook events", total);
+        }
+    }
+
+    @Scheduled(cron = "0 30 3 * * *")
+    public void purgeProcessed() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(properties.getRetention());
+        int purged;
+        do {
+            purged = eventRepository.deleteProcessedBefore(cutoff, properties.getBatchSize());
+        } while (purged == properties.getBatchSize());
+    }
+
+    private int reconcileBatch() {
+        List<SimpleMailMessage> confirmations = new ArrayList<>();
+        Integer handled = transactionTemplate.execute(status -> {
+            LocalDateTime now = LocalDateTime.now();
+            List<PaymentWebhookEvent> events = eventRepository.lockDue(now, properties.getBatchSize());
+            if (events.isEmpty()) {
+                return 0;
+            }
+            Map<String, List<PaymentWebhookEvent>> byOrder = events.stream()
+                    .collect(Collectors.groupingBy(PaymentWebhookEvent::getRazorpayOrderId, LinkedHashMap::new,
+                            Collectors.toList()));
+            Map<String, SevaBooking> bookings = sevaBookingRepository
+                    .findAllByRazorpayOrderIdInForUpdate(byOrder.keySet()).stream()
+                    .collect(Collectors.toMap(SevaBooking::getRazorpayOrderId, Function.identity(), (a, b) -> a));
+
+            byOrder.forEach((orderId, orderEvents) -> {
+                SevaBooking booking = bookings.get(orderId);
+                if (booking == null) {
+                    orderEvents.forEach(event -> postpone(event, now));
+                    return;
+                }
+                String outcome = settle(booking, orderEvents, confirmations);
+                orderEvents.forEach(event -> markProcessed(event, now, outcome));
+            });
+            return events.size();
+        });
+        emailService.sendEmails(confirmations);
+        return handled != null ? handled : 0;
+    }
+
+    // Decides the booking's payment state from all of the order's events in this batch
+    private String settle(SevaBooking booking, List<PaymentWebhookEvent> events, List<SimpleMailMessage> confirmations) {
+        PaymentWebhookEvent captured = events.stream()
+                .filter(e -> PaymentWebhookService.PAYMENT_CAPTURED.equals(e.getEventType()))
+                .min(Comparator.comparing(PaymentWebhookEvent::getOccurredAt,
+                        Comparator.nullsLast(Comparator.naturalOrder())))
+                .orElse(null);
+
+        if (captured == null) {
+            // Only failures: they matter only while nothing else has happened to the booking
+            if (booking.getStatus() != SevaBooking.BookingStatus.PENDING) {
+                return "ignored";
+            }
+            booking.setStatus(SevaBooking.BookingStatus.FAILED);
+            booking.setPaymentStatus(SevaBooking.PaymentStatus.FAILED);
+            return "failed";
+        }
+
+        String outcome;
+        if (booking.getPaymentStatus() == SevaBooking.PaymentStatus.PAID
+                || booking.getPaymentStatus() == SevaBooking.PaymentStatus.REFUNDED) {
+            // Already settled by the client callback or an earlier event
+            outcome = "duplicate";
+        } else if (!amountMatches(booking, captured)) {
+            log.error("Captured amount {} paisa for seva booking {} does not match {}", captured.getAmount(),
+                    booking.getId(), booking.getAmountPaid());
+            return "amount_mismatch";
+        } else {
+            booking.setRazorpayPaymentId(captured.getRazorpayPaymentId());
+            booking.setPaymentStatus(SevaBooking.PaymentStatus.PAID);
+            if (booking.getStatus() == SevaBooking.BookingStatus.CANCELLED) {
+                // Cancelled before the payment came through; CANCELLED is final, so the money goes back
+                log.warn("Payment {} captured for cancelled seva booking {}; refund queued",
+                        captured.getRazorpayPaymentId(), booking.getId());
+                sevaRefundRepository.enqueue(booking.getId(), captured.getRazorpayPaymentId(),
+                        booking.getAmountPaid(), LocalDateTime.now());
+                outcome = "captured_after_cancel";
+            } else {
+                booking.setStatus(SevaBooking.BookingStatus.CONFIRMED);
+                String email = booking.getUser() != null ? booking.getUser().getEmail() : null;
+                if (email != null && !email.isEmpty()) {
+                    confirmations.add(confirmationEmail(booking, email));
+                }
+                outcome = "confirmed";
+            }
+        }
+
+        // Any other payment captured on the same order charged the devotee twice
+        for (PaymentWebhookEvent event : events) {
+            if (PaymentWebhookService.PAYMENT_CAPTURED.equals(event.getEventType())
+                    && event.getRazorpayPaymentId() != null
+                    && !event.getRazorpayPaymentId().equals(booking.getRazorpayPaymentId())) {
+                log.warn("Seva booking {} already paid by payment {}; payment {} on order {} queued for refund",
+                        booking.getId(), booking.getRazorpayPaymentId(), event.getRazorpayPaymentId(),
+                        booking.getRazorpayOrderId());
+                BigDecimal amount = event.getAmount() != null
+                        ? BigDecimal.valueOf(event.getAmount()).movePointLeft(2)
+                        : booking.getAmountPaid();
+                sevaRefundRepository.enqueue(booking.getId(), event.getRazorpayPaymentId(), amount,
+                        LocalDateTime.now());
+                outcome = "duplicate_payment";
+            }
+        }
+        return outcome;
+    }
+
+    private static boolean amountMatches(SevaBooking booking, PaymentWebhookEvent captured) {
+        if (captured.getAmount() == null || booking.getAmountPaid() == null) {
+            return true;
+        }
+        return booking.getAmountPaid().multiply(BigDecimal.valueOf(100)).longValue() == captured.getAmount();
+    }
+
+    private void postpone(PaymentWebhookEvent event, LocalDateTime now) {
+        event.setAttempts(event.getAttempts() + 1);
+        if (event.getAttempts() >= properties.getMaxAttempts()) {
+            log.warn("No seva booking for Razorpay order {} after {} attempts; webhook event {} discarded",
+                    event.getRazorpayOrderId(), event.getAttempts(), event.getEventId());
+            markProcessed(event, now, "unknown_order");
+        } else {
+            event.setNextAttemptAt(now.plus(properties.getRetryBackoff().multipliedBy(event.getAttempts())));
+        }
+    }
+
+    private void markProcessed(PaymentWebhookEvent event, LocalDateTime now, String outcome) {
+        event.setProcessedAt(now);
+        event.setOutcome(outcome);
+        meterRegistry.counter("payment.webhook.events", "type", event.getEventType(), "outcome", outcome)
+                .increment();
+    }
+
+    private static SimpleMailMessage confirmationEmail(SevaBooking booking, String email) {
+        SimpleMailMessage message = new SimpleMailMessage();
+        message.setTo(email);
+        message.setSubject("Seva Booking Confirmed - " + booking.getSeva().getTitleEnglish());
+        message.setText("Dear " + booking.getDevoteeName() + ",\n\n" +
+                "Your Seva booking has been confirmed.\n\n" +
+                "Seva: " + booking.getSeva().getTitleEnglish() + "\n" +
+                "Date: " + booking.getSevaDate() + "\n" +
+                "Amount: " + booking.getAmountPaid() + "\n" +
+                "Reference ID: " + booking.getRazorpayPaymentId() + "\n\n" +
+                "Thank you for your devotion.");
+        return message;
+    }
+}
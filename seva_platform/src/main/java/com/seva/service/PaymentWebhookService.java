@@ -0,0 +1,96 @@
+package com.seva.service;
+
+import com.seva.config.RazorpayProperties;
+import com.seva.exception.InvalidWebhookSignatureException;
+import com.seva.repository.PaymentWebhookEventRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Set;
+
+/**
+ * Accepts Razorpay webhook deliveries. The body is checked against the webhook secret and,
+ * for payment events, stored in one insert; applying it to the booking is left to
+ * {@link PaymentWebhookReconciler} so the gateway gets its acknowledgement right away.
+ */
+@Slf4j
+@Service
+public class PaymentWebhookService {
+
+    public static final String PAYMENT_CAPTURED = "payment.captured";
+    public static final String PAYMENT_FAILED = "payment.failed";
+
+    private static final Set<String> HANDLED_EVENTS = Set.of(PAYMENT_CAPTURED, PAYMENT_FAILED);
+
+    private final PaymentWebhookEventRepository eventRepository;
+    private final String webhookSecret;
+
+    public PaymentWebhookService(PaymentWebhookEventRepository eventRepository, RazorpayProperties razorpayProperties) {
+        this.eventRepository = eventRepository;
+        this.webhookSecret = razorpayProperties.getWebhook().getSecret();
+    }
+
+    /**
+     * Verifies and enqueues one delivery. Events of other types and redeliveries of a stored
+     * event are acknowledged without being stored again.
+     */
+    public void ingest(String body, String signature, String eventId) {
+        if (webhookSecret == null || webhookSecret.isBlank()) {
+            throw new IllegalStateException("Razorpay webhook secret is not configured");
+        }
+        if (signature == null || !signatureMatches(body, signature)) {
+            throw new InvalidWebhookSignatureException("Invalid webhook signature");
+        }
+
+        JSONObject event;
+        try {
+            event = new JSONObject(body);
+        } catch (JSONException e) {
+            throw new IllegalArgumentException("Malformed webhook payload");
+        }
+        String type = event.optString("event");
+        if (!HANDLED_EVENTS.contains(type)) {
+            log.debug("Ignoring Razorpay webhook event {}", type);
+            return;
+        }
+
+        JSONObject payload = event.optJSONObject("payload");
+        JSONObject wrapper = payload != null ? payload.optJSONObject("payment") : null;
+        JSONObject payment = wrapper != null ? wrapper.optJSONObject("entity") : null;
+        if (payment == null || payment.optString("order_id").isEmpty()) {
+            log.warn("Razorpay {} webhook without a payment order, ignored", type);
+            return;
+        }
+        String paymentId = payment.optString("id", null);
+        // Deliveries normally carry X-Razorpay-Event-Id; without it the payment and event type identify the event
+        String key = eventId != null && !eventId.isBlank() ? eventId : type + ":" + paymentId;
+        LocalDateTime occurredAt = event.has("created_at")
+                ? LocalDateTime.ofInstant(Instant.ofEpochSecond(event.getLong("created_at")), ZoneId.systemDefault())
+                : null;
+        Long amount = payment.has("amount") ? payment.getLong("amount") : null;
+
+        int inserted = eventRepository.enqueue(key, type, payment.getString("order_id"), paymentId, amount,
+                occurredAt, LocalDateTime.now());
+        if (inserted == 0) {
+            log.debug("Duplicate Razorpay webhook event {} ignored", key);
+        }
+    }
+
+    private boolean signatureMatches(String body, String signature) {
+        try {
+            String expected = PaymentService.calculateRFC2104HMAC(body, webhookSecret);
+            return MessageDigest.isEqual(expected.getBytes(StandardCharsets.UTF_8),
+                    signature.getBytes(StandardCharsets.UTF_8));
+        } catch (java.security.SignatureException e) {
+            log.error("Failed to compute webhook signature: {}", e.getMessage());
+            return false;
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package com.seva.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.seva.config.RoomInventoryProperties;
+import com.seva.dto.RoomAvailabilityResponse;
+import com.seva.entity.RoomInventory;
+import com.seva.repository.RoomInventoryRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * In-memory month view of the room ledger. A month is loaded with one query the first
+ * time it is asked for, then kept current by applying each committed reservation or
+ * release as a delta. Loaded months are reloaded periodically to pick up changes
+ * committed on other nodes.
+ * <p>
+ * Only the current month and the configured number of months after it are served, and at
+ * most {@code calendar-max-months} are held. Loading and reloading a month run as atomic
+ * computes on its cache entry, so a delta arriving meanwhile waits and is applied to the
+ * freshly loaded nights instead of being lost with the old ones.
+ */
+@Slf4j
+@Component
+public class RoomAvailabilityCalendar {
+
+    private record MonthKey(String guestHouse, YearMonth month) {
+    }
+
+    private record Night(int capacity, int reserved) {
+    }
+
+    private final RoomInventoryRepository roomInventoryRepository;
+    private final RoomInventoryProperties properties;
+    private final Cache<MonthKey, Map<LocalDate, Night>> months;
+
+    public RoomAvailabilityCalendar(RoomInventoryRepository roomInventoryRepository,
+            RoomInventoryProperties properties) {
+        this.roomInventoryRepository = roomInventoryRepository;
+        this.properties = properties;
+        this.months = Caffeine.newBuilder()
+                .maximumSize(properties.getCalendarMaxMonths())
+                .build();
+    }
+
+    /**
+     * @throws IllegalArgumentException if the month is outside the window the calendar covers
+     */
+    public RoomAvailabilityResponse getMonth(String guestHouse, YearMonth month) {
+        YearMonth current = YearMonth.now();
+        if (month.isBefore(current) || month.isAfter(current.plusMonths(properties.getCalendarMonthsAhead()))) {
+            throw new IllegalArgumentException("Availability is shown for the current month and the next "
+                    + properties.getCalendarMonthsAhead() + " months");
+        }
+        Map<LocalDate, Night> nights = months.get(new MonthKey(guestHouse, month), this::load);
+        List<RoomAvailabilityResponse.Day> days = new ArrayList<>(month.lengthOfMonth());
+        for (LocalDate date = month.atDay(1); !date.isAfter(month.atEndOfMonth()); date = date.plusDays(1)) {
+            Night night = nights.getOrDefault(date, new Night(properties.getDefaultCapacity(), 0));
+            days.add(new RoomAvailabilityResponse.Day(date, night.capacity(), night.reserved(),
+                    Math.max(0, night.capacity() - night.reserved())));
+        }
+        return new RoomAvailabilityResponse(guestHouse, month.toString(), days);
+    }
+
+    /**
+     * Applies a committed change in reserved rooms to every night in [checkIn, checkOut).
+     */
+    public void applyReservation(String guestHouse, LocalDate checkIn, LocalDate checkOut, int roomsDelta) {
+        for (LocalDate date = checkIn; date.isBefore(checkOut); date = date.plusDays(1)) {
+            LocalDate night = date;
+            apply(guestHouse, date, nights -> nights.compute(night, (d, current) -> {
+                Night base = current != null ? current : new Night(properties.getDefaultCapacity(), 0);
+                return new Night(base.capacity(), Math.max(0, base.reserved() + roomsDelta));
+            }));
+        }
+    }
+
+    public void applyCapacity(String guestHouse, LocalDate from, LocalDate to, int capacity) {
+        for (LocalDate date = from; !date.isAfter(to); date = date.plusDays(1)) {
+            LocalDate night = date;
+            apply(guestHouse, date, nights -> nights.compute(night,
+                    (d, current) -> new Night(capacity, current != null ? current.reserved() : 0)));
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${rooms.calendar-refresh-interval:1m}")
+    public void refresh() {
+        YearMonth current = YearMonth.now();
+        months.asMap().keySet().removeIf(key -> key.month().isBefore(current));
+        for (MonthKey key : new ArrayList<>(months.asMap().keySet())) {
+            try {
+                months.asMap().computeIfPresent(key, (k, stale) -> load(k));
+            } catch (Exception e) {
+                log.error("Failed to refresh room calendar {} {}: {}", key.guestHouse(), key.month(), e.getMessage());
+            }
+        }
+    }
+
+    // Runs on the month's entry while no load or reload of it is in progress; months not loaded are skipped
+    private void apply(String guestHouse, LocalDate date, Consumer<Map<LocalDate, Night>> change) {
+        months.asMap().computeIfPresent(new MonthKey(guestHouse, YearMonth.from(date)), (key, nights) -> {
+            change.accept(nights);
+            return nights;
+        });
+    }
+
+    private Map<LocalDate, Night> load(MonthKey key) {
+        Map<LocalDate, Night> nights = new ConcurrentHashMap<>();
+        for (RoomInventory row : roomInventoryRepository.findByGuestHouseAndStayDateBetween(key.guestHouse(),
+                key.month().atDay(1), key.month().atEndOfMonth())) {
+            nights.put(row.getStayDate(), new Night(row.getCapacity(), row.getReserved()));
+        }
+        return nights;
+    }
+}
@@ -0,0 +1,54 @@
+package com.seva.service;
+
+import com.seva.entity.RoomBooking;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Emails guests about room booking decisions once the decision has committed, off the
+ * request thread and as one batch per decision so bulk approvals share a mail connection.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class RoomBookingNotifier {
+
+    private final UserProfileCache userProfileCache;
+    private final EmailService emailService;
+
+    @Async("notificationExecutor")
+    @TransactionalEventListener
+    public void onStatusChanged(RoomBookingStatusChangedEvent event) {
+        RoomBooking.Status status = event.status();
+        List<SimpleMailMessage> messages = new ArrayList<>(event.bookings().size());
+        for (RoomBooking booking : event.bookings()) {
+            try {
+                userProfileCache.findByPhoneNumber(booking.getUserId()).ifPresent(user -> {
+                    if (user.getEmail() != null && !user.getEmail().isEmpty()) {
+                        SimpleMailMessage message = new SimpleMailMessage();
+                        message.setTo(user.getEmail());
+                        message.setSubject("Room Booking " + status);
+                        message.setText("Dear " + user.getFullName() + ",\n\n" +
+                                "Your room booking (ID: " + booking.getId() + ") has been " + status.name().toLowerCase() + ".\n" +
+                                "Check-in: " + booking.getCheckInDate() + "\n" +
+                                "Check-out: " + booking.getCheckOutDate() + "\n\n" +
+                                (status == RoomBooking.Status.APPROVED ? "We look forward to hosting you."
+                                        : "Please contact us for more information."));
+                        messages.add(message);
+                    }
+                });
+            } catch (Exception e) {
+                log.error("Failed to prepare booking status email for {}: {}", booking.getId(), e.getMessage());
+            }
+        }
+        emailService.sendEmails(messages);
+        log.debug("Queued {} room booking {} emails", messages.size(), status);
+    }
+}
@@ -0,0 +1,11 @@
+package com.seva.service;
+
+import com.seva.entity.RoomBooking;
+
+import java.util.List;
+
+/**
+ * Published inside the transaction that moves the given room bookings to a new status.
+ */
+public record RoomBookingStatusChangedEvent(RoomBooking.Status status, List<RoomBooking> bookings) {
+}
@@ -0,0 +1,9 @@
+package com.seva.service;
+
+import java.time.LocalDate;
+
+/**
+ * Published inside the transaction that frees rooms on the nights [from, to) of a guest house.
+ */
+public record RoomCapacityReleasedEvent(String guestHouse, LocalDate from, LocalDate to) {
+}
@@ -0,0 +1,94 @@
+package com.seva.service;
+
+import com.seva.config.RoomInventoryProperties;
+import com.seva.repository.RoomInventoryRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+
+@Service
+@RequiredArgsConstructor
+public class RoomInventoryService {
+
+    private final RoomInventoryRepository roomInventoryRepository;
+    private final RoomAvailabilityCalendar roomAvailabilityCalendar;
+    private final RoomInventoryProperties properties;
+    private final ApplicationEventPublisher eventPublisher;
+
+    /**
+     * @return the guest house named by a request, or the default one when none is named
+     * @throws IllegalArgumentException if the guest house is not configured
+     */
+    public String resolveGuestHouse(String guestHouse) {
+        if (guestHouse == null || guestHouse.isBlank() || guestHouse.equals(properties.getDefaultGuestHouse())) {
+            return properties.getDefaultGuestHouse();
+        }
+        if (!properties.getGuestHouses().contains(guestHouse)) {
+            throw new IllegalArgumentException("Unknown guest house");
+        }
+        return guestHouse;
+    }
+
+    /**
+     * Reserves the rooms on every night of the stay, or none of them. Must run inside the
+     * transaction that saves the booking so a failed save also returns the rooms.
+     *
+     * @return false, with nothing reserved, if any night lacks capacity
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public boolean tryReserve(String guestHouse, LocalDate checkIn, LocalDate checkOut, int rooms) {
+        validateStay(checkIn, checkOut, rooms);
+        roomInventoryRepository.ensureNights(guestHouse, checkIn, checkOut, properties.getDefaultCapacity());
+        int nights = (int) ChronoUnit.DAYS.between(checkIn, checkOut);
+        if (roomInventoryRepository.reserve(guestHouse, checkIn, checkOut, rooms) != nights) {
+            return false;
+        }
+        afterCommit(() -> roomAvailabilityCalendar.applyReservation(guestHouse, checkIn, checkOut, rooms));
+        return true;
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void release(String guestHouse, LocalDate checkIn, LocalDate checkOut, int rooms) {
+        roomInventoryRepository.release(guestHouse, checkIn, checkOut, rooms);
+        afterCommit(() -> roomAvailabilityCalendar.applyReservation(guestHouse, checkIn, checkOut, -rooms));
+        eventPublisher.publishEvent(new RoomCapacityReleasedEvent(guestHouse, checkIn, checkOut));
+    }
+
+    @Transactional
+    public void setCapacity(String guestHouse, LocalDate from, LocalDate to, int capacity) {
+        if (from == null || to == null || to.isBefore(from)) {
+            throw new IllegalArgumentException("Invalid date range");
+        }
+        if (capacity < 0) {
+            throw new IllegalArgumentException("Capacity cannot be negative");
+        }
+        roomInventoryRepository.setCapacity(guestHouse, from, to, capacity);
+        afterCommit(() -> roomAvailabilityCalendar.applyCapacity(guestHouse, from, to, capacity));
+        eventPublisher.publishEvent(new RoomCapacityReleasedEvent(guestHouse, from, to.plusDays(1)));
+    }
+
+    private static void validateStay(LocalDate checkIn, LocalDate checkOut, int rooms) {
+        if (checkIn == null || checkOut == null || !checkOut.isAfter(checkIn)) {
+            throw new IllegalArgumentException("Check-out date must be after check-in date");
+        }
+        if (rooms < 1) {
+            throw new IllegalArgumentException("At least one room is required");
+        }
+    }
+
+    private static void afterCommit(Runnable action) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
@@ -0,0 +1,118 @@
+package com.seva.service;
+
+import com.seva.config.RoomInventoryProperties;
+import com.seva.entity.RoomBooking;
+import com.seva.repository.RoomBookingRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Moves waitlisted room bookings into the normal review queue once rooms free up.
+ * Waiting bookings are re-checked in arrival order, one page at a time; each promotion
+ * claims the booking and reserves its rooms in one short transaction, so several nodes
+ * can promote concurrently without handing the same rooms out twice.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class RoomWaitlistPromoter {
+
+    private static final LocalDateTime QUEUE_START = LocalDateTime.of(1970, 1, 1, 0, 0);
+    private static final UUID FIRST_ID = new UUID(0L, 0L);
+
+    private final RoomBookingRepository roomBookingRepository;
+    private final RoomInventoryService roomInventoryService;
+    private final RoomInventoryProperties properties;
+    private final UserProfileCache userProfileCache;
+    private final EmailService emailService;
+    private final TransactionTemplate transactionTemplate;
+
+    @Async("waitlistExecutor")
+    @TransactionalEventListener
+    public void onCapacityReleased(RoomCapacityReleasedEvent event) {
+        promote(event.guestHouse(), event.from(), event.to());
+    }
+
+    @Scheduled(fixedDelayString = "${rooms.waitlist-sweep-interval:5m}", initialDelayString = "${rooms.waitlist-sweep-interval:5m}")
+    public void sweep() {
+        promote(null, LocalDate.now(), null);
+    }
+
+    /**
+     * Promotes every waitlisted booking overlapping [from, to) that now fits, first come first
+     * served. A booking that still does not fit keeps its place without blocking later, smaller ones.
+     */
+    public void promote(String guestHouse, LocalDate from, LocalDate to) {
+        List<RoomBooking> promoted = new ArrayList<>();
+        LocalDateTime afterCreatedAt = QUEUE_START;
+        UUID afterId = FIRST_ID;
+        try {
+            List<RoomBooking> page;
+            do {
+                page = roomBookingRepository.findWaitlistPage(guestHouse, from, to, afterCreatedAt, afterId,
+                        properties.getWaitlistBatchSize());
+                for (RoomBooking booking : page) {
+                    if (tryPromote(booking)) {
+                        promoted.add(booking);
+                    }
+                }
+                if (!page.isEmpty()) {
+                    RoomBooking last = page.get(page.size() - 1);
+                    afterCreatedAt = last.getCreatedAt();
+                    afterId = last.getId();
+                }
+            } while (page.size() == properties.getWaitlistBatchSize());
+        } catch (Exception e) {
+            log.error("Waitlist promotion for {} {}..{} stopped: {}", guestHouse, from, to, e.getMessage());
+        }
+
+        if (!promoted.isEmpty()) {
+            log.info("Promoted {} room bookings off the waitlist", promoted.size());
+            promoted.forEach(this::notifyPromoted);
+        }
+    }
+
+    private boolean tryPromote(RoomBooking booking) {
+        Boolean done = transactionTemplate.execute(status -> {
+            if (roomBookingRepository.claimFromWaitlist(booking.getId()) == 0) {
+                return false; // Promoted elsewhere or decided by an admin meanwhile
+            }
+            if (!roomInventoryService.tryReserve(booking.getGuestHouse(), booking.getCheckInDate(),
+                    booking.getCheckOutDate(), booking.getNumberOfRooms())) {
+                status.setRollbackOnly();
+                return false;
+            }
+            return true;
+        });
+        return Boolean.TRUE.equals(done);
+    }
+
+    private void notifyPromoted(RoomBooking booking) {
+        try {
+            userProfileCache.findByPhoneNumber(booking.getUserId()).ifPresent(user -> {
+                if (user.getEmail() != null && !user.getEmail().isEmpty()) {
+                    String subject = "Room Booking Off the Waitlist";
+                    String body = "Dear " + user.getFullName() + ",\n\n" +
+                            "Rooms have become available for your waitlisted booking (ID: " + booking.getId() + ").\n" +
+                            "Check-in: " + booking.getCheckInDate() + "\n" +
+                            "Check-out: " + booking.getCheckOutDate() + "\n\n" +
+                            "The rooms are now held for you and your request is awaiting confirmation.";
+                    emailService.sendEmail(user.getEmail(), subject, body);
+                }
+            });
+        } catch (Exception e) {
+            log.error("Failed to send waitlist promotion email: {}", e.getMessage());
+        }
+    }
+}
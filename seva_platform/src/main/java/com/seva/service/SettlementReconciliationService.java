@@ -0,0 +1,267 @@
+package com.seva.service;
+
+import com.seva.config.PaymentProperties;
+import com.seva.entity.SevaBooking;
+import com.seva.repository.SevaBookingRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Checks a Razorpay settlement report against seva bookings. The report is read one line at
+ * a time and rows are looked up a batch at a time by payment id, while mismatches are
+ * written out as they are found, so memory use does not depend on the size of the report.
+ * <p>
+ * Payment rows must belong to a confirmed, paid booking for the same amount (a booking
+ * refunded since is also fine); refund rows must belong to a refunded booking. Other row
+ * types, such as adjustments, are skipped.
+ */
+@Slf4j
+@Service
+public class SettlementReconciliationService {
+
+    public record Summary(long rows, long matched, long missing, long amountMismatches, long statusMismatches,
+            long skipped, long malformed) {
+    }
+
+    private record SettlementRow(long line, String type, String paymentId, BigDecimal amount) {
+    }
+
+    private static final String REPORT_HEADER = "issue,line,type,payment_id,settlement_amount,booking_id,"
+            + "booking_amount,booking_status,booking_payment_status";
+
+    private final SevaBookingRepository sevaBookingRepository;
+    private final int batchSize;
+
+    public SettlementReconciliationService(SevaBookingRepository sevaBookingRepository,
+            PaymentProperties paymentProperties) {
+        this.sevaBookingRepository = sevaBookingRepository;
+        this.batchSize = paymentProperties.getSettlement().getBatchSize();
+    }
+
+    /**
+     * Column positions found in a report's header line.
+     */
+    public record Columns(Integer type, Integer entityId, Integer paymentId, Integer amount) {
+    }
+
+    /**
+     * Reads and checks the header line, leaving {@code in} at the first data row. Throws
+     * IllegalArgumentException if the report is empty or lacks the columns needed to match rows.
+     */
+    public Columns readHeader(BufferedReader in) throws IOException {
+        String headerLine = in.readLine();
+        if (headerLine == null) {
+            throw new IllegalArgumentException("Settlement report is empty");
+        }
+        Map<String, Integer> columns = new HashMap<>();
+        List<String> header = parseLine(headerLine.replace("\uFEFF", ""));
+        for (int i = 0; i < header.size(); i++) {
+            columns.putIfAbsent(header.get(i).trim().toLowerCase(Locale.ROOT), i);
+        }
+        Columns found = new Columns(columns.get("type"), columns.get("entity_id"), columns.get("payment_id"),
+                columns.get("amount"));
+        if (found.entityId() == null && found.paymentId() == null || found.amount() == null) {
+            throw new IllegalArgumentException("Settlement report needs entity_id or payment_id, and amount columns");
+        }
+        return found;
+    }
+
+    /**
+     * Reads the report from {@code in} and writes the mismatch report as CSV to {@code out},
+     * ending with a summary line. Throws IllegalArgumentException if the header is unusable.
+     */
+    public Summary reconcile(BufferedReader in, Writer out) throws IOException {
+        return reconcile(readHeader(in), in, out);
+    }
+
+    /**
+     * Like {@link #reconcile(BufferedReader, Writer)}, for a report whose header was already
+     * read with {@link #readHeader}.
+     */
+    public Summary reconcile(Columns columns, BufferedReader in, Writer out) throws IOException {
+        Integer typeColumn = columns.type();
+        Integer entityColumn = columns.entityId();
+        Integer paymentColumn = columns.paymentId();
+        Integer amountColumn = columns.amount();
+
+        Counts counts = new Counts();
+        out.write(REPORT_HEADER);
+        out.write('\n');
+
+        List<SettlementRow> batch = new ArrayList<>(batchSize);
+        String line;
+        long lineNumber = 1;
+        while ((line = in.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+            counts.rows++;
+            List<String> fields = parseLine(line);
+            String type = typeColumn != null ? field(fields, typeColumn).toLowerCase(Locale.ROOT) : "payment";
+            if (!type.equals("payment") && !type.equals("refund")) {
+                counts.skipped++;
+                continue;
+            }
+            // A refund row's entity_id is the refund; the payment it belongs to is in payment_id
+            String paymentId = type.equals("refund") || entityColumn == null
+                    ? field(fields, paymentColumn)
+                    : field(fields, entityColumn);
+            BigDecimal amount = parseAmount(field(fields, amountColumn));
+            if (paymentId.isEmpty() || amount == null) {
+                counts.malformed++;
+                writeRow(out, "MALFORMED", lineNumber, type, paymentId, field(fields, amountColumn), null);
+                continue;
+            }
+            batch.add(new SettlementRow(lineNumber, type, paymentId, amount));
+            if (batch.size() == batchSize) {
+                checkBatch(batch, out, counts);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            checkBatch(batch, out, counts);
+        }
+
+        Summary summary = new Summary(counts.rows, counts.matched, counts.missing, counts.amountMismatches,
+                counts.statusMismatches, counts.skipped, counts.malformed);
+        out.write("# " + summary + '\n');
+        out.flush();
+        log.info("Settlement reconciliation finished: {}", summary);
+        return summary;
+    }
+
+    private void checkBatch(List<SettlementRow> batch, Writer out, Counts counts) throws IOException {
+        Set<String> paymentIds = new LinkedHashSet<>();
+        batch.forEach(row -> paymentIds.add(row.paymentId()));
+        Map<String, SevaBookingRepository.SettledBooking> bookings = sevaBookingRepository
+                .findSettledByPaymentIds(paymentIds).stream()
+                .collect(Collectors.toMap(SevaBookingRepository.SettledBooking::getPaymentId, Function.identity(),
+                        (a, b) -> a));
+
+        for (SettlementRow row : batch) {
+            SevaBookingRepository.SettledBooking booking = bookings.get(row.paymentId());
+            if (booking == null) {
+                counts.missing++;
+                writeRow(out, "MISSING", row.line(), row.type(), row.paymentId(), row.amount().toPlainString(), null);
+            } else if (row.type().equals("payment") && booking.getAmount() != null
+                    && row.amount().compareTo(booking.getAmount()) != 0) {
+                counts.amountMismatches++;
+                writeRow(out, "AMOUNT_DIFFERS", row.line(), row.type(), row.paymentId(),
+                        row.amount().toPlainString(), booking);
+            } else if (!statusMatches(row, booking)) {
+                counts.statusMismatches++;
+                writeRow(out, "STATUS_DIFFERS", row.line(), row.type(), row.paymentId(),
+                        row.amount().toPlainString(), booking);
+            } else {
+                counts.matched++;
+            }
+        }
+    }
+
+    private static boolean statusMatches(SettlementRow row, SevaBookingRepository.SettledBooking booking) {
+        if (row.type().equals("refund")) {
+            return booking.getPaymentStatus() == SevaBooking.PaymentStatus.REFUNDED;
+        }
+        return booking.getPaymentStatus() == SevaBooking.PaymentStatus.REFUNDED
+                || booking.getPaymentStatus() == SevaBooking.PaymentStatus.PAID
+                        && booking.getStatus() == SevaBooking.BookingStatus.CONFIRMED;
+    }
+
+    private static void writeRow(Writer out, String issue, long line, String type, String paymentId,
+            String settlementAmount, SevaBookingRepository.SettledBooking booking) throws IOException {
+        StringBuilder sb = new StringBuilder(128)
+                .append(issue).append(',')
+                .append(line).append(',')
+                .append(escape(type)).append(',')
+                .append(escape(paymentId)).append(',')
+                .append(escape(settlementAmount)).append(',');
+        if (booking != null) {
+            sb.append(booking.getId()).append(',')
+                    .append(booking.getAmount() != null ? booking.getAmount().toPlainString() : "").append(',')
+                    .append(booking.getStatus() != null ? booking.getStatus() : "").append(',')
+                    .append(booking.getPaymentStatus() != null ? booking.getPaymentStatus() : "");
+        } else {
+            sb.append(",,,");
+        }
+        out.write(sb.append('\n').toString());
+    }
+
+    private static String field(List<String> fields, Integer column) {
+        return column != null && column < fields.size() ? fields.get(column).trim() : "";
+    }
+
+    private static BigDecimal parseAmount(String value) {
+        try {
+            return value.isEmpty() ? null : new BigDecimal(value.replace(",", ""));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Splits one CSV line, honouring double-quoted fields and doubled quotes inside them.
+     * Settlement reports do not put line breaks inside fields, so records never span lines.
+     */
+    private static List<String> parseLine(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    current.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    current.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(current.toString());
+                current.setLength(0);
+            } else {
+                current.append(c);
+            }
+        }
+        fields.add(current.toString());
+        return fields;
+    }
+
+    private static String escape(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+
+    private static class Counts {
+        long rows;
+        long matched;
+        long missing;
+        long amountMismatches;
+        long statusMismatches;
+        long skipped;
+        long malformed;
+    }
+}
@@ -0,0 +1,206 @@
+package com.seva.service;
+
+import com.seva.config.AdmissionProperties;
+import com.seva.dto.QueueTicketResponse;
+import com.seva.exception.AdmissionDeniedException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Virtual waiting room in front of seva booking initiation. During a surge, devotees
+ * take a ticket and are admitted first-come-first-served at a fixed rate; only an
+ * admitted ticket can be spent on /api/bookings/seva/initiate. Issuing, polling and
+ * admitting are all in memory, so waiting clients never touch the database.
+ * <p>
+ * The room is per node; with several nodes, set admits-per-second to the node's share.
+ * Admission ticks run on a thread of their own rather than Spring's shared scheduler, so
+ * slow scheduled jobs (sweeps, reconcilers, the refund worker) never stall the queue.
+ */
+@Slf4j
+@Service
+public class SevaAdmissionService {
+
+    private static final long TICK_MILLIS = 100;
+
+    private final AdmissionProperties properties;
+    private final ScheduledExecutorService ticker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "seva-admission");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final AtomicLong lastIssued = new AtomicLong();
+    private final Queue<Ticket> waiting = new ConcurrentLinkedQueue<>();
+    private final Map<String, Ticket> tickets = new ConcurrentHashMap<>();
+    private final Map<String, Ticket> ticketsByPhone = new ConcurrentHashMap<>();
+
+    // Written only by the admission tick
+    private volatile long admittedThrough;
+    private double admitBudget;
+
+    private final Counter admitted;
+    private final Counter consumed;
+    private final Counter expired;
+
+    private static final class Ticket {
+        private final String id = UUID.randomUUID().toString();
+        private final String phoneNumber;
+        private final long sequence;
+        private volatile long lastSeenMillis = System.currentTimeMillis();
+        private volatile long admittedAtMillis;
+        private volatile boolean abandoned;
+
+        private Ticket(String phoneNumber, long sequence) {
+            this.phoneNumber = phoneNumber;
+            this.sequence = sequence;
+        }
+    }
+
+    public SevaAdmissionService(AdmissionProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        meterRegistry.gauge("admission.seva.waiting", waiting, Queue::size);
+        this.admitted = meterRegistry.counter("admission.seva.tickets", "result", "admitted");
+        this.consumed = meterRegistry.counter("admission.seva.tickets", "result", "consumed");
+        this.expired = meterRegistry.counter("admission.seva.tickets", "result", "expired");
+    }
+
+    @PostConstruct
+    public void start() {
+        ticker.scheduleAtFixedRate(() -> {
+            try {
+                admit();
+            } catch (RuntimeException e) {
+                // An exception would cancel the fixed-rate task for good
+                log.error("Seva admission tick failed: {}", e.getMessage());
+            }
+        }, TICK_MILLIS, TICK_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        ticker.shutdownNow();
+    }
+
+    public boolean isEnabled() {
+        return properties.isEnabled();
+    }
+
+    /**
+     * Issues a ticket for the caller, or returns their existing one so refreshing the app keeps their place.
+     */
+    public QueueTicketResponse issue(String phoneNumber) {
+        Ticket ticket = ticketsByPhone.computeIfAbsent(phoneNumber, phone -> {
+            if (waiting.size() >= properties.getMaxWaiting()) {
+                throw new AdmissionDeniedException("The booking queue is full, please try again later", 30);
+            }
+            Ticket created = new Ticket(phone, lastIssued.incrementAndGet());
+            tickets.put(created.id, created);
+            waiting.add(created);
+            return created;
+        });
+        return toResponse(ticket);
+    }
+
+    public QueueTicketResponse status(String ticketId, String phoneNumber) {
+        Ticket ticket = find(ticketId, phoneNumber);
+        ticket.lastSeenMillis = System.currentTimeMillis();
+        return toResponse(ticket);
+    }
+
+    /**
+     * Spends an admitted ticket. No-op when the waiting room is disabled.
+     */
+    public void consume(String ticketId, String phoneNumber) {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        if (ticketId == null) {
+            throw new AdmissionDeniedException("A queue ticket is required to book a seva right now", 1);
+        }
+        Ticket ticket = find(ticketId, phoneNumber);
+        if (ticket.admittedAtMillis == 0) {
+            QueueTicketResponse status = toResponse(ticket);
+            throw new AdmissionDeniedException("Your turn has not come yet (position " + status.getPosition() + ")",
+                    Math.max(1, status.getEstimatedWaitSeconds()));
+        }
+        if (tickets.remove(ticket.id, ticket)) {
+            ticketsByPhone.remove(ticket.phoneNumber, ticket);
+            consumed.increment();
+        } else {
+            throw new AdmissionDeniedException("Queue ticket has already been used", 1);
+        }
+    }
+
+    /**
+     * One admission tick; runs every {@value #TICK_MILLIS} ms on the admission thread.
+     */
+    public void admit() {
+        double perSecond = properties.getAdmitsPerSecond();
+        // Unused budget is capped at one second's worth, so an idle room admits at most one burst
+        admitBudget = Math.min(admitBudget + perSecond * TICK_MILLIS / 1000.0, Math.max(1, perSecond));
+        long now = System.currentTimeMillis();
+        while (admitBudget >= 1) {
+            Ticket next = waiting.poll();
+            if (next == null) {
+                return;
+            }
+            if (next.abandoned) {
+                continue;
+            }
+            next.admittedAtMillis = now;
+            admittedThrough = next.sequence;
+            admitBudget -= 1;
+            admitted.increment();
+        }
+    }
+
+    @Scheduled(fixedDelay = 10_000)
+    public void expireTickets() {
+        long now = System.currentTimeMillis();
+        long idleCutoff = now - properties.getIdleTimeout().toMillis();
+        long admissionCutoff = now - properties.getAdmissionWindow().toMillis();
+        tickets.values().removeIf(ticket -> {
+            boolean stale = ticket.admittedAtMillis == 0
+                    ? ticket.lastSeenMillis < idleCutoff
+                    : ticket.admittedAtMillis < admissionCutoff;
+            if (stale) {
+                ticket.abandoned = true;
+                ticketsByPhone.remove(ticket.phoneNumber, ticket);
+                expired.increment();
+            }
+            return stale;
+        });
+    }
+
+    private Ticket find(String ticketId, String phoneNumber) {
+        Ticket ticket = tickets.get(ticketId);
+        if (ticket == null || !ticket.phoneNumber.equals(phoneNumber)) {
+            throw new IllegalArgumentException("Unknown or expired queue ticket");
+        }
+        return ticket;
+    }
+
+    private QueueTicketResponse toResponse(Ticket ticket) {
+        if (ticket.admittedAtMillis != 0) {
+            return new QueueTicketResponse(ticket.id, true, 0, 0);
+        }
+        long position = Math.max(1, ticket.sequence - admittedThrough);
+        long waitSeconds = (long) Math.ceil(position / Math.max(0.001, properties.getAdmitsPerSecond()));
+        return new QueueTicketResponse(ticket.id, false, position, waitSeconds);
+    }
+}
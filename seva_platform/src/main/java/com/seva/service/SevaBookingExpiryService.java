@@ -0,0 +1,100 @@
+package com.seva.service;
+
+import com.seva.config.SevaBookingProperties;
+import com.seva.repository.SevaBookingRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Cancels seva bookings that were never paid: checkouts abandoned while PENDING and payments
+ * that FAILED without a later success, once older than the configured timeout. Works oldest first in bounded batches; each batch locks its rows
+ * with SKIP LOCKED, cancels them with one UPDATE and gives their quota back in the same
+ * transaction, so several nodes can sweep at once without touching the same rows.
+ */
+@Slf4j
+@Service
+public class SevaBookingExpiryService {
+
+    private record QuotaDay(UUID sevaId, LocalDate date, int dailyQuota) {
+    }
+
+    private final SevaBookingRepository sevaBookingRepository;
+    private final SevaQuotaService sevaQuotaService;
+    private final SevaBookingProperties.PendingExpiry properties;
+    private final TransactionTemplate transactionTemplate;
+    private final Counter expiredCounter;
+    private final DistributionSummary rowsPerRun;
+
+    public SevaBookingExpiryService(SevaBookingRepository sevaBookingRepository, SevaQuotaService sevaQuotaService,
+            SevaBookingProperties properties, TransactionTemplate transactionTemplate, MeterRegistry meterRegistry) {
+        this.sevaBookingRepository = sevaBookingRepository;
+        this.sevaQuotaService = sevaQuotaService;
+        this.properties = properties.getPendingExpiry();
+        this.transactionTemplate = transactionTemplate;
+        this.expiredCounter = Counter.builder("seva.bookings.expired")
+                .description("Unpaid seva bookings cancelled by the expiry sweeper")
+                .register(meterRegistry);
+        this.rowsPerRun = DistributionSummary.builder("seva.bookings.expiry.rows")
+                .description("Bookings cancelled per sweeper run")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${sevas.pending-expiry.sweep-interval:5m}", initialDelayString = "${sevas.pending-expiry.sweep-interval:5m}")
+    public void sweep() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(properties.getTimeout());
+        int total = 0;
+        try {
+            for (int batch = 0; batch < properties.getMaxBatchesPerRun(); batch++) {
+                int cancelled = expireBatch(cutoff);
+                total += cancelled;
+                if (cancelled < properties.getBatchSize()) {
+                    break;
+                }
+            }
+        } catch (Exception e) {
+            log.error("Seva booking expiry sweep stopped after {} rows: {}", total, e.getMessage());
+        }
+        rowsPerRun.record(total);
+        if (total > 0) {
+            log.info("Cancelled {} abandoned seva bookings created before {}", total, cutoff);
+        }
+    }
+
+    private int expireBatch(LocalDateTime cutoff) {
+        Integer cancelled = transactionTemplate.execute(status -> {
+            List<SevaBookingRepository.ExpiringBooking> rows = sevaBookingRepository
+                    .lockExpiredUnpaid(cutoff, properties.getBatchSize());
+            if (rows.isEmpty()) {
+                return 0;
+            }
+            int updated = sevaBookingRepository.cancelUnpaid(rows.stream()
+                    .map(SevaBookingRepository.ExpiringBooking::getId).toList());
+
+            // One release per seva and date rather than one per booking
+            Map<QuotaDay, Integer> held = new HashMap<>();
+            for (SevaBookingRepository.ExpiringBooking row : rows) {
+                if (row.getDailyQuota() != null && row.getSevaDate() != null) {
+                    held.merge(new QuotaDay(row.getSevaId(), row.getSevaDate().toLocalDate(), row.getDailyQuota()),
+                            1, Integer::sum);
+                }
+            }
+            held.forEach((day, count) -> sevaQuotaService.releaseHeld(day.sevaId(), day.date(), day.dailyQuota(), count));
+            return updated;
+        });
+        int rows = cancelled != null ? cancelled : 0;
+        expiredCounter.increment(rows);
+        return rows;
+    }
+}
@@ -0,0 +1,9 @@
+package com.seva.service;
+
+import com.seva.entity.SevaCancellationJob;
+
+/**
+ * Published once per cancellation job, when its last refund has been issued or given up on.
+ */
+public record SevaCancellationJobCompletedEvent(SevaCancellationJob job) {
+}
@@ -0,0 +1,99 @@
+package com.seva.service;
+
+import com.seva.entity.SevaBooking;
+import com.seva.entity.SevaCancellationJob;
+import com.seva.repository.SevaBookingRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Emails devotees when their seva is called off and again when their refund is issued, and
+ * tells the requesting admin when a cancellation job has finished. Runs after the change
+ * has committed, off the caller's thread, one mail batch per event.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class SevaCancellationNotifier {
+
+    private final SevaBookingRepository sevaBookingRepository;
+    private final UserProfileCache userProfileCache;
+    private final EmailService emailService;
+
+    @Async("notificationExecutor")
+    @TransactionalEventListener
+    public void onSevaCancelled(SevaCancelledEvent event) {
+        List<SimpleMailMessage> messages = new ArrayList<>(event.bookings().size());
+        for (SevaBookingRepository.CancelledBooking booking : event.bookings()) {
+            if (booking.getEmail() == null || booking.getEmail().isEmpty()) {
+                continue;
+            }
+            boolean paid = booking.getPaymentStatus() == SevaBooking.PaymentStatus.PAID;
+            SimpleMailMessage message = new SimpleMailMessage();
+            message.setTo(booking.getEmail());
+            message.setSubject("Seva Cancelled - " + event.seva().getTitleEnglish());
+            message.setText("Dear " + booking.getDevoteeName() + ",\n\n" +
+                    "We regret that " + event.seva().getTitleEnglish() + " on " + event.date() +
+                    " has been called off" + (event.reason() != null ? " (" + event.reason() + ")" : "") + ".\n" +
+                    "Booking ID: " + booking.getId() + "\n\n" +
+                    (paid ? "Your payment will be refunded in full. We will write again once the refund is issued."
+                            : "No payment was taken for this booking."));
+            messages.add(message);
+        }
+        emailService.sendEmails(messages);
+        log.debug("Queued {} seva cancellation emails", messages.size());
+    }
+
+    @Async("notificationExecutor")
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRefundsIssued(SevaRefundsIssuedEvent event) {
+        List<SimpleMailMessage> messages = new ArrayList<>(event.bookingIds().size());
+        for (SevaBooking booking : sevaBookingRepository.findAllById(event.bookingIds())) {
+            String email = booking.getUser() != null ? booking.getUser().getEmail() : null;
+            if (email == null || email.isEmpty()) {
+                continue;
+            }
+            SimpleMailMessage message = new SimpleMailMessage();
+            message.setTo(email);
+            message.setSubject("Seva Refund Issued - " + booking.getSeva().getTitleEnglish());
+            message.setText("Dear " + booking.getDevoteeName() + ",\n\n" +
+                    "A refund of " + booking.getAmountPaid() + " for your seva booking (ID: " + booking.getId() +
+                    ") has been issued. It usually reaches your account within 5-7 working days.");
+            messages.add(message);
+        }
+        emailService.sendEmails(messages);
+        log.debug("Queued {} seva refund emails", messages.size());
+    }
+
+    @Async("notificationExecutor")
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onJobCompleted(SevaCancellationJobCompletedEvent event) {
+        SevaCancellationJob job = event.job();
+        log.info("Seva cancellation job {} finished as {}", job.getId(), job.getStatus());
+        if (job.getRequestedBy() == null) {
+            return;
+        }
+        userProfileCache.findByPhoneNumber(job.getRequestedBy()).ifPresent(admin -> {
+            if (admin.getEmail() == null || admin.getEmail().isEmpty()) {
+                return;
+            }
+            SimpleMailMessage message = new SimpleMailMessage();
+            message.setTo(admin.getEmail());
+            message.setSubject("Seva cancellation " + job.getStatus().name().toLowerCase().replace('_', ' '));
+            message.setText("Cancellation job " + job.getId() + " for " + job.getSevaDate() + " has finished.\n" +
+                    "Bookings cancelled: " + job.getBookingsCancelled() + "\n" +
+                    "Refunds queued: " + job.getRefundsQueued() + "\n" +
+                    (job.getStatus() == SevaCancellationJob.Status.COMPLETED_WITH_FAILURES
+                            ? "Some refunds failed; see the job in the admin panel."
+                            : "All refunds were issued."));
+            emailService.sendEmails(List.of(message));
+        });
+    }
+}
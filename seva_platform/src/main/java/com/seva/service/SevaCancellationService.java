@@ -0,0 +1,105 @@
+package com.seva.service;
+
+import com.seva.dto.SevaCancellationJobResponse;
+import com.seva.entity.Seva;
+import com.seva.entity.SevaCancellationJob;
+import com.seva.entity.SevaRefund;
+import com.seva.repository.SevaBookingRepository;
+import com.seva.repository.SevaCancellationJobRepository;
+import com.seva.repository.SevaRefundRepository;
+import com.seva.repository.SevaRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Calls off a seva on one date. A single transaction locks the day's live bookings, queues
+ * a refund for each paid one, cancels them all with one UPDATE and closes the date's quota.
+ * The refunds themselves are issued afterwards by {@link SevaRefundWorker}.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class SevaCancellationService {
+
+    private final SevaRepository sevaRepository;
+    private final SevaBookingRepository sevaBookingRepository;
+    private final SevaRefundRepository sevaRefundRepository;
+    private final SevaCancellationJobRepository jobRepository;
+    private final SevaQuotaService sevaQuotaService;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Transactional
+    public SevaCancellationJobResponse cancel(UUID sevaId, LocalDate date, String reason, String requestedBy) {
+        Seva seva = sevaRepository.findById(sevaId).orElseThrow(() -> new RuntimeException("Seva not found"));
+        LocalDateTime dayStart = date.atStartOfDay();
+        LocalDateTime dayEnd = date.plusDays(1).atStartOfDay();
+        LocalDateTime now = LocalDateTime.now();
+
+        SevaCancellationJob job = new SevaCancellationJob();
+        job.setSevaId(sevaId);
+        job.setSevaDate(date);
+        job.setReason(reason);
+        job.setRequestedBy(requestedBy);
+        job = jobRepository.saveAndFlush(job);
+
+        List<SevaBookingRepository.CancelledBooking> bookings = sevaBookingRepository.lockCancellable(sevaId,
+                dayStart, dayEnd);
+        int refunds = sevaRefundRepository.enqueueForSeva(job.getId(), sevaId, dayStart, dayEnd, now);
+        int cancelled = sevaBookingRepository.cancelForSeva(sevaId, dayStart, dayEnd);
+        if (seva.getDailyQuota() != null) {
+            // No new bookings for the day; sevas without a quota stay bookable until deactivated
+            sevaQuotaService.setLimit(sevaId, date, 0);
+        }
+
+        job.setBookingsCancelled(cancelled);
+        job.setRefundsQueued(refunds);
+        if (refunds == 0) {
+            job.setStatus(SevaCancellationJob.Status.COMPLETED);
+            job.setCompletedAt(now);
+            eventPublisher.publishEvent(new SevaCancellationJobCompletedEvent(job));
+        }
+        job = jobRepository.save(job);
+
+        eventPublisher.publishEvent(new SevaCancelledEvent(seva, date, reason, bookings));
+        log.info("Seva {} on {} called off by {}: {} bookings cancelled, {} refunds queued", sevaId, date,
+                requestedBy, cancelled, refunds);
+        return toResponse(job);
+    }
+
+    @Transactional(readOnly = true)
+    public SevaCancellationJobResponse getJob(UUID jobId) {
+        return jobRepository.findById(jobId).map(this::toResponse)
+                .orElseThrow(() -> new RuntimeException("Cancellation job not found"));
+    }
+
+    private SevaCancellationJobResponse toResponse(SevaCancellationJob job) {
+        SevaCancellationJobResponse response = new SevaCancellationJobResponse();
+        response.setId(job.getId());
+        response.setSevaId(job.getSevaId());
+        response.setSevaDate(job.getSevaDate());
+        response.setReason(job.getReason());
+        response.setStatus(job.getStatus());
+        response.setBookingsCancelled(job.getBookingsCancelled());
+        response.setRefundsQueued(job.getRefundsQueued());
+        response.setCreatedAt(job.getCreatedAt());
+        response.setCompletedAt(job.getCompletedAt());
+        for (SevaRefundRepository.StatusCount count : sevaRefundRepository.countByStatus(job.getId())) {
+            if (count.getStatus() == SevaRefund.Status.PENDING) {
+                response.setRefundsPending(count.getCount());
+            } else if (count.getStatus() == SevaRefund.Status.REFUNDED) {
+                response.setRefundsIssued(count.getCount());
+            } else if (count.getStatus() == SevaRefund.Status.FAILED) {
+                response.setRefundsFailed(count.getCount());
+            }
+        }
+        return response;
+    }
+}
@@ -0,0 +1,14 @@
+package com.seva.service;
+
+import com.seva.entity.Seva;
+import com.seva.repository.SevaBookingRepository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Published inside the transaction that calls off a seva on a date and cancels its bookings.
+ */
+public record SevaCancelledEvent(Seva seva, LocalDate date, String reason,
+        List<SevaBookingRepository.CancelledBooking> bookings) {
+}
@@ -0,0 +1,110 @@
+package com.seva.service;
+
+import com.seva.entity.Seva;
+import com.seva.repository.SevaQuotaRepository;
+import com.seva.repository.SevaRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * Per-seva, per-date booking quotas. Taking a booking is a single conditional UPDATE on the
+ * day's counter row, committed in its own short transaction, so no lock is held while the
+ * caller talks to the payment gateway. Callers give the booking back with {@link #release}
+ * if the booking does not go ahead.
+ */
+@Service
+@RequiredArgsConstructor
+public class SevaQuotaService {
+
+    private final SevaQuotaRepository sevaQuotaRepository;
+    private final SevaRepository sevaRepository;
+    private final SevaQuotaView sevaQuotaView;
+
+    /**
+     * @return false when the seva is fully booked on that date; always true for sevas without a quota
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public boolean tryConsume(Seva seva, LocalDate date) {
+        Integer quota = seva.getDailyQuota();
+        if (quota == null) {
+            return true;
+        }
+        sevaQuotaRepository.ensureDay(seva.getId(), date, quota);
+        if (sevaQuotaRepository.consume(seva.getId(), date) == 0) {
+            return false;
+        }
+        afterCommit(() -> sevaQuotaView.applyUsage(seva.getId(), date, quota, 1));
+        return true;
+    }
+
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void release(Seva seva, LocalDate date) {
+        if (seva.getDailyQuota() == null) {
+            return;
+        }
+        sevaQuotaRepository.release(seva.getId(), date, 1);
+        afterCommit(() -> sevaQuotaView.applyUsage(seva.getId(), date, seva.getDailyQuota(), -1));
+    }
+
+    /**
+     * Gives back several bookings at once inside the caller's transaction, e.g. when expired
+     * bookings are cancelled in bulk.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void releaseHeld(UUID sevaId, LocalDate date, int dailyQuota, int count) {
+        sevaQuotaRepository.release(sevaId, date, count);
+        afterCommit(() -> sevaQuotaView.applyUsage(sevaId, date, dailyQuota, -count));
+    }
+
+    /**
+     * Sets the default number of bookings per date, or removes the limit when quota is null.
+     * Future dates that were not overridden individually follow the new default.
+     */
+    @Transactional
+    public Seva setDailyQuota(UUID sevaId, Integer quota) {
+        if (quota != null && quota < 0) {
+            throw new IllegalArgumentException("Quota cannot be negative");
+        }
+        Seva seva = sevaRepository.findById(sevaId).orElseThrow(() -> new RuntimeException("Seva not found"));
+        Integer previous = seva.getDailyQuota();
+        if (previous != null && quota != null) {
+            sevaQuotaRepository.updateDefaultLimit(sevaId, previous, quota);
+        }
+        seva.setDailyQuota(quota);
+        Seva saved = sevaRepository.save(seva);
+        afterCommit(sevaQuotaView::invalidate);
+        return saved;
+    }
+
+    /**
+     * Overrides the limit for one date, e.g. for a festival or a day the priests are away.
+     */
+    @Transactional
+    public void setLimit(UUID sevaId, LocalDate date, int limit) {
+        if (limit < 0) {
+            throw new IllegalArgumentException("Quota cannot be negative");
+        }
+        Seva seva = sevaRepository.findById(sevaId).orElseThrow(() -> new RuntimeException("Seva not found"));
+        if (seva.getDailyQuota() == null) {
+            throw new IllegalArgumentException("Set a daily quota for this seva before overriding single dates");
+        }
+        sevaQuotaRepository.setLimit(sevaId, date, limit);
+        afterCommit(() -> sevaQuotaView.applyLimit(sevaId, date, limit));
+    }
+
+    private static void afterCommit(Runnable action) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
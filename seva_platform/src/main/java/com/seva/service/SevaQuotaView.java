@@ -0,0 +1,85 @@
+package com.seva.service;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.seva.config.SevaBookingProperties;
+import com.seva.entity.Seva;
+import com.seva.entity.SevaQuota;
+import com.seva.repository.SevaQuotaRepository;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory remaining-count view of the seva quotas, for display only. A date is loaded
+ * with one query the first time it is asked for, kept current by applying committed
+ * bookings and releases as deltas, and reloaded in the background once it is older than
+ * the refresh interval to pick up other nodes. Dates come from an anonymous query
+ * parameter, so the view is bounded: dates nobody asked for recently are dropped, and
+ * only a limited number are held at once.
+ * Reservations themselves always go through the counter row in the database.
+ */
+@Component
+public class SevaQuotaView {
+
+    private record Day(int limit, int used) {
+    }
+
+    private final SevaQuotaRepository sevaQuotaRepository;
+    private final LoadingCache<LocalDate, Map<UUID, Day>> dates;
+
+    public SevaQuotaView(SevaQuotaRepository sevaQuotaRepository, SevaBookingProperties properties) {
+        this.sevaQuotaRepository = sevaQuotaRepository;
+        this.dates = Caffeine.newBuilder()
+                .maximumSize(properties.getQuotaView().getMaxDates())
+                .expireAfterAccess(properties.getQuotaView().getIdleExpiry())
+                .refreshAfterWrite(properties.getQuotaView().getRefreshInterval())
+                .build(this::load);
+    }
+
+    /**
+     * @return bookings still available for the seva on the date, or null when the seva has no quota
+     */
+    public Integer remaining(Seva seva, LocalDate date) {
+        if (seva.getDailyQuota() == null) {
+            return null;
+        }
+        Day day = dates.get(date).get(seva.getId());
+        return day != null ? Math.max(0, day.limit() - day.used()) : seva.getDailyQuota();
+    }
+
+    public void applyUsage(UUID sevaId, LocalDate date, int defaultLimit, int usedDelta) {
+        Map<UUID, Day> days = dates.getIfPresent(date);
+        if (days != null) {
+            days.compute(sevaId, (id, day) -> {
+                Day current = day != null ? day : new Day(defaultLimit, 0);
+                return new Day(current.limit(), Math.max(0, current.used() + usedDelta));
+            });
+        }
+    }
+
+    public void applyLimit(UUID sevaId, LocalDate date, int limit) {
+        Map<UUID, Day> days = dates.getIfPresent(date);
+        if (days != null) {
+            days.compute(sevaId, (id, day) -> new Day(limit, day != null ? day.used() : 0));
+        }
+    }
+
+    /**
+     * Drops every loaded date; used when a seva's default quota changes.
+     */
+    public void invalidate() {
+        dates.invalidateAll();
+    }
+
+    private Map<UUID, Day> load(LocalDate date) {
+        Map<UUID, Day> days = new ConcurrentHashMap<>();
+        for (SevaQuota row : sevaQuotaRepository.findBySevaDate(date)) {
+            days.put(row.getSevaId(), new Day(row.getQuotaLimit(), row.getUsed()));
+        }
+        return days;
+    }
+}
@@ -0,0 +1,208 @@
+package com.seva.service;
+
+import com.seva.config.PaymentProperties;
+import com.seva.entity.SevaRefund;
+import com.seva.repository.SevaBookingRepository;
+import com.seva.repository.SevaCancellationJobRepository;
+import com.seva.repository.SevaRefundRepository;
+import com.seva.security.TokenBucketRateLimiter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Issues queued seva refunds. Each poll leases a batch of due refunds in a short transaction
+ * (the lease doubles as the retry backoff), fans them out over the refund pool at a fixed
+ * rate, and records each result in its own transaction. The poll returns as soon as the
+ * batch is handed over, so the shared scheduler thread never waits on the gateway; the
+ * batch's follow-up runs on the refund pool once its last refund finishes, and no new batch
+ * is leased until then. Refunds are issued by receipt, so
+ * one whose response was lost is found on retry rather than paid twice. Refunds still
+ * failing after {@code max-attempts} are marked FAILED for an admin to follow up.
+ */
+@Slf4j
+@Service
+public class SevaRefundWorker {
+
+    private static final String RATE_KEY = "refunds";
+
+    private final SevaRefundRepository refundRepository;
+    private final SevaBookingRepository sevaBookingRepository;
+    private final SevaCancellationJobRepository jobRepository;
+    private final PaymentService paymentService;
+    private final ThreadPoolTaskExecutor executor;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final MeterRegistry meterRegistry;
+    private final PaymentProperties.Refund properties;
+    private final TokenBucketRateLimiter rateLimiter;
+    // Set while a leased batch is being issued
+    private final AtomicBoolean batchInFlight = new AtomicBoolean();
+
+    public SevaRefundWorker(SevaRefundRepository refundRepository, SevaBookingRepository sevaBookingRepository,
+            SevaCancellationJobRepository jobRepository, PaymentService paymentService,
+            @Qualifier("refundExecutor") ThreadPoolTaskExecutor executor, TransactionTemplate transactionTemplate,
+            ApplicationEventPublisher eventPublisher, MeterRegistry meterRegistry,
+            PaymentProperties paymentProperties) {
+        this.refundRepository = refundRepository;
+        this.sevaBookingRepository = sevaBookingRepository;
+        this.jobRepository = jobRepository;
+        this.paymentService = paymentService;
+        this.executor = executor;
+        this.transactionTemplate = transactionTemplate;
+        this.eventPublisher = eventPublisher;
+        this.meterRegistry = meterRegistry;
+        this.properties = paymentProperties.getRefund();
+        this.rateLimiter = new TokenBucketRateLimiter(Math.max(1, properties.getRatePerSecond()),
+                Duration.ofSeconds(1));
+    }
+
+    @Scheduled(fixedDelayString = "${payments.refund.poll-interval:5s}")
+    public void poll() {
+        if (!batchInFlight.compareAndSet(false, true)) {
+            return;
+        }
+        List<SevaRefund> due;
+        try {
+            due = lease();
+        } catch (Exception e) {
+            batchInFlight.set(false);
+            log.error("Failed to read seva refund queue: {}", e.getMessage());
+            return;
+        }
+        if (due.isEmpty()) {
+            batchInFlight.set(false);
+            return;
+        }
+
+        List<CompletableFuture<Boolean>> results = new ArrayList<>(due.size());
+        try {
+            for (SevaRefund refund : due) {
+                results.add(CompletableFuture.supplyAsync(() -> issue(refund), executor));
+            }
+        } catch (RuntimeException e) {
+            // Refunds not handed over are retried once their lease runs out
+            log.error("Failed to hand seva refunds to the refund pool: {}", e.getMessage());
+        }
+        CompletableFuture.allOf(results.toArray(CompletableFuture[]::new))
+                .whenComplete((ignored, failure) -> {
+                    try {
+                        finishBatch(due, results);
+                    } finally {
+                        batchInFlight.set(false);
+                    }
+                });
+    }
+
+    private void finishBatch(List<SevaRefund> due, List<CompletableFuture<Boolean>> results) {
+        List<UUID> issued = new ArrayList<>();
+        Set<UUID> jobIds = new LinkedHashSet<>();
+        for (int i = 0; i < results.size(); i++) {
+            SevaRefund refund = due.get(i);
+            try {
+                if (results.get(i).join()) {
+                    issued.add(refund.getBookingId());
+                }
+            } catch (CompletionException e) {
+                log.error("Refund for seva booking {} failed unexpectedly: {}", refund.getBookingId(),
+                        e.getCause().getMessage());
+            }
+            if (refund.getJobId() != null) {
+                jobIds.add(refund.getJobId());
+            }
+        }
+
+        if (!issued.isEmpty()) {
+            eventPublisher.publishEvent(new SevaRefundsIssuedEvent(issued));
+        }
+        jobIds.forEach(this::completeIfDone);
+    }
+
+    private List<SevaRefund> lease() {
+        return transactionTemplate.execute(status -> {
+            LocalDateTime now = LocalDateTime.now();
+            List<SevaRefund> refunds = refundRepository.lockDue(now, properties.getBatchSize());
+            for (SevaRefund refund : refunds) {
+                refund.setAttempts(refund.getAttempts() + 1);
+                refund.setNextAttemptAt(now.plus(properties.getRetryBackoff().multipliedBy(refund.getAttempts())));
+            }
+            return refunds;
+        });
+    }
+
+    private boolean issue(SevaRefund refund) {
+        try {
+            throttle();
+        } catch (InterruptedException e) {
+            // Shutting down; the refund is retried once its lease runs out
+            Thread.currentThread().interrupt();
+            return false;
+        }
+        try {
+            String refundId = paymentService.findOrCreateRefund(refund.getRazorpayPaymentId(), refund.getAmount(),
+                    refund.getBookingId().toString());
+            transactionTemplate.executeWithoutResult(status -> {
+                refund.setStatus(SevaRefund.Status.REFUNDED);
+                refund.setRazorpayRefundId(refundId);
+                refund.setLastError(null);
+                refund.setUpdatedAt(LocalDateTime.now());
+                refundRepository.save(refund);
+                sevaBookingRepository.markRefunded(refund.getBookingId(), refund.getRazorpayPaymentId());
+            });
+            meterRegistry.counter("seva.refunds", "result", "refunded").increment();
+            return true;
+        } catch (Exception e) {
+            log.warn("Refund for seva booking {} failed (attempt {}): {}", refund.getBookingId(),
+                    refund.getAttempts(), e.getMessage());
+            if (refund.getAttempts() >= properties.getMaxAttempts()) {
+                refund.setStatus(SevaRefund.Status.FAILED);
+                meterRegistry.counter("seva.refunds", "result", "failed").increment();
+            } else {
+                meterRegistry.counter("seva.refunds", "result", "retry").increment();
+            }
+            String error = String.valueOf(e.getMessage());
+            refund.setLastError(error.length() > 255 ? error.substring(0, 255) : error);
+            refund.setUpdatedAt(LocalDateTime.now());
+            refundRepository.save(refund);
+            return false;
+        }
+    }
+
+    // Paces refund calls across the pool so a large cancellation does not crowd out checkouts
+    private void throttle() throws InterruptedException {
+        long waitNanos;
+        while ((waitNanos = rateLimiter.tryAcquire(RATE_KEY)) > 0) {
+            TimeUnit.NANOSECONDS.sleep(waitNanos);
+        }
+    }
+
+    private void completeIfDone(UUID jobId) {
+        try {
+            Integer closed = transactionTemplate.execute(status -> jobRepository.completeIfDone(jobId,
+                    LocalDateTime.now()));
+            if (closed != null && closed == 1) {
+                jobRepository.findById(jobId)
+                        .ifPresent(job -> eventPublisher.publishEvent(new SevaCancellationJobCompletedEvent(job)));
+            }
+        } catch (Exception e) {
+            log.error("Failed to close seva cancellation job {}: {}", jobId, e.getMessage());
+        }
+    }
+}
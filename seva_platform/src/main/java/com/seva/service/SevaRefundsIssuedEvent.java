@@ -0,0 +1,10 @@
+package com.seva.service;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Published by the refund worker after a batch, with the bookings whose refund went through.
+ */
+public record SevaRefundsIssuedEvent(List<UUID> bookingIds) {
+}
@@ -0,0 +1,126 @@
+package com.seva.service;
+
+import com.seva.config.SmsProperties;
+import com.seva.dto.SmsMessage;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decouples request threads from the SMS provider. Messages go into a bounded
+ * in-process queue and a small pool of dispatcher threads drains it in batches
+ * of up to {@link SmsGateway#maxBatchSize()}, retrying failed batches with
+ * exponential backoff.
+ */
+@Slf4j
+@Service
+public class SmsDispatcher {
+
+    private final SmsGateway smsGateway;
+    private final SmsProperties smsProperties;
+    private final BlockingQueue<SmsMessage> queue;
+    private final List<Thread> workers = new ArrayList<>();
+    private volatile boolean running = true;
+
+    private final Timer dispatchLatency;
+    private final Counter sent;
+    private final Counter failed;
+    private final Counter rejected;
+    private final Counter retried;
+
+    public SmsDispatcher(SmsGateway smsGateway, SmsProperties smsProperties, MeterRegistry meterRegistry) {
+        this.smsGateway = smsGateway;
+        this.smsProperties = smsProperties;
+        this.queue = new ArrayBlockingQueue<>(smsProperties.getQueueCapacity());
+        meterRegistry.gauge("sms.queue.depth", queue, BlockingQueue::size);
+        this.dispatchLatency = meterRegistry.timer("sms.dispatch.latency");
+        this.sent = meterRegistry.counter("sms.messages", "result", "sent");
+        this.failed = meterRegistry.counter("sms.messages", "result", "failed");
+        this.rejected = meterRegistry.counter("sms.messages", "result", "rejected");
+        this.retried = meterRegistry.counter("sms.batches.retried");
+    }
+
+    @PostConstruct
+    public void start() {
+        for (int i = 0; i < smsProperties.getDispatcherThreads(); i++) {
+            Thread worker = new Thread(this::drainLoop, "sms-dispatcher-" + i);
+            worker.setDaemon(true);
+            worker.start();
+            workers.add(worker);
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        workers.forEach(Thread::interrupt);
+    }
+
+    /**
+     * Queues a message without blocking.
+     *
+     * @return false if the queue is full and the message was not accepted
+     */
+    public boolean enqueue(String phoneNumber, String text) {
+        boolean accepted = queue.offer(new SmsMessage(phoneNumber, text, System.nanoTime()));
+        if (!accepted) {
+            rejected.increment();
+            log.warn("SMS queue full, dropping message to {}", phoneNumber);
+        }
+        return accepted;
+    }
+
+    private void drainLoop() {
+        int batchSize = Math.max(1, smsGateway.maxBatchSize());
+        List<SmsMessage> batch = new ArrayList<>(batchSize);
+        while (running) {
+            try {
+                batch.add(queue.take());
+                queue.drainTo(batch, batchSize - 1);
+                dispatch(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void dispatch(List<SmsMessage> batch) throws InterruptedException {
+        long backoffMillis = smsProperties.getInitialBackoff().toMillis();
+        for (int attempt = 0; ; attempt++) {
+            try {
+                smsGateway.send(batch);
+                long now = System.nanoTime();
+                batch.forEach(message -> dispatchLatency.record(now - message.enqueuedAtNanos(), TimeUnit.NANOSECONDS));
+                sent.increment(batch.size());
+                return;
+            } catch (InterruptedException e) {
+                throw e;
+            } catch (Exception e) {
+                if (attempt >= smsProperties.getMaxRetries()) {
+                    failed.increment(batch.size());
+                    log.error("Giving up on SMS batch of {} after {} attempts: {}", batch.size(), attempt + 1,
+                            e.getMessage());
+                    return;
+                }
+                retried.increment();
+                log.warn("SMS batch failed (attempt {}), retrying in {} ms: {}", attempt + 1, backoffMillis,
+                        e.getMessage());
+                Thread.sleep(backoffMillis);
+                backoffMillis *= 2;
+            }
+        }
+    }
+}
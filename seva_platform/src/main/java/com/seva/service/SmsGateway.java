@@ -0,0 +1,20 @@
+package com.seva.service;
+
+import com.seva.dto.SmsMessage;
+
+import java.util.List;
+
+public interface SmsGateway {
+
+    /**
+     * Sends a batch of messages. Throws if the batch could not be delivered so the dispatcher can retry it.
+     */
+    void send(List<SmsMessage> batch) throws Exception;
+
+    /**
+     * Largest batch the provider accepts in a single call.
+     */
+    default int maxBatchSize() {
+        return 1;
+    }
+}
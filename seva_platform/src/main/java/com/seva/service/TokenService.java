@@ -0,0 +1,162 @@
+package com.seva.service;
+
+import com.seva.config.JwtProperties;
+import com.seva.dto.TokenPair;
+import com.seva.entity.RefreshToken;
+import com.seva.entity.RevokedToken;
+import com.seva.entity.Users;
+import com.seva.repository.RefreshTokenRepository;
+import com.seva.repository.RevokedTokenRepository;
+import com.seva.repository.UsersRepository;
+import com.seva.security.JwtUtil;
+import com.seva.security.RoleEpochRegistry;
+import com.seva.security.TokenRevocationList;
+import io.jsonwebtoken.Claims;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Issues short-lived access tokens together with rotating refresh tokens, and handles revocation.
+ * Refresh tokens are single use: each refresh revokes the presented token and issues a new one in
+ * the same family. Presenting an already-rotated token revokes the whole family.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class TokenService {
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    private final JwtUtil jwtUtil;
+    private final JwtProperties jwtProperties;
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final RevokedTokenRepository revokedTokenRepository;
+    private final UsersRepository usersRepository;
+    private final TokenRevocationList tokenRevocationList;
+    private final RoleEpochRegistry roleEpochRegistry;
+    private final UserProfileCache userProfileCache;
+
+    @Transactional
+    public TokenPair issue(String phoneNumber, String role, int tokenVersion) {
+        return issue(phoneNumber, role, tokenVersion, UUID.randomUUID());
+    }
+
+    @Transactional(noRollbackFor = IllegalArgumentException.class)
+    public TokenPair refresh(String presentedToken) {
+        RefreshToken token = refreshTokenRepository.findByTokenHash(hash(presentedToken))
+                .orElseThrow(() -> new IllegalArgumentException("Invalid refresh token"));
+        LocalDateTime now = LocalDateTime.now();
+        if (token.getRevokedAt() == null && token.getExpiresAt().isBefore(now)) {
+            throw new IllegalArgumentException("Refresh token has expired");
+        }
+        // Conditional revoke: of two concurrent refreshes with the same token only one wins, the other is reuse
+        if (token.getRevokedAt() != null || refreshTokenRepository.revokeIfActive(token.getId(), now) == 0) {
+            // A rotated token came back: assume it was stolen and cut off the whole chain
+            int revoked = refreshTokenRepository.revokeFamily(token.getFamilyId(), now);
+            log.warn("Refresh token reuse for {}, revoked {} tokens in family {}", token.getPhoneNumber(), revoked,
+                    token.getFamilyId());
+            throw new IllegalArgumentException("Refresh token has been revoked");
+        }
+
+        Optional<Users> userOpt = userProfileCache.findByPhoneNumber(token.getPhoneNumber());
+        String role = userOpt.map(u -> u.getRole().name()).orElse("USER");
+        int tokenVersion = userOpt.map(Users::getTokenVersion).orElse(0);
+        return issue(token.getPhoneNumber(), role, tokenVersion, token.getFamilyId());
+    }
+
+    /**
+     * Revokes the presented access token and, if given, the refresh token family it was issued with.
+     */
+    @Transactional
+    public void logout(Claims accessClaims, String refreshToken) {
+        revokeAccessToken(accessClaims);
+        if (refreshToken != null) {
+            refreshTokenRepository.findByTokenHash(hash(refreshToken))
+                    .filter(token -> token.getPhoneNumber().equals(accessClaims.getSubject()))
+                    .ifPresent(token -> refreshTokenRepository.revokeFamily(token.getFamilyId(), LocalDateTime.now()));
+        }
+    }
+
+    /**
+     * Signs a user out everywhere, e.g. for a lost phone: all refresh tokens are revoked and the
+     * user's token version is bumped so every outstanding access token is rejected in memory.
+     */
+    @Transactional
+    public Users revokeAllSessions(Users user) {
+        refreshTokenRepository.revokeAllForPhoneNumber(user.getPhoneNumber(), LocalDateTime.now());
+        return invalidateAccessTokens(user);
+    }
+
+    /**
+     * Bumps the user's token version so access tokens issued before now stop being accepted.
+     */
+    @Transactional
+    public Users invalidateAccessTokens(Users user) {
+        user.setTokenVersion(user.getTokenVersion() + 1);
+        Users saved = usersRepository.save(user);
+        userProfileCache.evict(saved);
+        roleEpochRegistry.advance(saved.getPhoneNumber(), saved.getTokenVersion());
+        return saved;
+    }
+
+    @Scheduled(cron = "0 30 3 * * *")
+    @Transactional
+    public void purgeExpired() {
+        LocalDateTime now = LocalDateTime.now();
+        int refresh = refreshTokenRepository.deleteExpired(now);
+        int revoked = revokedTokenRepository.deleteExpired(now);
+        log.info("Purged {} expired refresh tokens and {} expired revocations", refresh, revoked);
+    }
+
+    private void revokeAccessToken(Claims claims) {
+        if (claims.getId() == null) {
+            return;
+        }
+        RevokedToken revoked = new RevokedToken();
+        revoked.setJti(claims.getId());
+        revoked.setPhoneNumber(claims.getSubject());
+        revoked.setExpiresAt(LocalDateTime.ofInstant(claims.getExpiration().toInstant(), ZoneId.systemDefault()));
+        revoked.setRevokedAt(LocalDateTime.now());
+        revokedTokenRepository.save(revoked);
+        tokenRevocationList.add(revoked.getJti(), revoked.getExpiresAt());
+    }
+
+    private TokenPair issue(String phoneNumber, String role, int tokenVersion, UUID familyId) {
+        byte[] bytes = new byte[32];
+        RANDOM.nextBytes(bytes);
+        String refreshToken = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+
+        RefreshToken entity = new RefreshToken();
+        entity.setTokenHash(hash(refreshToken));
+        entity.setPhoneNumber(phoneNumber);
+        entity.setFamilyId(familyId);
+        entity.setExpiresAt(LocalDateTime.now().plus(jwtProperties.getRefreshTokenTtl()));
+        refreshTokenRepository.save(entity);
+
+        String accessToken = jwtUtil.generateToken(phoneNumber, role, tokenVersion);
+        return new TokenPair(accessToken, refreshToken, jwtUtil.getAccessTokenTtlMillis() / 1000);
+    }
+
+    private static String hash(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
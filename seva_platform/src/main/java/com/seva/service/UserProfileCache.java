@@ -0,0 +1,95 @@
+package com.seva.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.seva.config.UserCacheProperties;
+import com.seva.entity.Users;
+import com.seva.repository.UsersRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Read-through cache of user profiles keyed by phone number and by id. Entries are
+ * bounded by size and TTL, and evicted whenever a profile is written, so the TTL only
+ * limits staleness for writes made on other nodes.
+ * <p>
+ * Cached instances are shared: use them for reads and as references, and load from
+ * {@link UsersRepository} when the entity is going to be modified.
+ */
+@Component
+public class UserProfileCache {
+
+    private final UsersRepository usersRepository;
+    private final Cache<String, Users> byPhoneNumber;
+    private final Cache<UUID, Users> byId;
+
+    public UserProfileCache(UsersRepository usersRepository, UserCacheProperties properties,
+            MeterRegistry meterRegistry) {
+        this.usersRepository = usersRepository;
+        this.byPhoneNumber = Caffeine.newBuilder()
+                .maximumSize(properties.getMaxSize())
+                .expireAfterWrite(properties.getTtl())
+                .recordStats()
+                .build();
+        this.byId = Caffeine.newBuilder()
+                .maximumSize(properties.getMaxSize())
+                .expireAfterWrite(properties.getTtl())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, byPhoneNumber, "users.by_phone");
+        CaffeineCacheMetrics.monitor(meterRegistry, byId, "users.by_id");
+    }
+
+    public Optional<Users> findByPhoneNumber(String phoneNumber) {
+        return Optional.ofNullable(byPhoneNumber.get(phoneNumber, key -> usersRepository.findByPhoneNumber(key)
+                .map(this::rememberById)
+                .orElse(null)));
+    }
+
+    public Optional<Users> findById(UUID id) {
+        return Optional.ofNullable(byId.get(id, key -> usersRepository.findById(key)
+                .map(this::rememberByPhoneNumber)
+                .orElse(null)));
+    }
+
+    /**
+     * Drops the user's entries now and again after the surrounding transaction commits,
+     * so a concurrent reader cannot re-cache the pre-commit row.
+     */
+    public void evict(Users user) {
+        evictNow(user);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evictNow(user);
+                }
+            });
+        }
+    }
+
+    private void evictNow(Users user) {
+        if (user.getPhoneNumber() != null) {
+            byPhoneNumber.invalidate(user.getPhoneNumber());
+        }
+        if (user.getId() != null) {
+            byId.invalidate(user.getId());
+        }
+    }
+
+    private Users rememberById(Users user) {
+        byId.put(user.getId(), user);
+        return user;
+    }
+
+    private Users rememberByPhoneNumber(Users user) {
+        byPhoneNumber.put(user.getPhoneNumber(), user);
+        return user;
+    }
+}
@@ -18,6 +18,7 @@ public class VolunteerService {
 
     private final VolunteerRepository volunteerRepository;
     private final UsersRepository usersRepository;
+    private final UserProfileCache userProfileCache;
 
     @Transactional
     public Volunteer registerVolunteer(VolunteerDTO volunteerDTO) {
@@ -40,6 +41,7 @@ public class VolunteerService {
         // Update user status
         user.setIsVolunteer(true);
         usersRepository.save(user);
+        userProfileCache.evict(user);
 
         return volunteerRepository.save(volunteer);
     }
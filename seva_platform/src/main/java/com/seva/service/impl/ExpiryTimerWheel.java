@@ -0,0 +1,65 @@
+package com.seva.service.impl;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.BiConsumer;
+
+/**
+ * Hashed timer wheel for key expiry. Scheduling is O(1) and each tick only
+ * touches the keys due in the current slot, instead of scanning the whole map.
+ * Keys further out than one revolution are carried over to the next pass.
+ */
+class ExpiryTimerWheel {
+
+    private final Queue<Deadline>[] slots;
+    private final long tickMillis;
+    private long lastTick;
+
+    private record Deadline(String key, long expiresAt) {
+    }
+
+    @SuppressWarnings("unchecked")
+    ExpiryTimerWheel(int slotCount, long tickMillis) {
+        this.slots = new Queue[slotCount];
+        for (int i = 0; i < slotCount; i++) {
+            slots[i] = new ConcurrentLinkedQueue<>();
+        }
+        this.tickMillis = tickMillis;
+        this.lastTick = System.currentTimeMillis() / tickMillis;
+    }
+
+    void schedule(String key, long expiresAt) {
+        slots[slotFor(expiresAt)].add(new Deadline(key, expiresAt));
+    }
+
+    /**
+     * Fires every deadline whose tick has been reached since the previous call,
+     * passing the key and the deadline it was scheduled with. Deadlines fire at
+     * tick granularity, so callers compare against their own state before evicting.
+     * Called from a single sweeper thread.
+     */
+    void advance(long now, BiConsumer<String, Long> onExpired) {
+        long currentTick = now / tickMillis;
+        long ticks = Math.min(currentTick - lastTick, slots.length);
+        for (long t = ticks - 1; t >= 0; t--) {
+            long tick = currentTick - t;
+            Queue<Deadline> slot = slots[(int) Math.floorMod(tick, slots.length)];
+            for (int pending = slot.size(); pending > 0; pending--) {
+                Deadline deadline = slot.poll();
+                if (deadline == null) {
+                    break;
+                }
+                if (deadline.expiresAt() / tickMillis <= tick) {
+                    onExpired.accept(deadline.key(), deadline.expiresAt());
+                } else {
+                    slot.add(deadline);
+                }
+            }
+        }
+        lastTick = currentTick;
+    }
+
+    private int slotFor(long expiresAt) {
+        return (int) Math.floorMod(expiresAt / tickMillis, slots.length);
+    }
+}
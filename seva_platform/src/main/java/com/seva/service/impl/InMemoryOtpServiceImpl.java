@@ -0,0 +1,97 @@
+package com.seva.service.impl;
+
+import com.seva.config.OtpProperties;
+import com.seva.exception.OtpLockedException;
+import com.seva.service.OtpService;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Single-node OTP store. Entries expire after the configured TTL and are evicted
+ * by a timer wheel, so abandoned logins do not accumulate on the heap.
+ */
+@Service
+@ConditionalOnProperty(name = "otp.store", havingValue = "memory", matchIfMissing = true)
+public class InMemoryOtpServiceImpl implements OtpService {
+
+    private final Map<String, OtpEntry> otpStorage = new ConcurrentHashMap<>();
+    private final OtpProperties otpProperties;
+    private final ExpiryTimerWheel expiryWheel;
+
+    private record OtpEntry(String otpHash, long expiresAt, int attempts, long lockedUntil) {
+        long deadline() {
+            return Math.max(expiresAt, lockedUntil);
+        }
+    }
+
+    public InMemoryOtpServiceImpl(OtpProperties otpProperties) {
+        this.otpProperties = otpProperties;
+        long tickMillis = Math.max(1, otpProperties.getSweepInterval().toMillis());
+        long horizon = Math.max(otpProperties.getTtl().toMillis(), otpProperties.getLockout().toMillis());
+        this.expiryWheel = new ExpiryTimerWheel((int) Math.min(horizon / tickMillis + 1, 4096), tickMillis);
+    }
+
+    @Override
+    public String generateOtp(String phoneNumber) {
+        String otp = OtpCodes.next();
+        long now = System.currentTimeMillis();
+        OtpEntry entry = otpStorage.compute(phoneNumber, (key, existing) -> {
+            if (existing != null && existing.lockedUntil() > now) {
+                throw new OtpLockedException((existing.lockedUntil() - now + 999) / 1000);
+            }
+            return new OtpEntry(OtpCodes.hash(phoneNumber, otp), now + otpProperties.getTtl().toMillis(), 0, 0);
+        });
+        expiryWheel.schedule(phoneNumber, entry.deadline());
+        return otp;
+    }
+
+    @Override
+    public boolean validateOtp(String phoneNumber, String otp) {
+        long now = System.currentTimeMillis();
+        String candidate = OtpCodes.hash(phoneNumber, otp);
+        boolean[] valid = new boolean[1];
+        OtpEntry[] lockedOut = new OtpEntry[1];
+        otpStorage.computeIfPresent(phoneNumber, (key, existing) -> {
+            if (existing.lockedUntil() > now) {
+                return existing;
+            }
+            if (existing.otpHash() == null || existing.expiresAt() <= now) {
+                return null;
+            }
+            if (OtpCodes.matches(existing.otpHash(), candidate)) {
+                valid[0] = true;
+                return null;
+            }
+            int attempts = existing.attempts() + 1;
+            if (attempts >= otpProperties.getMaxAttempts()) {
+                // Burn the code and lock the number out
+                lockedOut[0] = new OtpEntry(null, existing.expiresAt(), attempts,
+                        now + otpProperties.getLockout().toMillis());
+                return lockedOut[0];
+            }
+            return new OtpEntry(existing.otpHash(), existing.expiresAt(), attempts, 0);
+        });
+        if (lockedOut[0] != null) {
+            expiryWheel.schedule(phoneNumber, lockedOut[0].deadline());
+        }
+        return valid[0];
+    }
+
+    @Override
+    public void invalidateOtp(String phoneNumber, String otp) {
+        String hash = OtpCodes.hash(phoneNumber, otp);
+        otpStorage.computeIfPresent(phoneNumber, (key, existing) ->
+                existing.otpHash() != null && OtpCodes.matches(existing.otpHash(), hash) ? null : existing);
+    }
+
+    @Scheduled(fixedRateString = "${otp.sweep-interval:1s}")
+    public void sweepExpired() {
+        expiryWheel.advance(System.currentTimeMillis(), (phoneNumber, deadline) ->
+                otpStorage.computeIfPresent(phoneNumber,
+                        (key, entry) -> entry.deadline() <= deadline ? null : entry));
+    }
+}
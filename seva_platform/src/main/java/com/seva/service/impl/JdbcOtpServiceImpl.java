@@ -0,0 +1,69 @@
+package com.seva.service.impl;
+
+import com.seva.config.OtpProperties;
+import com.seva.exception.OtpLockedException;
+import com.seva.repository.OtpCodeRepository;
+import com.seva.service.OtpService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+/**
+ * Postgres-backed OTP store so every node behind the load balancer sees the same
+ * codes, attempt counters and lockouts. Each check-and-update is a single atomic
+ * statement evaluated against the database clock.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@Transactional
+@ConditionalOnProperty(name = "otp.store", havingValue = "jdbc")
+public class JdbcOtpServiceImpl implements OtpService {
+
+    private final OtpCodeRepository otpCodeRepository;
+    private final OtpProperties otpProperties;
+
+    @Override
+    public String generateOtp(String phoneNumber) {
+        String otp = OtpCodes.next();
+        if (otpCodeRepository.issue(phoneNumber, OtpCodes.hash(phoneNumber, otp),
+                otpProperties.getTtl().toMillis()) == 0) {
+            Long retryAfter = otpCodeRepository.findLockoutSeconds(phoneNumber);
+            throw new OtpLockedException(retryAfter != null ? Math.max(1, retryAfter) : 1);
+        }
+        return otp;
+    }
+
+    @Override
+    public boolean validateOtp(String phoneNumber, String otp) {
+        List<String> stored = otpCodeRepository.countAttempt(phoneNumber, otpProperties.getMaxAttempts(),
+                otpProperties.getLockout().toMillis());
+        if (stored.isEmpty()) {
+            return false;
+        }
+        String candidate = OtpCodes.hash(phoneNumber, otp);
+        if (OtpCodes.matches(stored.get(0), candidate)) {
+            return otpCodeRepository.consume(phoneNumber, candidate) == 1;
+        }
+        otpCodeRepository.burnIfLocked(phoneNumber);
+        return false;
+    }
+
+    @Override
+    public void invalidateOtp(String phoneNumber, String otp) {
+        otpCodeRepository.consume(phoneNumber, OtpCodes.hash(phoneNumber, otp));
+    }
+
+    @Scheduled(fixedDelayString = "${otp.jdbc.sweep-interval:1m}")
+    public void sweepExpired() {
+        int deleted = otpCodeRepository.deleteExpired();
+        if (deleted > 0) {
+            log.debug("Swept {} expired OTP entries", deleted);
+        }
+    }
+}
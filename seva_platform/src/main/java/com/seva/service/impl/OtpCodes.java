@@ -0,0 +1,40 @@
+package com.seva.service.impl;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.util.HexFormat;
+
+/**
+ * Shared helpers for the OTP stores: code generation, hashing and comparison.
+ */
+final class OtpCodes {
+
+    // One generator per thread so concurrent logins never contend on a shared seed
+    private static final ThreadLocal<SecureRandom> RANDOM = ThreadLocal.withInitial(SecureRandom::new);
+
+    private OtpCodes() {
+    }
+
+    static String next() {
+        return String.format("%06d", RANDOM.get().nextInt(1000000));
+    }
+
+    static String hash(String phoneNumber, String otp) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            byte[] hash = digest.digest((phoneNumber + ":" + otp).getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    static boolean matches(String expected, String actual) {
+        if (expected == null || actual == null) {
+            return false;
+        }
+        return MessageDigest.isEqual(expected.getBytes(StandardCharsets.UTF_8), actual.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,68 @@
+package com.seva.service.impl;
+
+import com.razorpay.Order;
+import com.razorpay.RazorpayClient;
+import com.razorpay.RazorpayException;
+import com.razorpay.Refund;
+import com.seva.service.PaymentGateway;
+import lombok.RequiredArgsConstructor;
+import org.json.JSONObject;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Razorpay orders API through the application-wide client, so every call shares one
+ * HTTP connection pool instead of building a client per request.
+ */
+@Service
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "payments.gateway", havingValue = "razorpay", matchIfMissing = true)
+public class RazorpayPaymentGateway implements PaymentGateway {
+
+    private final RazorpayClient razorpayClient;
+
+    @Override
+    public String createOrder(BigDecimal amount, String receipt) throws RazorpayException {
+        JSONObject orderRequest = new JSONObject();
+        // Razorpay accepts amount in paisa
+        orderRequest.put("amount", amount.multiply(BigDecimal.valueOf(100)).intValue());
+        orderRequest.put("currency", "INR");
+        orderRequest.put("receipt", receipt);
+
+        Order order = razorpayClient.orders.create(orderRequest);
+        return order.get("id");
+    }
+
+    @Override
+    public Optional<String> findOrderByReceipt(String receipt) throws RazorpayException {
+        JSONObject query = new JSONObject();
+        query.put("receipt", receipt);
+        List<Order> existing = razorpayClient.orders.fetchAll(query);
+        return existing.isEmpty() ? Optional.empty() : Optional.of(existing.get(0).get("id"));
+    }
+
+    @Override
+    public String refund(String paymentId, BigDecimal amount, String receipt) throws RazorpayException {
+        JSONObject refundRequest = new JSONObject();
+        refundRequest.put("amount", amount.multiply(BigDecimal.valueOf(100)).intValue());
+        refundRequest.put("receipt", receipt);
+
+        Refund refund = razorpayClient.payments.refund(paymentId, refundRequest);
+        return refund.get("id");
+    }
+
+    @Override
+    public Optional<String> findRefundByReceipt(String paymentId, String receipt) throws RazorpayException {
+        List<Refund> refunds = razorpayClient.payments.fetchAllRefunds(paymentId, new JSONObject());
+        for (Refund refund : refunds) {
+            if (receipt.equals(refund.toJson().optString("receipt"))) {
+                return Optional.of(refund.get("id"));
+            }
+        }
+        return Optional.empty();
+    }
+}
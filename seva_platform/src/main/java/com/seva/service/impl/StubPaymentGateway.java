@@ -0,0 +1,76 @@
+package com.seva.service.impl;
+
+import com.seva.config.PaymentProperties;
+import com.seva.service.PaymentGateway;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Offline payment gateway for development and load tests. Orders live in memory, keyed by
+ * receipt, and the configured latency and failure rate let timeouts, the circuit breaker and
+ * outbox recovery be exercised without touching Razorpay.
+ */
+@Slf4j
+@Service
+@ConditionalOnProperty(name = "payments.gateway", havingValue = "stub")
+public class StubPaymentGateway implements PaymentGateway {
+
+    private final PaymentProperties.Stub properties;
+    private final ConcurrentHashMap<String, String> ordersByReceipt = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, String> refundsByReceipt = new ConcurrentHashMap<>();
+
+    public StubPaymentGateway(PaymentProperties paymentProperties) {
+        this.properties = paymentProperties.getStub();
+    }
+
+    @Override
+    public String createOrder(BigDecimal amount, String receipt) throws InterruptedException {
+        simulateCall();
+        String orderId = ordersByReceipt.computeIfAbsent(receipt,
+                r -> "order_stub_" + UUID.randomUUID().toString().replace("-", "").substring(0, 14));
+        log.info("SIMULATION: payment order {} for {} INR, receipt {}", orderId, amount, receipt);
+        return orderId;
+    }
+
+    @Override
+    public Optional<String> findOrderByReceipt(String receipt) throws InterruptedException {
+        simulateCall();
+        return Optional.ofNullable(ordersByReceipt.get(receipt));
+    }
+
+    @Override
+    public String refund(String paymentId, BigDecimal amount, String receipt) throws InterruptedException {
+        simulateCall();
+        String refundId = refundsByReceipt.computeIfAbsent(paymentId + "/" + receipt,
+                r -> "rfnd_stub_" + UUID.randomUUID().toString().replace("-", "").substring(0, 14));
+        log.info("SIMULATION: refund {} of {} INR on payment {}", refundId, amount, paymentId);
+        return refundId;
+    }
+
+    @Override
+    public Optional<String> findRefundByReceipt(String paymentId, String receipt) throws InterruptedException {
+        simulateCall();
+        return Optional.ofNullable(refundsByReceipt.get(paymentId + "/" + receipt));
+    }
+
+    public void clear() {
+        ordersByReceipt.clear();
+        refundsByReceipt.clear();
+    }
+
+    private void simulateCall() throws InterruptedException {
+        if (!properties.getLatency().isZero()) {
+            Thread.sleep(properties.getLatency().toMillis());
+        }
+        if (properties.getFailureRate() > 0 && ThreadLocalRandom.current().nextDouble() < properties.getFailureRate()) {
+            throw new IllegalStateException("Simulated payment gateway failure");
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.seva.service.impl;
+
+import com.seva.config.SmsProperties;
+import com.seva.dto.SmsMessage;
+import com.seva.service.SmsGateway;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Offline SMS gateway for development, integration and load tests. It keeps the
+ * most recent messages in memory instead of calling a provider, and can simulate
+ * provider latency.
+ */
+@Slf4j
+@Service
+@ConditionalOnProperty(name = "sms.gateway", havingValue = "stub", matchIfMissing = true)
+public class StubSmsGateway implements SmsGateway {
+
+    private final SmsProperties.Stub properties;
+    private final Deque<SmsMessage> sentMessages = new ConcurrentLinkedDeque<>();
+    private final AtomicInteger retained = new AtomicInteger();
+
+    public StubSmsGateway(SmsProperties smsProperties) {
+        this.properties = smsProperties.getStub();
+    }
+
+    @Override
+    public void send(List<SmsMessage> batch) throws InterruptedException {
+        if (!properties.getLatency().isZero()) {
+            Thread.sleep(properties.getLatency().toMillis());
+        }
+        for (SmsMessage message : batch) {
+            log.info("SIMULATION: SMS to {}: {}", message.phoneNumber(), message.text());
+            sentMessages.addLast(message);
+            if (retained.incrementAndGet() > properties.getRetainedMessages() && sentMessages.pollFirst() != null) {
+                retained.decrementAndGet();
+            }
+        }
+    }
+
+    @Override
+    public int maxBatchSize() {
+        return properties.getBatchSize();
+    }
+
+    public List<SmsMessage> getSentMessages() {
+        return new ArrayList<>(sentMessages);
+    }
+
+    public void clear() {
+        sentMessages.clear();
+        retained.set(0);
+    }
+}
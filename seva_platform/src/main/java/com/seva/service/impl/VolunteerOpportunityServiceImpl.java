@@ -7,7 +7,7 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 
 import com.seva.repository.VolunteerApplicationRepository;
-import com.seva.repository.UsersRepository;
+import com.seva.service.UserProfileCache;
 import org.springframework.transaction.annotation.Transactional;
 import java.util.UUID;
 
@@ -18,7 +18,7 @@ public class VolunteerOpportunityServiceImpl implements VolunteerOpportunityServ
 
     private final VolunteerOpportunityRepository repository;
     private final VolunteerApplicationRepository applicationRepository;
-    private final UsersRepository usersRepository;
+    private final UserProfileCache userProfileCache;
 
     @Override
     public java.util.List<VolunteerOpportunity> getOpenOpportunities() {
@@ -60,7 +60,7 @@ public class VolunteerOpportunityServiceImpl implements VolunteerOpportunityServ
     @Override
     public void applyForOpportunity(UUID id, String phoneNumber) {
         VolunteerOpportunity opportunity = getOpportunityById(id);
-        com.seva.entity.Users user = usersRepository.findByPhoneNumber(phoneNumber)
+        com.seva.entity.Users user = userProfileCache.findByPhoneNumber(phoneNumber)
                 .orElseThrow(() -> new RuntimeException("User not found with phone: " + phoneNumber));
 
         // Check if already applied
@@ -89,6 +89,13 @@ public class VolunteerOpportunityServiceImpl implements VolunteerOpportunityServ
         com.seva.entity.VolunteerApplication application = applicationRepository.findById(applicationId)
                 .orElseThrow(() -> new RuntimeException("Application not found with id: " + applicationId));
 
+        if (application.getStatus() == status) {
+            return application;
+        }
+        if (!application.getStatus().canTransitionTo(status)) {
+            throw new com.seva.exception.InvalidStatusTransitionException("volunteer application",
+                    application.getStatus(), status);
+        }
         application.setStatus(status);
 
         return applicationRepository.save(application);
@@ -96,7 +103,7 @@ public class VolunteerOpportunityServiceImpl implements VolunteerOpportunityServ
 
     @Override
     public java.util.List<com.seva.entity.VolunteerApplication> getMyApplications(String phoneNumber) {
-        com.seva.entity.Users user = usersRepository.findByPhoneNumber(phoneNumber)
+        com.seva.entity.Users user = userProfileCache.findByPhoneNumber(phoneNumber)
                 .orElseThrow(() -> new RuntimeException("User not found with phone: " + phoneNumber));
         return applicationRepository.findByUserId(user.getId());
     }
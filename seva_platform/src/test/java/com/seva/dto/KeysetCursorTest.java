@@ -0,0 +1,57 @@
+package com.seva.dto;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class KeysetCursorTest {
+
+    @Test
+    void decodesWhatItEncodes() {
+        KeysetCursor cursor = new KeysetCursor(LocalDateTime.of(2026, 3, 14, 9, 26, 53, 589_793_000),
+                UUID.randomUUID());
+
+        assertThat(KeysetCursor.decode(cursor.encode())).isEqualTo(cursor);
+    }
+
+    @Test
+    void keepsWholeSecondAndMinuteTimestamps() {
+        KeysetCursor cursor = new KeysetCursor(LocalDateTime.of(2026, 1, 1, 0, 0), UUID.randomUUID());
+
+        assertThat(KeysetCursor.decode(cursor.encode())).isEqualTo(cursor);
+    }
+
+    @Test
+    void encodesToAUrlSafeString() {
+        String encoded = new KeysetCursor(LocalDateTime.now(), UUID.randomUUID()).encode();
+
+        assertThat(encoded).matches("[A-Za-z0-9_-]+");
+    }
+
+    @Test
+    void missingCursorMeansFirstPage() {
+        assertThat(KeysetCursor.decode(null)).isNull();
+        assertThat(KeysetCursor.decode("")).isNull();
+        assertThat(KeysetCursor.decode("  ")).isNull();
+    }
+
+    @Test
+    void rejectsCursorsItDidNotProduce() {
+        String noSeparator = Base64.getUrlEncoder().withoutPadding()
+                .encodeToString("2026-01-01T00:00".getBytes(StandardCharsets.UTF_8));
+        String badId = Base64.getUrlEncoder().withoutPadding()
+                .encodeToString("2026-01-01T00:00|not-a-uuid".getBytes(StandardCharsets.UTF_8));
+
+        for (String cursor : new String[] { "not base64!", noSeparator, badId }) {
+            assertThatThrownBy(() -> KeysetCursor.decode(cursor))
+                    .isInstanceOf(IllegalArgumentException.class)
+                    .hasMessage("Invalid cursor");
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.seva.exception;
+
+import com.seva.controller.RoomBookingController;
+import com.seva.controller.VolunteerOpportunityController;
+import com.seva.entity.RoomBooking;
+import com.seva.entity.VolunteerApplication;
+import com.seva.service.BookingService;
+import com.seva.service.RoomAvailabilityCalendar;
+import com.seva.service.RoomInventoryService;
+import com.seva.service.VolunteerOpportunityService;
+import org.junit.jupiter.api.Test;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.util.UUID;
+
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Conflicting status changes must reach clients as 409, not as the generic 500 or the
+ * controllers' own 400 fallbacks.
+ */
+class GlobalExceptionHandlerTest {
+
+    private static final UUID ID = UUID.randomUUID();
+
+    private final BookingService bookingService = mock(BookingService.class);
+    private final VolunteerOpportunityService volunteerService = mock(VolunteerOpportunityService.class);
+    private final MockMvc mockMvc = MockMvcBuilders
+            .standaloneSetup(new RoomBookingController(bookingService, mock(RoomInventoryService.class),
+                    mock(RoomAvailabilityCalendar.class)), new VolunteerOpportunityController(volunteerService))
+            .setControllerAdvice(new GlobalExceptionHandler())
+            .build();
+
+    @Test
+    void concurrentRoomBookingDecisionIsAConflict() throws Exception {
+        doThrow(new ObjectOptimisticLockingFailureException(RoomBooking.class, ID))
+                .when(bookingService).updateBookingStatus(ID.toString(), RoomBooking.Status.APPROVED);
+
+        mockMvc.perform(put("/api/bookings/{id}/approve", ID))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.success").value(false))
+                .andExpect(jsonPath("$.message").value("This record was changed by someone else. Reload and try again."));
+    }
+
+    @Test
+    void disallowedRoomBookingTransitionIsAConflict() throws Exception {
+        doThrow(new InvalidStatusTransitionException("room booking", RoomBooking.Status.REJECTED,
+                RoomBooking.Status.REJECTED))
+                .when(bookingService).updateBookingStatus(ID.toString(), RoomBooking.Status.REJECTED);
+
+        mockMvc.perform(put("/api/bookings/{id}/reject", ID))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.message").value("Cannot move room booking from REJECTED to REJECTED"));
+    }
+
+    @Test
+    void concurrentVolunteerApplicationDecisionIsAConflict() throws Exception {
+        when(volunteerService.updateApplicationStatus(ID, VolunteerApplication.Status.APPROVED))
+                .thenThrow(new ObjectOptimisticLockingFailureException(VolunteerApplication.class, ID));
+
+        mockMvc.perform(put("/api/volunteer-opportunities/applications/{id}/status", ID).param("status", "APPROVED"))
+                .andExpect(status().isConflict());
+    }
+
+    @Test
+    void disallowedVolunteerApplicationTransitionIsAConflict() throws Exception {
+        when(volunteerService.updateApplicationStatus(ID, VolunteerApplication.Status.PENDING))
+                .thenThrow(new InvalidStatusTransitionException("volunteer application",
+                        VolunteerApplication.Status.APPROVED, VolunteerApplication.Status.PENDING));
+
+        mockMvc.perform(put("/api/volunteer-opportunities/applications/{id}/status", ID).param("status", "PENDING"))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.message").value("Cannot move volunteer application from APPROVED to PENDING"));
+    }
+}
@@ -0,0 +1,158 @@
+package com.seva.repository;
+
+import com.seva.entity.Users;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.postgresql.PostgreSQLContainer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs the upsert against a real Postgres, since ON CONFLICT ... DO UPDATE has no
+ * faithful in-memory stand-in. Skipped where Docker is not available.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class UsersRepositoryImplPostgresTest {
+
+    private static final String PHONE = "9000000001";
+
+    @Container
+    private static final PostgreSQLContainer POSTGRES = new PostgreSQLContainer("postgres:16-alpine");
+
+    private static NamedParameterJdbcTemplate jdbcTemplate;
+    private static UsersRepositoryImpl repository;
+
+    @BeforeAll
+    static void createUsersTable() {
+        jdbcTemplate = new NamedParameterJdbcTemplate(new DriverManagerDataSource(POSTGRES.getJdbcUrl(),
+                POSTGRES.getUsername(), POSTGRES.getPassword()));
+        repository = new UsersRepositoryImpl(jdbcTemplate);
+        jdbcTemplate.getJdbcTemplate().execute("""
+                CREATE TABLE users (
+                    id UUID PRIMARY KEY,
+                    phone_number VARCHAR(255) UNIQUE,
+                    full_name VARCHAR(255),
+                    email VARCHAR(255),
+                    gothra VARCHAR(255),
+                    rashi VARCHAR(255),
+                    nakshatra VARCHAR(255),
+                    address VARCHAR(255),
+                    city VARCHAR(255),
+                    state VARCHAR(255),
+                    pincode VARCHAR(255),
+                    role VARCHAR(255),
+                    consent_data_storage BOOLEAN,
+                    consent_communications BOOLEAN,
+                    fcm_token VARCHAR(255),
+                    is_volunteer BOOLEAN,
+                    volunteer_request BOOLEAN,
+                    is_admin BOOLEAN,
+                    token_version INTEGER NOT NULL DEFAULT 0,
+                    created_at TIMESTAMP
+                )""");
+    }
+
+    @BeforeEach
+    void clearUsers() {
+        jdbcTemplate.getJdbcTemplate().execute("DELETE FROM users");
+    }
+
+    @Test
+    void insertsANewUserAsAPlainUser() {
+        Users user = request();
+        user.setFullName("Devotee");
+
+        Users saved = repository.upsertByPhoneNumber(user);
+
+        assertThat(saved.getId()).isNotNull();
+        assertThat(saved.getFullName()).isEqualTo("Devotee");
+        assertThat(saved.getRole()).isEqualTo(Users.Role.USER);
+        assertThat(saved.getIsAdmin()).isFalse();
+        assertThat(saved.getIsVolunteer()).isFalse();
+        assertThat(saved.getVolunteerRequest()).isFalse();
+        assertThat(saved.getTokenVersion()).isZero();
+        assertThat(saved.getCreatedAt()).isNotNull();
+    }
+
+    @Test
+    void mergesOnlyTheGivenFieldsIntoTheExistingUser() {
+        Users first = request();
+        first.setFullName("Devotee");
+        first.setEmail("devotee@example.org");
+        first.setCity("Udupi");
+        UUID id = repository.upsertByPhoneNumber(first).getId();
+        jdbcTemplate.getJdbcTemplate().update(
+                "UPDATE users SET role = 'ADMIN', is_admin = true, is_volunteer = true, volunteer_request = true,"
+                        + " token_version = 3 WHERE id = ?", id);
+
+        Users update = request();
+        update.setFullName("Devotee Rao");
+        update.setPincode("576101");
+        update.setIsVolunteer(false);
+        Users merged = repository.upsertByPhoneNumber(update);
+
+        assertThat(merged.getId()).isEqualTo(id);
+        assertThat(merged.getFullName()).isEqualTo("Devotee Rao");
+        assertThat(merged.getPincode()).isEqualTo("576101");
+        assertThat(merged.getEmail()).isEqualTo("devotee@example.org");
+        assertThat(merged.getCity()).isEqualTo("Udupi");
+        assertThat(merged.getRole()).isEqualTo(Users.Role.ADMIN);
+        assertThat(merged.getIsAdmin()).isTrue();
+        assertThat(merged.getIsVolunteer()).isTrue();
+        assertThat(merged.getVolunteerRequest()).isTrue();
+        assertThat(merged.getTokenVersion()).isEqualTo(3);
+    }
+
+    @Test
+    void concurrentRegistrationsForOneNumberCreateOneUser() throws Exception {
+        int threads = 16;
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<UUID>> results = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                String name = "Devotee " + t;
+                results.add(pool.submit(() -> {
+                    Users user = request();
+                    user.setFullName(name);
+                    start.await();
+                    return repository.upsertByPhoneNumber(user).getId();
+                }));
+            }
+            start.countDown();
+            List<UUID> ids = new ArrayList<>();
+            for (Future<UUID> result : results) {
+                ids.add(result.get(30, TimeUnit.SECONDS));
+            }
+
+            assertThat(ids).containsOnly(ids.get(0));
+            assertThat(jdbcTemplate.queryForObject("SELECT count(*) FROM users", Map.of(), Long.class))
+                    .isEqualTo(1);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private static Users request() {
+        Users user = new Users();
+        user.setPhoneNumber(PHONE);
+        user.setIsVolunteer(null);
+        user.setVolunteerRequest(null);
+        return user;
+    }
+}
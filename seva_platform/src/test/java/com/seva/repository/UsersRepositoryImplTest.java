@@ -0,0 +1,108 @@
+package com.seva.repository;
+
+import com.seva.entity.Users;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+
+import java.sql.Types;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class UsersRepositoryImplTest {
+
+    private static final List<String> PROFILE_COLUMNS = List.of("full_name", "email", "gothra", "rashi",
+            "nakshatra", "address", "city", "state", "pincode", "consent_data_storage", "consent_communications",
+            "fcm_token");
+
+    private final NamedParameterJdbcTemplate jdbcTemplate = mock(NamedParameterJdbcTemplate.class);
+    private final UsersRepositoryImpl repository = new UsersRepositoryImpl(jdbcTemplate);
+
+    @Test
+    void upsertsOnThePhoneNumberInOneStatementAndReturnsTheRow() {
+        Users saved = new Users();
+        when(jdbcTemplate.queryForObject(anyString(), any(SqlParameterSource.class), any(RowMapper.class)))
+                .thenReturn(saved);
+
+        assertThat(repository.upsertByPhoneNumber(user())).isSameAs(saved);
+
+        assertThat(upsert().sql())
+                .startsWith("INSERT INTO users")
+                .contains("ON CONFLICT (phone_number) DO UPDATE SET")
+                .endsWith("RETURNING *");
+    }
+
+    @Test
+    void keepsTheStoredValueOfEveryProfileFieldThatIsNotGiven() {
+        repository.upsertByPhoneNumber(user());
+
+        String updates = upsert().updateClause();
+        for (String column : PROFILE_COLUMNS) {
+            assertThat(updates).contains(column + " = COALESCE(EXCLUDED." + column + ", users." + column + ")");
+        }
+        // EXCLUDED.volunteer_request is never null because the insert defaults it, so the parameter is used
+        assertThat(updates).contains("volunteer_request = COALESCE(:volunteerRequest, users.volunteer_request)");
+    }
+
+    @Test
+    void neverChangesTheRoleOrFlagsOfAnExistingUser() {
+        repository.upsertByPhoneNumber(user());
+
+        assertThat(upsert().updateClause())
+                .doesNotContain("role")
+                .doesNotContain("is_admin")
+                .doesNotContain("is_volunteer")
+                .doesNotContain("token_version")
+                .doesNotContain("created_at")
+                .doesNotContain("id =");
+        assertThat(upsert().sql()).contains("'USER'", "COALESCE(:isVolunteer, false)", "false, 0, now())");
+    }
+
+    @Test
+    void bindsFieldsThatAreNotGivenAsTypedNulls() {
+        repository.upsertByPhoneNumber(user());
+
+        MapSqlParameterSource params = upsert().params();
+        assertThat(params.getValue("id")).isInstanceOf(UUID.class);
+        assertThat(params.getSqlType("id")).isEqualTo(Types.OTHER);
+        assertThat(params.getValue("phoneNumber")).isEqualTo("9000000001");
+        assertThat(params.getValue("fullName")).isEqualTo("Devotee");
+        assertThat(params.getValue("email")).isNull();
+        assertThat(params.getSqlType("email")).isEqualTo(Types.VARCHAR);
+        assertThat(params.getValue("volunteerRequest")).isNull();
+        assertThat(params.getSqlType("volunteerRequest")).isEqualTo(Types.BOOLEAN);
+    }
+
+    private static Users user() {
+        Users user = new Users();
+        user.setPhoneNumber("9000000001");
+        user.setFullName("Devotee");
+        user.setIsVolunteer(null);
+        user.setVolunteerRequest(null);
+        return user;
+    }
+
+    private record Upsert(String sql, MapSqlParameterSource params) {
+        String updateClause() {
+            return sql.substring(sql.indexOf("DO UPDATE SET"), sql.indexOf("RETURNING"));
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private Upsert upsert() {
+        ArgumentCaptor<String> sql = ArgumentCaptor.forClass(String.class);
+        ArgumentCaptor<SqlParameterSource> params = ArgumentCaptor.forClass(SqlParameterSource.class);
+        verify(jdbcTemplate).queryForObject(sql.capture(), params.capture(), any(RowMapper.class));
+        return new Upsert(sql.getValue(), (MapSqlParameterSource) params.getValue());
+    }
+}
@@ -0,0 +1,54 @@
+package com.seva.security;
+
+import com.seva.config.RateLimitProperties;
+import com.seva.exception.RateLimitExceededException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class AuthRateLimiterTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void phoneRejectionDoesNotSpendTheIpToken() {
+        RateLimitProperties properties = new RateLimitProperties();
+        properties.setSendOtp(new RateLimitProperties.Endpoint(
+                new RateLimitProperties.Limit(1, Duration.ofHours(1)),
+                new RateLimitProperties.Limit(2, Duration.ofHours(1))));
+        AuthRateLimiter limiter = new AuthRateLimiter(properties, meterRegistry);
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setRemoteAddr("10.0.0.1");
+
+        limiter.checkSendOtp("9000000001", request);
+        assertThatThrownBy(() -> limiter.checkSendOtp("9000000001", request))
+                .isInstanceOf(RateLimitExceededException.class);
+
+        // The IP still has its second token for another number
+        limiter.checkSendOtp("9000000002", request);
+        assertThatThrownBy(() -> limiter.checkSendOtp("9000000003", request))
+                .isInstanceOf(RateLimitExceededException.class);
+        assertThat(meterRegistry.counter("auth.rate_limit.rejected", "endpoint", "send-otp").count())
+                .isEqualTo(2);
+    }
+
+    @Test
+    void reportsRetryAfterInWholeSeconds() {
+        RateLimitProperties properties = new RateLimitProperties();
+        properties.setVerifyOtp(new RateLimitProperties.Endpoint(
+                new RateLimitProperties.Limit(1, Duration.ofMinutes(10)),
+                new RateLimitProperties.Limit(10, Duration.ofMinutes(1))));
+        AuthRateLimiter limiter = new AuthRateLimiter(properties, meterRegistry);
+        MockHttpServletRequest request = new MockHttpServletRequest();
+
+        limiter.checkVerifyOtp("9000000001", request);
+        assertThatThrownBy(() -> limiter.checkVerifyOtp("9000000001", request))
+                .isInstanceOfSatisfying(RateLimitExceededException.class,
+                        e -> assertThat(e.getRetryAfterSeconds()).isBetween(1L, 601L));
+    }
+}
@@ -0,0 +1,128 @@
+package com.seva.security;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TokenBucketRateLimiterTest {
+
+    @Test
+    void allowsBurstUpToCapacityThenRejects() {
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(3, Duration.ofHours(1));
+
+        assertThat(limiter.tryAcquire("a")).isZero();
+        assertThat(limiter.tryAcquire("a")).isZero();
+        assertThat(limiter.tryAcquire("a")).isZero();
+
+        long wait = limiter.tryAcquire("a");
+        assertThat(wait).isPositive().isLessThanOrEqualTo(Duration.ofMinutes(20).toNanos());
+    }
+
+    @Test
+    void keysHaveSeparateBuckets() {
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(1, Duration.ofHours(1));
+
+        assertThat(limiter.tryAcquire("a")).isZero();
+        assertThat(limiter.tryAcquire("a")).isPositive();
+        assertThat(limiter.tryAcquire("b")).isZero();
+    }
+
+    @Test
+    void refillsAfterTheReportedWait() throws InterruptedException {
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(1, Duration.ofMillis(50));
+
+        assertThat(limiter.tryAcquire("a")).isZero();
+        long wait = limiter.tryAcquire("a");
+        assertThat(wait).isPositive();
+
+        Thread.sleep(TimeUnit.NANOSECONDS.toMillis(wait) + 5);
+        assertThat(limiter.tryAcquire("a")).isZero();
+    }
+
+    @Test
+    void releaseGivesTheTokenBack() {
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(1, Duration.ofHours(1));
+
+        assertThat(limiter.tryAcquire("a")).isZero();
+        limiter.release("a");
+
+        assertThat(limiter.tryAcquire("a")).isZero();
+        assertThat(limiter.tryAcquire("a")).isPositive();
+    }
+
+    @Test
+    void releaseNeverRaisesABucketAboveCapacity() {
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(2, Duration.ofHours(1));
+
+        limiter.release("a");
+        assertThat(limiter.tryAcquire("a")).isZero();
+        limiter.release("a");
+        limiter.release("a");
+
+        assertThat(limiter.tryAcquire("a")).isZero();
+        assertThat(limiter.tryAcquire("a")).isZero();
+        assertThat(limiter.tryAcquire("a")).isPositive();
+    }
+
+    @Test
+    void evictIdleDropsOnlyRefilledBuckets() throws InterruptedException {
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(1, Duration.ofMillis(20));
+        TokenBucketRateLimiter slow = new TokenBucketRateLimiter(1, Duration.ofHours(1));
+        limiter.tryAcquire("a");
+        slow.tryAcquire("a");
+
+        Thread.sleep(40);
+        limiter.evictIdle();
+        slow.evictIdle();
+
+        assertThat(limiter.size()).isZero();
+        assertThat(slow.size()).isEqualTo(1);
+    }
+
+    @Test
+    void concurrentCallersNeverExceedCapacity() throws Exception {
+        int capacity = 50;
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(capacity, Duration.ofHours(1));
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<Integer>> results = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                results.add(pool.submit(() -> {
+                    start.await();
+                    int allowed = 0;
+                    for (int i = 0; i < 100; i++) {
+                        if (limiter.tryAcquire("shared") == 0) {
+                            allowed++;
+                        }
+                    }
+                    return allowed;
+                }));
+            }
+            start.countDown();
+            int allowed = 0;
+            for (Future<Integer> result : results) {
+                allowed += result.get(10, TimeUnit.SECONDS);
+            }
+            assertThat(allowed).isEqualTo(capacity);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    void rejectsEmptyCapacity() {
+        assertThatThrownBy(() -> new TokenBucketRateLimiter(0, Duration.ofMinutes(1)))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
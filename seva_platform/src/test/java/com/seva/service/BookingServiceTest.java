@@ -0,0 +1,199 @@
+package com.seva.service;
+
+import com.seva.config.PaymentProperties;
+import com.seva.dto.BulkStatusUpdateResponse;
+import com.seva.entity.RoomBooking;
+import com.seva.entity.Seva;
+import com.seva.entity.SevaBooking;
+import com.seva.entity.Users;
+import com.seva.exception.InvalidStatusTransitionException;
+import com.seva.repository.PaymentOrderOutboxRepository;
+import com.seva.repository.RoomBookingRepository;
+import com.seva.repository.SevaBookingRepository;
+import com.seva.repository.SevaRepository;
+import jakarta.persistence.Version;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class BookingServiceTest {
+
+    private static final String GUEST_HOUSE = "Main";
+    private static final LocalDate CHECK_IN = LocalDate.of(2026, 11, 1);
+
+    private final RoomBookingRepository roomBookingRepository = mock(RoomBookingRepository.class);
+    private final SevaBookingRepository sevaBookingRepository = mock(SevaBookingRepository.class);
+    private final PaymentService paymentService = mock(PaymentService.class);
+    private final EmailService emailService = mock(EmailService.class);
+    private final RoomInventoryService roomInventoryService = mock(RoomInventoryService.class);
+    private final ApplicationEventPublisher eventPublisher = mock(ApplicationEventPublisher.class);
+    private final BookingService bookingService = new BookingService(roomBookingRepository, sevaBookingRepository,
+            mock(SevaRepository.class), paymentService, emailService, mock(UserProfileCache.class),
+            roomInventoryService, eventPublisher, mock(SevaQuotaService.class), mock(SevaQuotaView.class),
+            mock(PaymentOrderOutboxRepository.class), new PaymentProperties(), mock(TransactionTemplate.class));
+
+    private RoomBooking roomBooking(RoomBooking.Status status) {
+        RoomBooking booking = new RoomBooking();
+        booking.setId(UUID.randomUUID());
+        booking.setUserId("9000000001");
+        booking.setGuestHouse(GUEST_HOUSE);
+        booking.setCheckInDate(CHECK_IN);
+        booking.setCheckOutDate(CHECK_IN.plusDays(2));
+        booking.setNumberOfRooms(1);
+        booking.setStatus(status);
+        when(roomBookingRepository.findById(booking.getId())).thenReturn(Optional.of(booking));
+        return booking;
+    }
+
+    private SevaBooking sevaBooking(SevaBooking.BookingStatus status) {
+        Seva seva = new Seva();
+        seva.setTitleEnglish("Ksheerabhisheka");
+        Users user = new Users();
+        user.setEmail("devotee@example.org");
+        SevaBooking booking = new SevaBooking();
+        booking.setId(UUID.randomUUID());
+        booking.setSeva(seva);
+        booking.setUser(user);
+        booking.setRazorpayOrderId("order_1");
+        booking.setStatus(status);
+        when(sevaBookingRepository.findById(booking.getId())).thenReturn(Optional.of(booking));
+        return booking;
+    }
+
+    @Test
+    void bookingsCarryAnOptimisticLockVersion() throws NoSuchFieldException {
+        assertThat(RoomBooking.class.getDeclaredField("version").isAnnotationPresent(Version.class)).isTrue();
+        assertThat(SevaBooking.class.getDeclaredField("version").isAnnotationPresent(Version.class)).isTrue();
+    }
+
+    @Test
+    void rejectedRoomBookingCannotBeApproved() {
+        RoomBooking booking = roomBooking(RoomBooking.Status.REJECTED);
+
+        assertThatThrownBy(() -> bookingService.updateBookingStatus(booking.getId().toString(),
+                RoomBooking.Status.APPROVED))
+                .isInstanceOf(InvalidStatusTransitionException.class)
+                .hasMessage("Cannot move room booking from REJECTED to APPROVED");
+
+        assertThat(booking.getStatus()).isEqualTo(RoomBooking.Status.REJECTED);
+        verify(roomBookingRepository, never()).save(any());
+        verifyNoInteractions(roomInventoryService, eventPublisher);
+    }
+
+    @Test
+    void waitlistedRoomBookingCannotBeApprovedByHand() {
+        RoomBooking booking = roomBooking(RoomBooking.Status.WAITLISTED);
+
+        assertThatThrownBy(() -> bookingService.updateBookingStatus(booking.getId().toString(),
+                RoomBooking.Status.APPROVED)).isInstanceOf(IllegalArgumentException.class);
+
+        verify(roomBookingRepository, never()).save(any());
+    }
+
+    @Test
+    void rejectingAPendingRoomBookingReleasesItsRooms() {
+        RoomBooking booking = roomBooking(RoomBooking.Status.PENDING);
+
+        bookingService.updateBookingStatus(booking.getId().toString(), RoomBooking.Status.REJECTED);
+
+        assertThat(booking.getStatus()).isEqualTo(RoomBooking.Status.REJECTED);
+        verify(roomInventoryService).release(GUEST_HOUSE, CHECK_IN, CHECK_IN.plusDays(2), 1);
+        verify(roomBookingRepository).save(booking);
+        verify(eventPublisher).publishEvent(new RoomBookingStatusChangedEvent(RoomBooking.Status.REJECTED,
+                List.of(booking)));
+    }
+
+    @Test
+    void staleRoomBookingWriteFailsWithoutNotifyingTheGuest() {
+        RoomBooking booking = roomBooking(RoomBooking.Status.PENDING);
+        when(roomBookingRepository.save(booking))
+                .thenThrow(new ObjectOptimisticLockingFailureException(RoomBooking.class, booking.getId()));
+
+        assertThatThrownBy(() -> bookingService.updateBookingStatus(booking.getId().toString(),
+                RoomBooking.Status.APPROVED)).isInstanceOf(ObjectOptimisticLockingFailureException.class);
+
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    @Test
+    void bulkUpdateReportsDisallowedTransitionsAndLeavesThemUntouched() {
+        RoomBooking rejected = roomBooking(RoomBooking.Status.REJECTED);
+        RoomBooking pending = roomBooking(RoomBooking.Status.PENDING);
+        when(roomBookingRepository.findAllByIdForUpdate(anyCollection())).thenReturn(List.of(rejected, pending));
+        when(roomBookingRepository.findIdsWithApprovedOverlap(anyCollection())).thenReturn(List.of());
+
+        BulkStatusUpdateResponse response = bookingService.bulkUpdateBookingStatus(
+                List.of(rejected.getId().toString(), pending.getId().toString()), "APPROVED");
+
+        assertThat(response.getUpdated()).isEqualTo(1);
+        assertThat(response.getResults()).extracting(BulkStatusUpdateResponse.Result::getOutcome)
+                .containsExactly(BulkStatusUpdateResponse.Outcome.NOT_ALLOWED,
+                        BulkStatusUpdateResponse.Outcome.UPDATED);
+        verify(roomBookingRepository).updateStatus(List.of(pending.getId()), "APPROVED");
+    }
+
+    @Test
+    void cancelledSevaBookingCannotBeConfirmedByALatePayment() {
+        SevaBooking booking = sevaBooking(SevaBooking.BookingStatus.CANCELLED);
+        when(paymentService.verifySignature("order_1", "pay_1", "sig")).thenReturn(true);
+
+        assertThatThrownBy(() -> bookingService.completeSevaBooking(booking.getId(), "pay_1", "sig"))
+                .isInstanceOf(InvalidStatusTransitionException.class)
+                .hasMessage("Cannot move seva booking from CANCELLED to CONFIRMED");
+
+        assertThat(booking.getStatus()).isEqualTo(SevaBooking.BookingStatus.CANCELLED);
+        verify(sevaBookingRepository, never()).save(any());
+        verify(emailService, never()).sendEmail(anyString(), anyString(), anyString());
+    }
+
+    @Test
+    void failedSevaBookingIsConfirmedByALaterPayment() {
+        SevaBooking booking = sevaBooking(SevaBooking.BookingStatus.FAILED);
+        when(paymentService.verifySignature("order_1", "pay_2", "sig")).thenReturn(true);
+
+        bookingService.completeSevaBooking(booking.getId(), "pay_2", "sig");
+
+        assertThat(booking.getStatus()).isEqualTo(SevaBooking.BookingStatus.CONFIRMED);
+        assertThat(booking.getPaymentStatus()).isEqualTo(SevaBooking.PaymentStatus.PAID);
+        verify(sevaBookingRepository).save(booking);
+    }
+
+    @Test
+    void repeatedConfirmationOfTheSamePaymentIsANoOp() {
+        SevaBooking booking = sevaBooking(SevaBooking.BookingStatus.CONFIRMED);
+        booking.setRazorpayPaymentId("pay_1");
+
+        assertThat(bookingService.completeSevaBooking(booking.getId(), "pay_1", "sig")).isSameAs(booking);
+
+        verifyNoInteractions(paymentService);
+        verify(sevaBookingRepository, never()).save(any());
+    }
+
+    @Test
+    void staleSevaBookingWriteFails() {
+        SevaBooking booking = sevaBooking(SevaBooking.BookingStatus.PENDING);
+        when(paymentService.verifySignature("order_1", "pay_1", "sig")).thenReturn(false);
+        when(sevaBookingRepository.save(booking))
+                .thenThrow(new ObjectOptimisticLockingFailureException(SevaBooking.class, booking.getId()));
+
+        assertThatThrownBy(() -> bookingService.completeSevaBooking(booking.getId(), "pay_1", "sig"))
+                .isInstanceOf(ObjectOptimisticLockingFailureException.class);
+    }
+}
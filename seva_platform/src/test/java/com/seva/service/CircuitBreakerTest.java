@@ -0,0 +1,184 @@
+package com.seva.service;
+
+import com.seva.config.PaymentProperties;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CircuitBreakerTest {
+
+    private static CircuitBreaker breaker(Duration openDuration, int halfOpenProbes) {
+        PaymentProperties.CircuitBreaker properties = new PaymentProperties.CircuitBreaker();
+        properties.setFailureRateThreshold(50);
+        properties.setSlidingWindowSize(4);
+        properties.setMinimumCalls(4);
+        properties.setOpenDuration(openDuration);
+        properties.setHalfOpenProbes(halfOpenProbes);
+        return new CircuitBreaker(properties);
+    }
+
+    private static long acquire(CircuitBreaker breaker) {
+        long permit = breaker.tryAcquire();
+        assertThat(permit).isNotEqualTo(CircuitBreaker.NOT_PERMITTED);
+        return permit;
+    }
+
+    private static void call(CircuitBreaker breaker, boolean fail) {
+        long permit = acquire(breaker);
+        if (fail) {
+            breaker.onFailure(permit);
+        } else {
+            breaker.onSuccess(permit);
+        }
+    }
+
+    private static CircuitBreaker openBreaker(Duration openDuration, int halfOpenProbes) {
+        CircuitBreaker breaker = breaker(openDuration, halfOpenProbes);
+        for (int i = 0; i < 4; i++) {
+            call(breaker, true);
+        }
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+        return breaker;
+    }
+
+    @Test
+    void staysClosedUntilMinimumCallsAreRecorded() {
+        CircuitBreaker breaker = breaker(Duration.ofMinutes(1), 1);
+
+        call(breaker, true);
+        call(breaker, true);
+        call(breaker, true);
+
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+    }
+
+    @Test
+    void opensWhenTheFailureRateReachesTheThreshold() {
+        CircuitBreaker breaker = breaker(Duration.ofMinutes(1), 1);
+
+        call(breaker, false);
+        call(breaker, true);
+        call(breaker, false);
+        call(breaker, true);
+
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+        assertThat(breaker.tryAcquire()).isEqualTo(CircuitBreaker.NOT_PERMITTED);
+    }
+
+    @Test
+    void oldOutcomesLeaveTheSlidingWindow() {
+        CircuitBreaker breaker = breaker(Duration.ofMinutes(1), 1);
+
+        call(breaker, true);
+        for (int i = 0; i < 4; i++) {
+            call(breaker, false);
+        }
+        // The early failure has been pushed out; one failure in four is below 50%
+        call(breaker, true);
+
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+    }
+
+    @Test
+    void closesAfterAllHalfOpenProbesSucceed() throws InterruptedException {
+        CircuitBreaker breaker = openBreaker(Duration.ofMillis(20), 2);
+        Thread.sleep(40);
+
+        long first = acquire(breaker);
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.HALF_OPEN);
+        long second = acquire(breaker);
+        assertThat(breaker.tryAcquire()).isEqualTo(CircuitBreaker.NOT_PERMITTED);
+
+        breaker.onSuccess(first);
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.HALF_OPEN);
+        breaker.onSuccess(second);
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+    }
+
+    @Test
+    void reopensWhenAProbeFails() throws InterruptedException {
+        CircuitBreaker breaker = openBreaker(Duration.ofMillis(20), 2);
+        Thread.sleep(40);
+
+        breaker.onFailure(acquire(breaker));
+
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+        assertThat(breaker.tryAcquire()).isEqualTo(CircuitBreaker.NOT_PERMITTED);
+    }
+
+    @Test
+    void ignoredProbeHandsItsSlotBack() throws InterruptedException {
+        CircuitBreaker breaker = openBreaker(Duration.ofMillis(20), 1);
+        Thread.sleep(40);
+
+        long probe = acquire(breaker);
+        assertThat(breaker.tryAcquire()).isEqualTo(CircuitBreaker.NOT_PERMITTED);
+
+        // e.g. the probing thread was interrupted before the gateway answered
+        breaker.onIgnored(probe);
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.HALF_OPEN);
+
+        breaker.onSuccess(acquire(breaker));
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+    }
+
+    @Test
+    void ignoredCallsDoNotCountWhileClosed() {
+        CircuitBreaker breaker = breaker(Duration.ofMinutes(1), 1);
+
+        for (int i = 0; i < 10; i++) {
+            breaker.onIgnored(acquire(breaker));
+        }
+        call(breaker, true);
+
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+    }
+
+    @Test
+    void lateSuccessOfACallAdmittedWhileClosedIsNotAProbe() throws InterruptedException {
+        CircuitBreaker breaker = breaker(Duration.ofMillis(20), 1);
+        long slowCall = acquire(breaker);
+        for (int i = 0; i < 4; i++) {
+            call(breaker, true);
+        }
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+        Thread.sleep(40);
+
+        long probe = acquire(breaker);
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.HALF_OPEN);
+        breaker.onSuccess(slowCall);
+
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.HALF_OPEN);
+        breaker.onSuccess(probe);
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+    }
+
+    @Test
+    void lateOutcomesFromAnEarlierGenerationChangeNothing() throws InterruptedException {
+        CircuitBreaker breaker = breaker(Duration.ofMillis(20), 1);
+        long slowFailure = acquire(breaker);
+        long slowIgnored = acquire(breaker);
+        for (int i = 0; i < 4; i++) {
+            call(breaker, true);
+        }
+        Thread.sleep(40);
+        long probe = acquire(breaker);
+
+        // Neither reopens the breaker nor hands back the probe slot
+        breaker.onFailure(slowFailure);
+        breaker.onIgnored(slowIgnored);
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.HALF_OPEN);
+        assertThat(breaker.tryAcquire()).isEqualTo(CircuitBreaker.NOT_PERMITTED);
+
+        breaker.onSuccess(probe);
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+
+        // A call from before the breaker opened does not count against the fresh window either
+        for (int i = 0; i < 4; i++) {
+            breaker.onFailure(slowFailure);
+        }
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+    }
+}
@@ -0,0 +1,128 @@
+package com.seva.service;
+
+import com.seva.config.RoomInventoryProperties;
+import com.seva.dto.RoomAvailabilityResponse;
+import com.seva.entity.RoomInventory;
+import com.seva.repository.RoomInventoryRepository;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class RoomAvailabilityCalendarTest {
+
+    private static final String HOUSE = "SODE";
+
+    private final RoomInventoryRepository roomInventoryRepository = mock(RoomInventoryRepository.class);
+    private final RoomInventoryProperties properties = new RoomInventoryProperties();
+    private final YearMonth month = YearMonth.now().plusMonths(1);
+    private final LocalDate night = month.atDay(10);
+
+    private RoomAvailabilityCalendar calendar() {
+        return new RoomAvailabilityCalendar(roomInventoryRepository, properties);
+    }
+
+    private static RoomInventory row(LocalDate date, int capacity, int reserved) {
+        RoomInventory row = new RoomInventory();
+        row.setGuestHouse(HOUSE);
+        row.setStayDate(date);
+        row.setCapacity(capacity);
+        row.setReserved(reserved);
+        return row;
+    }
+
+    private static RoomAvailabilityResponse.Day day(RoomAvailabilityResponse response, LocalDate date) {
+        return response.getDays().get(date.getDayOfMonth() - 1);
+    }
+
+    @Test
+    void servesLedgerRowsAndDefaultsTheRest() {
+        when(roomInventoryRepository.findByGuestHouseAndStayDateBetween(HOUSE, month.atDay(1), month.atEndOfMonth()))
+                .thenReturn(List.of(row(night, 10, 4)));
+
+        RoomAvailabilityResponse response = calendar().getMonth(HOUSE, month);
+
+        assertThat(response.getDays()).hasSize(month.lengthOfMonth());
+        assertThat(day(response, night).getAvailable()).isEqualTo(6);
+        assertThat(day(response, night.plusDays(1)).getAvailable()).isEqualTo(properties.getDefaultCapacity());
+    }
+
+    @Test
+    void appliesDeltasToLoadedMonthsOnly() {
+        when(roomInventoryRepository.findByGuestHouseAndStayDateBetween(eq(HOUSE), any(), any()))
+                .thenReturn(List.of());
+        RoomAvailabilityCalendar calendar = calendar();
+        calendar.getMonth(HOUSE, month);
+
+        // The stay runs into the next month, which nobody has asked for yet
+        calendar.applyReservation(HOUSE, month.atEndOfMonth().minusDays(1), month.plusMonths(1).atDay(2), 3);
+        calendar.applyCapacity(HOUSE, night, night, 5);
+        calendar.applyReservation(HOUSE, night, night.plusDays(1), 2);
+
+        RoomAvailabilityResponse response = calendar.getMonth(HOUSE, month);
+        assertThat(day(response, month.atEndOfMonth()).getReserved()).isEqualTo(3);
+        assertThat(day(response, night).getAvailable()).isEqualTo(3);
+        assertThat(day(calendar.getMonth(HOUSE, month.plusMonths(1)), month.plusMonths(1).atDay(1)).getReserved())
+                .isZero();
+    }
+
+    @Test
+    void rejectsMonthsOutsideTheWindow() {
+        RoomAvailabilityCalendar calendar = calendar();
+        YearMonth current = YearMonth.now();
+
+        assertThatThrownBy(() -> calendar.getMonth(HOUSE, current.minusMonths(1)))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> calendar.getMonth(HOUSE, current.plusMonths(13)))
+                .isInstanceOf(IllegalArgumentException.class);
+        calendar.getMonth(HOUSE, current);
+        calendar.getMonth(HOUSE, current.plusMonths(12));
+    }
+
+    @Test
+    void deltaArrivingDuringAReloadIsNotLost() throws Exception {
+        AtomicInteger reserved = new AtomicInteger(1);
+        CountDownLatch reloading = new CountDownLatch(1);
+        CountDownLatch finishReload = new CountDownLatch(1);
+        AtomicInteger loads = new AtomicInteger();
+        when(roomInventoryRepository.findByGuestHouseAndStayDateBetween(eq(HOUSE), any(), any())).thenAnswer(call -> {
+            List<RoomInventory> snapshot = List.of(row(night, 10, reserved.get()));
+            if (loads.incrementAndGet() == 2) {
+                reloading.countDown();
+                finishReload.await(5, TimeUnit.SECONDS);
+            }
+            return snapshot;
+        });
+        RoomAvailabilityCalendar calendar = calendar();
+        calendar.getMonth(HOUSE, month);
+
+        Thread refresher = new Thread(calendar::refresh);
+        refresher.start();
+        assertThat(reloading.await(5, TimeUnit.SECONDS)).isTrue();
+
+        // Committed after the reload read the ledger, so only the delta can carry it
+        reserved.addAndGet(2);
+        Thread booker = new Thread(() -> calendar.applyReservation(HOUSE, night, night.plusDays(1), 2));
+        booker.start();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (booker.getState() == Thread.State.RUNNABLE && System.nanoTime() < deadline) {
+            Thread.onSpinWait();
+        }
+        finishReload.countDown();
+        refresher.join(5000);
+        booker.join(5000);
+
+        assertThat(day(calendar.getMonth(HOUSE, month), night).getReserved()).isEqualTo(3);
+    }
+}
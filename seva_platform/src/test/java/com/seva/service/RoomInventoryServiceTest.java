@@ -0,0 +1,209 @@
+package com.seva.service;
+
+import com.seva.config.RoomInventoryProperties;
+import com.seva.dto.RoomAvailabilityResponse;
+import com.seva.entity.RoomInventory;
+import com.seva.repository.RoomInventoryRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class RoomInventoryServiceTest {
+
+    private static final String HOUSE = "SODE";
+
+    private record Stay(LocalDate checkIn, LocalDate checkOut, int rooms) {
+    }
+
+    /**
+     * In-memory stand-in for the room_inventory table, honouring the same contract as the
+     * native queries: a reservation updates every night of the stay or none of them.
+     */
+    private static final class Ledger {
+        private final TreeMap<LocalDate, int[]> nights = new TreeMap<>();
+
+        synchronized int ensureNights(LocalDate checkIn, LocalDate checkOut, int capacity) {
+            int created = 0;
+            for (LocalDate date = checkIn; date.isBefore(checkOut); date = date.plusDays(1)) {
+                if (nights.putIfAbsent(date, new int[] { capacity, 0 }) == null) {
+                    created++;
+                }
+            }
+            return created;
+        }
+
+        synchronized int reserve(LocalDate checkIn, LocalDate checkOut, int rooms) {
+            for (LocalDate date = checkIn; date.isBefore(checkOut); date = date.plusDays(1)) {
+                int[] night = nights.get(date);
+                if (night[1] + rooms > night[0]) {
+                    return 0;
+                }
+            }
+            int updated = 0;
+            for (LocalDate date = checkIn; date.isBefore(checkOut); date = date.plusDays(1)) {
+                nights.get(date)[1] += rooms;
+                updated++;
+            }
+            return updated;
+        }
+
+        synchronized int release(LocalDate checkIn, LocalDate checkOut, int rooms) {
+            int updated = 0;
+            for (LocalDate date = checkIn; date.isBefore(checkOut); date = date.plusDays(1)) {
+                int[] night = nights.get(date);
+                if (night != null) {
+                    night[1] = Math.max(0, night[1] - rooms);
+                    updated++;
+                }
+            }
+            return updated;
+        }
+
+        synchronized List<RoomInventory> rows(LocalDate from, LocalDate to) {
+            List<RoomInventory> rows = new ArrayList<>();
+            nights.subMap(from, true, to, true).forEach((date, night) -> {
+                RoomInventory row = new RoomInventory();
+                row.setGuestHouse(HOUSE);
+                row.setStayDate(date);
+                row.setCapacity(night[0]);
+                row.setReserved(night[1]);
+                rows.add(row);
+            });
+            return rows;
+        }
+
+        synchronized int reserved(LocalDate date) {
+            int[] night = nights.get(date);
+            return night != null ? night[1] : 0;
+        }
+    }
+
+    private final RoomInventoryRepository roomInventoryRepository = mock(RoomInventoryRepository.class);
+    private final RoomInventoryProperties properties = new RoomInventoryProperties();
+    private final RoomAvailabilityCalendar calendar = new RoomAvailabilityCalendar(roomInventoryRepository,
+            properties);
+    private final RoomInventoryService roomInventoryService = new RoomInventoryService(roomInventoryRepository,
+            calendar, properties, mock(ApplicationEventPublisher.class));
+
+    @Test
+    void resolvesOnlyConfiguredGuestHouses() {
+        properties.setGuestHouses(List.of("UDUPI"));
+
+        assertThat(roomInventoryService.resolveGuestHouse(null)).isEqualTo("SODE");
+        assertThat(roomInventoryService.resolveGuestHouse(" ")).isEqualTo("SODE");
+        assertThat(roomInventoryService.resolveGuestHouse("SODE")).isEqualTo("SODE");
+        assertThat(roomInventoryService.resolveGuestHouse("UDUPI")).isEqualTo("UDUPI");
+        assertThatThrownBy(() -> roomInventoryService.resolveGuestHouse("anything-else"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Unknown guest house");
+    }
+
+    @Test
+    void concurrentBookingsForTheSameNightsNeverOverbook() throws Exception {
+        Ledger ledger = new Ledger();
+        when(roomInventoryRepository.ensureNights(anyString(), any(), any(), anyInt())).thenAnswer(
+                call -> ledger.ensureNights(call.getArgument(1), call.getArgument(2), call.getArgument(3)));
+        when(roomInventoryRepository.reserve(anyString(), any(), any(), anyInt())).thenAnswer(
+                call -> ledger.reserve(call.getArgument(1), call.getArgument(2), call.getArgument(3)));
+        when(roomInventoryRepository.release(anyString(), any(), any(), anyInt())).thenAnswer(
+                call -> ledger.release(call.getArgument(1), call.getArgument(2), call.getArgument(3)));
+        when(roomInventoryRepository.findByGuestHouseAndStayDateBetween(anyString(), any(), any())).thenAnswer(
+                call -> ledger.rows(call.getArgument(1), call.getArgument(2)));
+
+        YearMonth month = YearMonth.now().plusMonths(1);
+        LocalDate first = month.atDay(1);
+        int capacity = properties.getDefaultCapacity();
+        // Loaded up front so every committed change reaches it as a delta
+        calendar.getMonth(HOUSE, month);
+
+        int threads = 16;
+        int bookingsPerThread = 25;
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<List<Stay>>> results = new ArrayList<>();
+        int[] rejected = new int[1];
+        try {
+            for (int t = 0; t < threads; t++) {
+                results.add(pool.submit(() -> {
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    List<Stay> kept = new ArrayList<>();
+                    start.await();
+                    for (int i = 0; i < bookingsPerThread; i++) {
+                        LocalDate checkIn = first.plusDays(random.nextInt(6));
+                        Stay stay = new Stay(checkIn, checkIn.plusDays(1 + random.nextInt(4)), 1 + random.nextInt(3));
+                        boolean reserved = inTransaction(() -> roomInventoryService.tryReserve(HOUSE,
+                                stay.checkIn(), stay.checkOut(), stay.rooms()));
+                        if (!reserved) {
+                            synchronized (rejected) {
+                                rejected[0]++;
+                            }
+                        } else if (random.nextInt(3) == 0) {
+                            // Cancelled or rejected by an admin later on
+                            inTransaction(() -> {
+                                roomInventoryService.release(HOUSE, stay.checkIn(), stay.checkOut(), stay.rooms());
+                                return true;
+                            });
+                        } else {
+                            kept.add(stay);
+                        }
+                    }
+                    return kept;
+                }));
+            }
+            start.countDown();
+
+            List<Stay> kept = new ArrayList<>();
+            for (Future<List<Stay>> result : results) {
+                kept.addAll(result.get(30, TimeUnit.SECONDS));
+            }
+
+            assertThat(rejected[0]).as("bookings turned away").isPositive();
+            RoomAvailabilityResponse view = calendar.getMonth(HOUSE, month);
+            for (LocalDate date = first; date.isBefore(first.plusDays(10)); date = date.plusDays(1)) {
+                LocalDate night = date;
+                int booked = kept.stream()
+                        .filter(stay -> !night.isBefore(stay.checkIn()) && night.isBefore(stay.checkOut()))
+                        .mapToInt(Stay::rooms).sum();
+                assertThat(ledger.reserved(night)).as("reserved on %s", night)
+                        .isEqualTo(booked).isLessThanOrEqualTo(capacity);
+                assertThat(view.getDays().get(night.getDayOfMonth() - 1).getReserved())
+                        .as("calendar on %s", night).isEqualTo(booked);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private static boolean inTransaction(BooleanSupplier call) {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            boolean result = call.getAsBoolean();
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+            return result;
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package com.seva.service;
+
+import com.seva.config.PaymentProperties;
+import com.seva.entity.SevaBooking;
+import com.seva.repository.SevaBookingRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class SettlementReconciliationServiceTest {
+
+    private record Booking(String getPaymentId, UUID getId, BigDecimal getAmount, SevaBooking.BookingStatus getStatus,
+            SevaBooking.PaymentStatus getPaymentStatus) implements SevaBookingRepository.SettledBooking {
+    }
+
+    private final SevaBookingRepository sevaBookingRepository = mock(SevaBookingRepository.class);
+    private final PaymentProperties paymentProperties = new PaymentProperties();
+    private final StringWriter out = new StringWriter();
+
+    @BeforeEach
+    void setUp() {
+        when(sevaBookingRepository.findSettledByPaymentIds(anyCollection())).thenReturn(List.of(
+                booking("pay_ok", "500.00", SevaBooking.BookingStatus.CONFIRMED, SevaBooking.PaymentStatus.PAID),
+                booking("pay_amount", "500.00", SevaBooking.BookingStatus.CONFIRMED, SevaBooking.PaymentStatus.PAID),
+                booking("pay_pending", "250.00", SevaBooking.BookingStatus.PENDING, SevaBooking.PaymentStatus.PENDING),
+                booking("pay_refunded", "100.00", SevaBooking.BookingStatus.CANCELLED,
+                        SevaBooking.PaymentStatus.REFUNDED)));
+    }
+
+    private static Booking booking(String paymentId, String amount, SevaBooking.BookingStatus status,
+            SevaBooking.PaymentStatus paymentStatus) {
+        return new Booking(paymentId, UUID.randomUUID(), new BigDecimal(amount), status, paymentStatus);
+    }
+
+    private SettlementReconciliationService service() {
+        return new SettlementReconciliationService(sevaBookingRepository, paymentProperties);
+    }
+
+    private SettlementReconciliationService.Summary reconcile(String report) throws IOException {
+        return service().reconcile(new BufferedReader(new StringReader(report)), out);
+    }
+
+    private List<String> issues() {
+        return out.toString().lines().skip(1).filter(line -> !line.startsWith("#")).toList();
+    }
+
+    @Test
+    void classifiesEveryRow() throws IOException {
+        SettlementReconciliationService.Summary summary = reconcile("""
+                \uFEFFentity_id,type,payment_id,amount,fee
+                pay_ok,payment,,500.00,10
+                pay_amount,payment,,"1,500.00",10
+                pay_pending,payment,,250,5
+                pay_missing,payment,,75.00,1
+                rfnd_1,refund,pay_refunded,100.00,0
+                adj_1,adjustment,,-3.00,0
+                pay_bad,payment,,abc,0
+
+                """);
+
+        assertThat(summary).isEqualTo(new SettlementReconciliationService.Summary(7, 2, 1, 1, 1, 1, 1));
+        assertThat(issues()).hasSize(4);
+        // Malformed rows are reported as they are read, the rest when their batch is looked up
+        assertThat(issues().get(0)).isEqualTo("MALFORMED,8,payment,pay_bad,abc,,,,");
+        assertThat(issues().get(1)).startsWith("AMOUNT_DIFFERS,3,payment,pay_amount,1500.00,");
+        assertThat(issues().get(2)).startsWith("STATUS_DIFFERS,4,payment,pay_pending,250,");
+        assertThat(issues().get(3)).isEqualTo("MISSING,5,payment,pay_missing,75.00,,,,");
+        assertThat(out.toString()).startsWith("issue,line,type,payment_id,settlement_amount,")
+                .endsWith("# " + summary + "\n");
+    }
+
+    @Test
+    void refundRowsNeedARefundedBooking() throws IOException {
+        SettlementReconciliationService.Summary summary = reconcile("""
+                type,entity_id,payment_id,amount
+                refund,rfnd_1,pay_ok,500.00
+                payment,pay_refunded,,100.00
+                """);
+
+        // A payment later refunded still settled; a refund of a booking that is still paid did not happen yet
+        assertThat(summary.matched()).isEqualTo(1);
+        assertThat(summary.statusMismatches()).isEqualTo(1);
+        assertThat(issues()).singleElement().asString().startsWith("STATUS_DIFFERS,2,refund,pay_ok,500.00,");
+    }
+
+    @Test
+    void looksRowsUpOneBatchAtATime() throws IOException {
+        paymentProperties.getSettlement().setBatchSize(2);
+
+        SettlementReconciliationService.Summary summary = reconcile("""
+                payment_id,amount
+                pay_ok,500.00
+                pay_refunded,100.00
+                pay_ok,500.00
+                pay_refunded,100
+                pay_ok,500
+                """);
+
+        assertThat(summary.rows()).isEqualTo(5);
+        assertThat(summary.matched()).isEqualTo(5);
+        verify(sevaBookingRepository, times(3)).findSettledByPaymentIds(anyCollection());
+    }
+
+    @Test
+    void readHeaderLeavesTheReaderAtTheFirstRow() throws IOException {
+        BufferedReader in = new BufferedReader(new StringReader("""
+                "Payment_ID","Amount","Type"
+                pay_ok,500.00,payment
+                """));
+
+        SettlementReconciliationService.Columns columns = service().readHeader(in);
+
+        assertThat(columns).isEqualTo(new SettlementReconciliationService.Columns(2, null, 0, 1));
+        assertThat(service().reconcile(columns, in, out).matched()).isEqualTo(1);
+    }
+
+    @Test
+    void rejectsUnusableHeaders() {
+        assertThatThrownBy(() -> reconcile(""))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Settlement report is empty");
+        assertThatThrownBy(() -> reconcile("entity_id,fee\npay_ok,10\n"))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> reconcile("type,amount\npayment,10\n"))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThat(out.toString()).isEmpty();
+    }
+}
@@ -0,0 +1,256 @@
+package com.seva.service;
+
+import com.seva.config.SevaBookingProperties;
+import com.seva.entity.Seva;
+import com.seva.repository.SevaQuotaRepository;
+import com.seva.repository.SevaRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class SevaQuotaServiceTest {
+
+    private static final LocalDate DATE = LocalDate.of(2026, 11, 1);
+
+    private final SevaQuotaRepository sevaQuotaRepository = mock(SevaQuotaRepository.class);
+    private final SevaRepository sevaRepository = mock(SevaRepository.class);
+    private final SevaQuotaView sevaQuotaView = mock(SevaQuotaView.class);
+    private final SevaQuotaService sevaQuotaService = new SevaQuotaService(sevaQuotaRepository, sevaRepository,
+            sevaQuotaView);
+
+    private static Seva seva(Integer dailyQuota) {
+        Seva seva = new Seva();
+        seva.setId(UUID.randomUUID());
+        seva.setDailyQuota(dailyQuota);
+        return seva;
+    }
+
+    /**
+     * Runs the call the way its transaction would: synchronizations registered during the
+     * call fire only if it completes, as on commit.
+     */
+    private static <T> T inTransaction(Supplier<T> call) {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            T result = call.get();
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+            return result;
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    private static void inTransaction(Runnable call) {
+        inTransaction(() -> {
+            call.run();
+            return null;
+        });
+    }
+
+    @Test
+    void sevaWithoutQuotaIsNeverLimited() {
+        assertThat(inTransaction(() -> sevaQuotaService.tryConsume(seva(null), DATE))).isTrue();
+
+        verifyNoInteractions(sevaQuotaRepository, sevaQuotaView);
+    }
+
+    @Test
+    void consumesFromTheDayCreatedWithTheDailyQuota() {
+        Seva seva = seva(10);
+        when(sevaQuotaRepository.consume(seva.getId(), DATE)).thenReturn(1);
+
+        assertThat(inTransaction(() -> sevaQuotaService.tryConsume(seva, DATE))).isTrue();
+
+        verify(sevaQuotaRepository).ensureDay(seva.getId(), DATE, 10);
+        verify(sevaQuotaView).applyUsage(seva.getId(), DATE, 10, 1);
+    }
+
+    @Test
+    void fullDayIsRefusedWithoutTouchingTheView() {
+        Seva seva = seva(10);
+        when(sevaQuotaRepository.consume(seva.getId(), DATE)).thenReturn(0);
+
+        assertThat(inTransaction(() -> sevaQuotaService.tryConsume(seva, DATE))).isFalse();
+
+        verifyNoInteractions(sevaQuotaView);
+    }
+
+    @Test
+    void viewIsOnlyUpdatedOnCommit() {
+        Seva seva = seva(10);
+        when(sevaQuotaRepository.consume(seva.getId(), DATE)).thenReturn(1);
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            sevaQuotaService.tryConsume(seva, DATE);
+        } finally {
+            // Rolled back: the synchronizations are dropped without afterCommit
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        verify(sevaQuotaView, never()).applyUsage(any(), any(), anyInt(), anyInt());
+    }
+
+    @Test
+    void releaseGivesOneBookingBack() {
+        Seva seva = seva(10);
+
+        inTransaction(() -> sevaQuotaService.release(seva, DATE));
+
+        verify(sevaQuotaRepository).release(seva.getId(), DATE, 1);
+        verify(sevaQuotaView).applyUsage(seva.getId(), DATE, 10, -1);
+    }
+
+    @Test
+    void releaseHeldGivesBackTheWholeCount() {
+        UUID sevaId = UUID.randomUUID();
+
+        inTransaction(() -> sevaQuotaService.releaseHeld(sevaId, DATE, 10, 4));
+
+        verify(sevaQuotaRepository).release(sevaId, DATE, 4);
+        verify(sevaQuotaView).applyUsage(sevaId, DATE, 10, -4);
+    }
+
+    @Test
+    void newDailyQuotaMovesDatesThatFollowedTheOldOne() {
+        Seva seva = seva(10);
+        when(sevaRepository.findById(seva.getId())).thenReturn(Optional.of(seva));
+        when(sevaRepository.save(seva)).thenReturn(seva);
+
+        Seva saved = inTransaction(() -> sevaQuotaService.setDailyQuota(seva.getId(), 20));
+
+        assertThat(saved.getDailyQuota()).isEqualTo(20);
+        verify(sevaQuotaRepository).updateDefaultLimit(seva.getId(), 10, 20);
+        verify(sevaQuotaView).invalidate();
+    }
+
+    @Test
+    void removingTheDailyQuotaLeavesDateRowsAlone() {
+        Seva seva = seva(10);
+        when(sevaRepository.findById(seva.getId())).thenReturn(Optional.of(seva));
+        when(sevaRepository.save(seva)).thenReturn(seva);
+
+        inTransaction(() -> sevaQuotaService.setDailyQuota(seva.getId(), null));
+
+        assertThat(seva.getDailyQuota()).isNull();
+        verify(sevaQuotaRepository, never()).updateDefaultLimit(any(), anyInt(), anyInt());
+    }
+
+    @Test
+    void rejectsInvalidLimits() {
+        Seva unlimited = seva(null);
+        when(sevaRepository.findById(unlimited.getId())).thenReturn(Optional.of(unlimited));
+
+        assertThatThrownBy(() -> sevaQuotaService.setDailyQuota(unlimited.getId(), -1))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> sevaQuotaService.setLimit(unlimited.getId(), DATE, -1))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> sevaQuotaService.setLimit(unlimited.getId(), DATE, 5))
+                .isInstanceOf(IllegalArgumentException.class);
+        verify(sevaQuotaRepository, never()).setLimit(any(), any(), anyInt());
+    }
+
+    @Test
+    void dateOverrideUpdatesTheView() {
+        Seva seva = seva(10);
+        when(sevaRepository.findById(seva.getId())).thenReturn(Optional.of(seva));
+
+        inTransaction(() -> sevaQuotaService.setLimit(seva.getId(), DATE, 3));
+
+        verify(sevaQuotaRepository).setLimit(seva.getId(), DATE, 3);
+        verify(sevaQuotaView).applyLimit(seva.getId(), DATE, 3);
+    }
+
+    @Test
+    void concurrentBookingsNeverExceedTheQuota() throws Exception {
+        int quota = 25;
+        Seva seva = seva(quota);
+        // The counter row: consume is the conditional UPDATE ... WHERE used < quota_limit
+        AtomicInteger used = new AtomicInteger();
+        SevaQuotaRepository counterRow = mock(SevaQuotaRepository.class);
+        when(counterRow.consume(seva.getId(), DATE)).thenAnswer(call -> {
+            int current;
+            do {
+                current = used.get();
+                if (current >= quota) {
+                    return 0;
+                }
+            } while (!used.compareAndSet(current, current + 1));
+            return 1;
+        });
+        when(counterRow.release(eq(seva.getId()), eq(DATE), anyInt())).thenAnswer(call -> {
+            int count = call.getArgument(2);
+            used.updateAndGet(current -> Math.max(0, current - count));
+            return 1;
+        });
+        SevaQuotaView view = new SevaQuotaView(counterRow, new SevaBookingProperties());
+        SevaQuotaService service = new SevaQuotaService(counterRow, sevaRepository, view);
+        assertThat(view.remaining(seva, DATE)).isEqualTo(quota);
+
+        int threads = 16;
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<Integer>> results = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                int thread = t;
+                results.add(pool.submit(() -> {
+                    start.await();
+                    int kept = 0;
+                    for (int i = 0; i < 20; i++) {
+                        if (inTransaction(() -> service.tryConsume(seva, DATE))) {
+                            // Some bookings fail at the gateway and hand their place back
+                            if ((thread + i) % 5 == 0) {
+                                inTransaction(() -> service.release(seva, DATE));
+                            } else {
+                                kept++;
+                            }
+                        }
+                    }
+                    return kept;
+                }));
+            }
+            start.countDown();
+            int kept = 0;
+            for (Future<Integer> result : results) {
+                kept += result.get(30, TimeUnit.SECONDS);
+            }
+
+            assertThat(kept).isEqualTo(used.get()).isLessThanOrEqualTo(quota);
+            assertThat(view.remaining(seva, DATE)).isEqualTo(quota - kept);
+
+            // Whatever was handed back can be booked again, and not one place more
+            while (inTransaction(() -> service.tryConsume(seva, DATE))) {
+                kept++;
+            }
+            assertThat(kept).isEqualTo(quota);
+            assertThat(view.remaining(seva, DATE)).isZero();
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+}
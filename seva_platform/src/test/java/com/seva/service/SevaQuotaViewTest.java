@@ -0,0 +1,95 @@
+package com.seva.service;
+
+import com.seva.config.SevaBookingProperties;
+import com.seva.entity.Seva;
+import com.seva.entity.SevaQuota;
+import com.seva.repository.SevaQuotaRepository;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class SevaQuotaViewTest {
+
+    private static final LocalDate DATE = LocalDate.of(2026, 11, 1);
+
+    private final SevaQuotaRepository sevaQuotaRepository = mock(SevaQuotaRepository.class);
+    private final SevaQuotaView view = new SevaQuotaView(sevaQuotaRepository, new SevaBookingProperties());
+
+    private static Seva seva(Integer dailyQuota) {
+        Seva seva = new Seva();
+        seva.setId(UUID.randomUUID());
+        seva.setDailyQuota(dailyQuota);
+        return seva;
+    }
+
+    private static SevaQuota row(Seva seva, int limit, int used) {
+        SevaQuota row = new SevaQuota();
+        row.setSevaId(seva.getId());
+        row.setSevaDate(DATE);
+        row.setQuotaLimit(limit);
+        row.setUsed(used);
+        return row;
+    }
+
+    @Test
+    void loadsADateOnceAndReadsRemainingFromIt() {
+        Seva booked = seva(10);
+        Seva untouched = seva(8);
+        when(sevaQuotaRepository.findBySevaDate(DATE)).thenReturn(List.of(row(booked, 12, 5)));
+
+        assertThat(view.remaining(booked, DATE)).isEqualTo(7);
+        assertThat(view.remaining(untouched, DATE)).isEqualTo(8);
+        assertThat(view.remaining(seva(null), DATE)).isNull();
+
+        verify(sevaQuotaRepository, times(1)).findBySevaDate(DATE);
+    }
+
+    @Test
+    void appliesCommittedChangesToLoadedDates() {
+        Seva seva = seva(10);
+        when(sevaQuotaRepository.findBySevaDate(DATE)).thenReturn(List.of());
+        view.remaining(seva, DATE);
+
+        view.applyUsage(seva.getId(), DATE, 10, 3);
+        assertThat(view.remaining(seva, DATE)).isEqualTo(7);
+
+        view.applyUsage(seva.getId(), DATE, 10, -1);
+        view.applyLimit(seva.getId(), DATE, 4);
+        assertThat(view.remaining(seva, DATE)).isEqualTo(2);
+
+        view.applyUsage(seva.getId(), DATE, 10, 9);
+        assertThat(view.remaining(seva, DATE)).isZero();
+    }
+
+    @Test
+    void ignoresChangesToDatesNobodyAskedFor() {
+        Seva seva = seva(10);
+        when(sevaQuotaRepository.findBySevaDate(DATE)).thenReturn(List.of(row(seva, 10, 2)));
+
+        view.applyUsage(seva.getId(), DATE, 10, 5);
+
+        // Loaded afresh from the counter rows, which already include the booking
+        assertThat(view.remaining(seva, DATE)).isEqualTo(8);
+    }
+
+    @Test
+    void invalidateReloadsFromTheDatabase() {
+        Seva seva = seva(10);
+        when(sevaQuotaRepository.findBySevaDate(DATE))
+                .thenReturn(List.of(row(seva, 10, 1)))
+                .thenReturn(List.of(row(seva, 20, 1)));
+        assertThat(view.remaining(seva, DATE)).isEqualTo(9);
+
+        view.invalidate();
+
+        assertThat(view.remaining(seva, DATE)).isEqualTo(19);
+    }
+}
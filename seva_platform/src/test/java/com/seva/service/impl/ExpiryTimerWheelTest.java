@@ -0,0 +1,86 @@
+package com.seva.service.impl;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ExpiryTimerWheelTest {
+
+    private static final long TICK = 10;
+
+    private final List<String> fired = new ArrayList<>();
+
+    @Test
+    void firesADeadlineOnceItsTickIsReached() {
+        ExpiryTimerWheel wheel = new ExpiryTimerWheel(8, TICK);
+        long now = System.currentTimeMillis();
+        wheel.schedule("a", now + 3 * TICK);
+
+        wheel.advance(now + 2 * TICK, (key, deadline) -> fired.add(key));
+        assertThat(fired).isEmpty();
+
+        List<Long> deadlines = new ArrayList<>();
+        wheel.advance(now + 4 * TICK, (key, deadline) -> {
+            fired.add(key);
+            deadlines.add(deadline);
+        });
+        assertThat(fired).containsExactly("a");
+        assertThat(deadlines).containsExactly(now + 3 * TICK);
+    }
+
+    @Test
+    void firesEachDeadlineOnlyOnce() {
+        ExpiryTimerWheel wheel = new ExpiryTimerWheel(8, TICK);
+        long now = System.currentTimeMillis();
+        wheel.schedule("a", now + TICK);
+
+        wheel.advance(now + 2 * TICK, (key, deadline) -> fired.add(key));
+        wheel.advance(now + 20 * TICK, (key, deadline) -> fired.add(key));
+
+        assertThat(fired).containsExactly("a");
+    }
+
+    @Test
+    void keepsLaterDeadlinesThatShareASlot() {
+        ExpiryTimerWheel wheel = new ExpiryTimerWheel(4, TICK);
+        long now = System.currentTimeMillis();
+        // Four ticks apart, so both land in the same slot
+        wheel.schedule("soon", now + 2 * TICK);
+        wheel.schedule("later", now + 6 * TICK);
+
+        wheel.advance(now + 3 * TICK, (key, deadline) -> fired.add(key));
+        assertThat(fired).containsExactly("soon");
+
+        wheel.advance(now + 7 * TICK, (key, deadline) -> fired.add(key));
+        assertThat(fired).containsExactly("soon", "later");
+    }
+
+    @Test
+    void carriesDeadlinesBeyondOneRevolution() {
+        ExpiryTimerWheel wheel = new ExpiryTimerWheel(4, TICK);
+        long now = System.currentTimeMillis();
+        wheel.schedule("far", now + 10 * TICK);
+
+        wheel.advance(now + 5 * TICK, (key, deadline) -> fired.add(key));
+        assertThat(fired).isEmpty();
+
+        wheel.advance(now + 11 * TICK, (key, deadline) -> fired.add(key));
+        assertThat(fired).containsExactly("far");
+    }
+
+    @Test
+    void catchesUpAfterALongPause() {
+        ExpiryTimerWheel wheel = new ExpiryTimerWheel(4, TICK);
+        long now = System.currentTimeMillis();
+        wheel.schedule("a", now + TICK);
+        wheel.schedule("b", now + 2 * TICK);
+        wheel.schedule("c", now + 3 * TICK);
+
+        wheel.advance(now + 100 * TICK, (key, deadline) -> fired.add(key));
+
+        assertThat(fired).containsExactlyInAnyOrder("a", "b", "c");
+    }
+}
@@ -0,0 +1,166 @@
+package com.seva.service.impl;
+
+import com.seva.config.OtpProperties;
+import com.seva.exception.OtpLockedException;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class InMemoryOtpServiceImplTest {
+
+    private static final String PHONE = "9000000001";
+
+    private final OtpProperties properties = new OtpProperties();
+
+    @Test
+    void acceptsTheCodeOnce() {
+        InMemoryOtpServiceImpl otpService = new InMemoryOtpServiceImpl(properties);
+        String otp = otpService.generateOtp(PHONE);
+
+        assertThat(otpService.validateOtp(PHONE, otp)).isTrue();
+        assertThat(otpService.validateOtp(PHONE, otp)).isFalse();
+    }
+
+    @Test
+    void aNewCodeReplacesTheOldOne() {
+        InMemoryOtpServiceImpl otpService = new InMemoryOtpServiceImpl(properties);
+        String first = otpService.generateOtp(PHONE);
+        String second = nextDifferentCode(otpService, first);
+
+        assertThat(otpService.validateOtp(PHONE, first)).isFalse();
+        assertThat(otpService.validateOtp(PHONE, second)).isTrue();
+    }
+
+    @Test
+    void rejectsExpiredCodes() throws InterruptedException {
+        properties.setTtl(Duration.ofMillis(50));
+        InMemoryOtpServiceImpl otpService = new InMemoryOtpServiceImpl(properties);
+        String otp = otpService.generateOtp(PHONE);
+
+        Thread.sleep(80);
+
+        assertThat(otpService.validateOtp(PHONE, otp)).isFalse();
+    }
+
+    @Test
+    void locksTheNumberOutAfterTooManyWrongCodes() {
+        properties.setMaxAttempts(3);
+        InMemoryOtpServiceImpl otpService = new InMemoryOtpServiceImpl(properties);
+        String otp = otpService.generateOtp(PHONE);
+        String wrong = otp.equals("000000") ? "111111" : "000000";
+
+        for (int i = 0; i < 3; i++) {
+            assertThat(otpService.validateOtp(PHONE, wrong)).isFalse();
+        }
+
+        assertThat(otpService.validateOtp(PHONE, otp)).isFalse();
+        assertThatThrownBy(() -> otpService.generateOtp(PHONE)).isInstanceOf(OtpLockedException.class);
+    }
+
+    @Test
+    void invalidateDiscardsOnlyTheGivenCode() {
+        InMemoryOtpServiceImpl otpService = new InMemoryOtpServiceImpl(properties);
+        String undelivered = otpService.generateOtp(PHONE);
+        otpService.invalidateOtp(PHONE, undelivered);
+        assertThat(otpService.validateOtp(PHONE, undelivered)).isFalse();
+
+        String stale = otpService.generateOtp(PHONE);
+        String current = nextDifferentCode(otpService, stale);
+        otpService.invalidateOtp(PHONE, stale);
+        assertThat(otpService.validateOtp(PHONE, current)).isTrue();
+    }
+
+    @Test
+    void concurrentRequestsWithTheRightCodeAreAcceptedOnce() throws Exception {
+        InMemoryOtpServiceImpl otpService = new InMemoryOtpServiceImpl(properties);
+        int threads = 16;
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            for (int round = 0; round < 50; round++) {
+                String phone = PHONE + round;
+                String otp = otpService.generateOtp(phone);
+                CountDownLatch start = new CountDownLatch(1);
+                List<Future<Boolean>> results = new ArrayList<>();
+                for (int t = 0; t < threads; t++) {
+                    results.add(pool.submit(() -> {
+                        start.await();
+                        return otpService.validateOtp(phone, otp);
+                    }));
+                }
+                start.countDown();
+                int accepted = 0;
+                for (Future<Boolean> result : results) {
+                    if (result.get(30, TimeUnit.SECONDS)) {
+                        accepted++;
+                    }
+                }
+
+                assertThat(accepted).isEqualTo(1);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    void concurrentWrongGuessesLockTheNumberBeforeTheRightCodeIsTried() throws Exception {
+        properties.setMaxAttempts(5);
+        InMemoryOtpServiceImpl otpService = new InMemoryOtpServiceImpl(properties);
+        int threads = 16;
+        int wrongGuessesPerThread = properties.getMaxAttempts();
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            for (int round = 0; round < 20; round++) {
+                String phone = PHONE + round;
+                String otp = otpService.generateOtp(phone);
+                CountDownLatch start = new CountDownLatch(1);
+                List<Future<Boolean>> results = new ArrayList<>();
+                for (int t = 0; t < threads; t++) {
+                    int thread = t;
+                    results.add(pool.submit(() -> {
+                        start.await();
+                        boolean accepted = false;
+                        for (int i = 0; i < wrongGuessesPerThread; i++) {
+                            String guess = wrongCode(otp, thread * wrongGuessesPerThread + i);
+                            accepted |= otpService.validateOtp(phone, guess);
+                        }
+                        // Every thread has already spent the whole attempt budget on its own
+                        return accepted | otpService.validateOtp(phone, otp);
+                    }));
+                }
+                start.countDown();
+                for (Future<Boolean> result : results) {
+                    assertThat(result.get(30, TimeUnit.SECONDS)).isFalse();
+                }
+
+                assertThat(otpService.validateOtp(phone, otp)).isFalse();
+                assertThatThrownBy(() -> otpService.generateOtp(phone)).isInstanceOf(OtpLockedException.class);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    // A code distinct from the real one for every distinct n below a million
+    private static String wrongCode(String otp, int n) {
+        return String.format("%06d", (Integer.parseInt(otp) + 1 + n) % 1000000);
+    }
+
+    private static String nextDifferentCode(InMemoryOtpServiceImpl otpService, String previous) {
+        String otp;
+        do {
+            otp = otpService.generateOtp(PHONE);
+        } while (otp.equals(previous));
+        return otp;
+    }
+}
@@ -0,0 +1,35 @@
+package com.seva.service.impl;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OtpCodesTest {
+
+    @Test
+    void generatesSixDigitCodes() {
+        for (int i = 0; i < 1000; i++) {
+            assertThat(OtpCodes.next()).matches("\\d{6}");
+        }
+    }
+
+    @Test
+    void hashIsStableAndBoundToThePhoneNumber() {
+        String hash = OtpCodes.hash("9000000001", "123456");
+
+        assertThat(hash).hasSize(64).matches("[0-9a-f]+");
+        assertThat(OtpCodes.hash("9000000001", "123456")).isEqualTo(hash);
+        assertThat(OtpCodes.hash("9000000002", "123456")).isNotEqualTo(hash);
+        assertThat(OtpCodes.hash("9000000001", "654321")).isNotEqualTo(hash);
+    }
+
+    @Test
+    void matchesOnlyEqualHashes() {
+        String hash = OtpCodes.hash("9000000001", "123456");
+
+        assertThat(OtpCodes.matches(hash, OtpCodes.hash("9000000001", "123456"))).isTrue();
+        assertThat(OtpCodes.matches(hash, OtpCodes.hash("9000000001", "123457"))).isFalse();
+        assertThat(OtpCodes.matches(null, hash)).isFalse();
+        assertThat(OtpCodes.matches(hash, null)).isFalse();
+    }
+}
@@ -0,0 +1,104 @@
+package com.seva.service.impl;
+
+import com.seva.entity.VolunteerApplication;
+import com.seva.exception.InvalidStatusTransitionException;
+import com.seva.repository.VolunteerApplicationRepository;
+import com.seva.repository.VolunteerOpportunityRepository;
+import com.seva.service.UserProfileCache;
+import jakarta.persistence.Version;
+import org.junit.jupiter.api.Test;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class VolunteerOpportunityServiceImplTest {
+
+    private final VolunteerApplicationRepository applicationRepository = mock(VolunteerApplicationRepository.class);
+    private final VolunteerOpportunityServiceImpl service = new VolunteerOpportunityServiceImpl(
+            mock(VolunteerOpportunityRepository.class), applicationRepository, mock(UserProfileCache.class));
+
+    private VolunteerApplication application(VolunteerApplication.Status status) {
+        VolunteerApplication application = new VolunteerApplication();
+        application.setId(UUID.randomUUID());
+        application.setStatus(status);
+        when(applicationRepository.findById(application.getId())).thenReturn(Optional.of(application));
+        when(applicationRepository.save(application)).thenReturn(application);
+        return application;
+    }
+
+    @Test
+    void applicationsCarryAnOptimisticLockVersion() throws NoSuchFieldException {
+        assertThat(VolunteerApplication.class.getDeclaredField("version").isAnnotationPresent(Version.class))
+                .isTrue();
+    }
+
+    @Test
+    void pendingApplicationIsDecided() {
+        VolunteerApplication application = application(VolunteerApplication.Status.PENDING);
+
+        assertThat(service.updateApplicationStatus(application.getId(), VolunteerApplication.Status.APPROVED)
+                .getStatus()).isEqualTo(VolunteerApplication.Status.APPROVED);
+        verify(applicationRepository).save(application);
+    }
+
+    @Test
+    void rejectedApplicationCannotGoBackToPending() {
+        VolunteerApplication application = application(VolunteerApplication.Status.REJECTED);
+
+        assertThatThrownBy(() -> service.updateApplicationStatus(application.getId(),
+                VolunteerApplication.Status.PENDING))
+                .isInstanceOf(InvalidStatusTransitionException.class)
+                .hasMessage("Cannot move volunteer application from REJECTED to PENDING");
+
+        assertThat(application.getStatus()).isEqualTo(VolunteerApplication.Status.REJECTED);
+        verify(applicationRepository, never()).save(any());
+    }
+
+    @Test
+    void approvedApplicationCannotGoBackToPending() {
+        VolunteerApplication application = application(VolunteerApplication.Status.APPROVED);
+
+        assertThatThrownBy(() -> service.updateApplicationStatus(application.getId(),
+                VolunteerApplication.Status.PENDING)).isInstanceOf(InvalidStatusTransitionException.class);
+
+        verify(applicationRepository, never()).save(any());
+    }
+
+    @Test
+    void rejectionCanBeRevised() {
+        VolunteerApplication application = application(VolunteerApplication.Status.REJECTED);
+
+        service.updateApplicationStatus(application.getId(), VolunteerApplication.Status.APPROVED);
+
+        assertThat(application.getStatus()).isEqualTo(VolunteerApplication.Status.APPROVED);
+        verify(applicationRepository).save(application);
+    }
+
+    @Test
+    void repeatingTheCurrentStatusIsANoOp() {
+        VolunteerApplication application = application(VolunteerApplication.Status.APPROVED);
+
+        assertThat(service.updateApplicationStatus(application.getId(), VolunteerApplication.Status.APPROVED))
+                .isSameAs(application);
+        verify(applicationRepository, never()).save(any());
+    }
+
+    @Test
+    void staleWriteFails() {
+        VolunteerApplication application = application(VolunteerApplication.Status.PENDING);
+        when(applicationRepository.save(application)).thenThrow(
+                new ObjectOptimisticLockingFailureException(VolunteerApplication.class, application.getId()));
+
+        assertThatThrownBy(() -> service.updateApplicationStatus(application.getId(),
+                VolunteerApplication.Status.REJECTED)).isInstanceOf(ObjectOptimisticLockingFailureException.class);
+    }
+}
@@ -42,13 +42,13 @@ export const AuthProvider: React.FC<{ children: ReactNode }> = ({ children }) =>
         setLoading(true);
         setError(null);
         try {
-            const { token, isNewUser } = await authService.verifyOtp(phoneNumber, otp);
+            const tokens = await authService.verifyOtp(phoneNumber, otp);
 
-            if (isNewUser) {
+            if (tokens.isNewUser) {
                 throw new Error('Access Denied: Admin account not registered.');
             }
 
-            authService.saveToken(token);
+            authService.saveTokens(tokens);
 
             const profile = await authService.getCurrentUser();
 
@@ -1,8 +1,10 @@
 import axios from 'axios';
 import { authService } from './authService';
 
+export const API_BASE_URL = import.meta.env.VITE_API_BASE_URL || 'http://localhost:8080/api';
+
 const apiClient = axios.create({
-    baseURL: import.meta.env.VITE_API_BASE_URL || 'http://localhost:8080/api',
+    baseURL: API_BASE_URL,
     headers: {
         'Content-Type': 'application/json',
     },
@@ -10,8 +12,8 @@ const apiClient = axios.create({
 
 // Request interceptor: add auth token
 apiClient.interceptors.request.use(
-    (config) => {
-        const token = authService.getToken();
+    async (config) => {
+        const token = await authService.getValidToken();
         if (token) {
             config.headers.Authorization = `Bearer ${token}`;
         }
@@ -1,13 +1,27 @@
-import apiClient from './apiClient';
+import axios from 'axios';
+import apiClient, { API_BASE_URL } from './apiClient';
 import type { User } from '../types/types';
 
 const AUTH_TOKEN_KEY = 'admin_auth_token';
+const REFRESH_TOKEN_KEY = 'admin_refresh_token';
+const TOKEN_EXPIRES_AT_KEY = 'admin_auth_token_expires_at';
 
-interface AuthResponse {
+// Refresh this long before the access token expires, so requests never go out with a stale one
+const REFRESH_MARGIN_MS = 60 * 1000;
+
+interface TokenResponse {
     token: string;
+    refreshToken?: string;
+    expiresIn?: number;
+}
+
+interface AuthResponse extends TokenResponse {
     isNewUser: boolean;
 }
 
+// Shared by concurrent requests so a refresh token is only ever spent once
+let refreshInFlight: Promise<string | null> | null = null;
+
 export const authService = {
     async sendOtp(phoneNumber: string): Promise<{ message: string }> {
         const response = await apiClient.post(`/auth/send-otp?phoneNumber=${encodeURIComponent(phoneNumber)}`);
@@ -24,16 +38,75 @@ export const authService = {
         return response.data;
     },
 
-    saveToken(token: string): void {
-        localStorage.setItem(AUTH_TOKEN_KEY, token);
+    saveTokens(tokens: TokenResponse): void {
+        localStorage.setItem(AUTH_TOKEN_KEY, tokens.token);
+        if (tokens.refreshToken) {
+            localStorage.setItem(REFRESH_TOKEN_KEY, tokens.refreshToken);
+        }
+        if (tokens.expiresIn) {
+            localStorage.setItem(TOKEN_EXPIRES_AT_KEY, String(Date.now() + tokens.expiresIn * 1000));
+        }
     },
 
     getToken(): string | null {
         return localStorage.getItem(AUTH_TOKEN_KEY);
     },
 
-    logout(): void {
+    /**
+     * Returns an access token that is still valid, refreshing it first when it is about to expire.
+     */
+    async getValidToken(): Promise<string | null> {
+        const token = localStorage.getItem(AUTH_TOKEN_KEY);
+        const expiresAt = localStorage.getItem(TOKEN_EXPIRES_AT_KEY);
+        if (!token || !expiresAt || Date.now() < Number(expiresAt) - REFRESH_MARGIN_MS) {
+            return token;
+        }
+        if (!refreshInFlight) {
+            refreshInFlight = this.refresh(token).finally(() => {
+                refreshInFlight = null;
+            });
+        }
+        return refreshInFlight;
+    },
+
+    async refresh(currentToken: string): Promise<string | null> {
+        const refreshToken = localStorage.getItem(REFRESH_TOKEN_KEY);
+        if (!refreshToken) {
+            return currentToken;
+        }
+        try {
+            // Plain axios, so the refresh call does not go through apiClient's own interceptors
+            const response = await axios.post<TokenResponse>(
+                `${API_BASE_URL}/auth/refresh?refreshToken=${encodeURIComponent(refreshToken)}`);
+            this.saveTokens(response.data);
+            return response.data.token;
+        } catch (err: any) {
+            if (err.response?.status === 401) {
+                this.clearTokens();
+                return null;
+            }
+            // Network trouble: keep the current token and try again on the next request
+            return currentToken;
+        }
+    },
+
+    clearTokens(): void {
         localStorage.removeItem(AUTH_TOKEN_KEY);
+        localStorage.removeItem(REFRESH_TOKEN_KEY);
+        localStorage.removeItem(TOKEN_EXPIRES_AT_KEY);
+    },
+
+    logout(): void {
+        const token = localStorage.getItem(AUTH_TOKEN_KEY);
+        const refreshToken = localStorage.getItem(REFRESH_TOKEN_KEY);
+        if (token) {
+            // Best effort: revoke the session on the server, but always sign out locally
+            const query = refreshToken ? `?refreshToken=${encodeURIComponent(refreshToken)}` : '';
+            axios.post(`${API_BASE_URL}/auth/logout${query}`, null, {
+                headers: { Authorization: `Bearer ${token}` },
+            }).catch(() => undefined);
+        }
+        this.clearTokens();
     },
 
     async updateProfile(userData: Partial<User>): Promise<User> {